@@ -0,0 +1,56 @@
+package com.hamrobazaar.benchmarks;
+
+import com.hamrobazaar.pages.CardSnapshotParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CardSnapshotParserBenchmark - Snapshot parse time against the number of cards
+ * Cost should grow linearly: four times the cards about four times the time (a per-card document
+ * conversion was about sixteen times)
+ *
+ *   java -jar target/benchmarks.jar CardSnapshotParserBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardSnapshotParserBenchmark {
+
+    @Param({"200", "800"})
+    private int cards;
+
+    private String html;
+
+    @Setup
+    public void buildSnapshot() {
+        StringBuilder snapshot = new StringBuilder("<html><body><div class=\"relative\">");
+        for (int i = 0; i < cards; i++) {
+            snapshot.append("<div data-index=\"").append(i).append("\" class=\"w-full mb-3\">")
+                .append("<a class=\"heading-h6 break-words\">Item ").append(i).append("</a>")
+                .append("<span class=\"text-sm font-semibold\">").append(1000 + i).append("</span>")
+                .append("</div>");
+        }
+        html = snapshot.append("</div></body></html>").toString();
+    }
+
+    @Benchmark
+    public List<List<Object>> parseRows() {
+        return CardSnapshotParser.parseRows(html, Collections.emptyList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.hamrobazaar.benchmarks;
+
+import com.hamrobazaar.utils.PriceParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PriceParserBenchmark - PriceParser vs the old replaceAll("[^0-9.]") + Double.parseDouble approach
+ * Runs over price strings captured from HamroBazaar result cards (test-output CSVs and card text)
+ *
+ * Run with -prof gc to compare allocation per operation:
+ *   java -jar target/benchmarks.jar PriceParserBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceParserBenchmark {
+
+    // Captured card prices: plain, western and lakh/crore grouping, prefixes, Devanagari and sentinels
+    private final String[] prices = {
+        "1", "87", "650", "999", "1,000", "1,499", "2,875", "65,00,000", "15,50,000",
+        "Rs 1,099", "Rs. 2,240", "Rs 65,00,000", "रू 1,550", "रू १,५००", "NPR 1,00,00,000",
+        "Rs 1,499.50", "Price on call", "N/A"
+    };
+
+    @Benchmark
+    public void regexAndDouble(Blackhole bh) {
+        for (String price : prices) {
+            String raw = price.replaceAll("[^0-9.]", "").trim();
+            if (!raw.isEmpty()) {
+                try {
+                    bh.consume(Double.parseDouble(raw));
+                } catch (NumberFormatException e) {
+                    bh.consume(e);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void priceParser(Blackhole bh) {
+        for (String price : prices) {
+            bh.consume(PriceParser.parsePaisa(price));
+        }
+    }
+}
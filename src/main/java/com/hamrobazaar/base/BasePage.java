@@ -1,16 +1,29 @@
 package com.hamrobazaar.base;
 
+import com.hamrobazaar.enums.InteractionProfile;
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.utils.CdpOverrides;
+import com.hamrobazaar.utils.SortVerifier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
+import org.openqa.selenium.chromium.HasCdp;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import org.openqa.selenium.support.ui.Sleeper;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 
 public class BasePage {
@@ -21,21 +34,396 @@ public class BasePage {
     protected Actions actions;
     
     
+    // Budget of a wait without enough history in WaitTimings
     private static final int DEFAULT_WAIT = 20;
     
+    // Budget for resolving a locator chain. Implicit wait is 0, so each miss costs one poll, not a timeout
+    protected static final Duration STEP_BUDGET = Duration.ofSeconds(10);
+    
+    // Polling starts a few ms after the first miss and doubles up to the cap
+    private static final long FIRST_POLL_MS = 5;
+    private static final long MAX_POLL_MS = 250;
+    
+    // Selected per run with -Dinteraction.profile=debug|turbo; scheduled runs use turbo
+    protected static final InteractionProfile PROFILE = InteractionProfile.fromString(System.getProperty("interaction.profile"));
+    
+    /*
+     * Turbo: a style sheet that switches off transitions, animations and smooth scrolling, added to the
+     * current document (or once it has a root element when run as a new-document script)
+     */
+    private static final String NO_ANIMATION_SCRIPT =
+        "(function () {" +
+        "  function add() {" +
+        "    if (document.getElementById('hb-no-animation')) return;" +
+        "    var style = document.createElement('style');" +
+        "    style.id = 'hb-no-animation';" +
+        "    style.textContent = '*, *::before, *::after { transition: none !important; animation: none !important;" +
+        " scroll-behavior: auto !important; }';" +
+        "    (document.head || document.documentElement).appendChild(style);" +
+        "  }" +
+        "  if (document.documentElement) add(); else document.addEventListener('readystatechange', add, { once: true });" +
+        "})();";
+    
+    /*
+     * Turbo: instant scroll to the center and click in one call. el.click() sends no pointer events and
+     * ignores overlays, so it is only used when the element itself is what a pointer would hit at its center
+     * arguments: [0] element
+     * returns:   'clicked', 'disabled' or 'covered' (the caller falls back to a native click for the last two)
+     */
+    private static final String SCROLL_AND_CLICK_SCRIPT =
+        "var el = arguments[0];" +
+        "if (el.disabled || el.getAttribute('aria-disabled') === 'true') return 'disabled';" +
+        "el.scrollIntoView({behavior: 'instant', block: 'center', inline: 'nearest'});" +
+        "var r = el.getBoundingClientRect();" +
+        "var hit = document.elementFromPoint(r.left + r.width / 2, r.top + r.height / 2);" +
+        "if (!hit || (hit !== el && !el.contains(hit))) return 'covered';" +
+        "el.click();" +
+        "return 'clicked';";
+    
+    // Sets an input's value through the prototype setter, so React's value tracker sees a change, then fires input and change
+    private static final String SET_VALUE_FUNCTION =
+        "function setValue(el, value) {" +
+        "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype" +
+        "    : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype : HTMLInputElement.prototype;" +
+        "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);" +
+        "  el.dispatchEvent(new Event('input', { bubbles: true }));" +
+        "  el.dispatchEvent(new Event('change', { bubbles: true }));" +
+        "  return el.value === value;" +
+        "}";
+    
+    /*
+     * Fills several fields in one call. Inputs, textareas and selects get the value through setValue;
+     * for other elements (radio buttons) the one whose aria-label or text equals the value is clicked
+     * arguments: [0] [[css selector, value], ...]
+     * returns:   one status per field: "set", "clicked", "rejected" (the value did not stick) or "missing"
+     */
+    private static final String FILL_FORM_SCRIPT =
+        SET_VALUE_FUNCTION +
+        "var out = [];" +
+        "arguments[0].forEach(function (field) {" +
+        "  var nodes = document.querySelectorAll(field[0]), value = field[1];" +
+        "  if (nodes.length === 0) { out.push('missing'); return; }" +
+        "  if (/^(INPUT|TEXTAREA|SELECT)$/.test(nodes[0].tagName)) {" +
+        "    out.push(setValue(nodes[0], value) ? 'set' : 'rejected');" +
+        "    return;" +
+        "  }" +
+        "  for (var i = 0; i < nodes.length; i++) {" +
+        "    var label = (nodes[i].getAttribute('aria-label') || nodes[i].textContent || '').trim();" +
+        "    if (label.toLowerCase() === value.toLowerCase()) { nodes[i].click(); out.push('clicked'); return; }" +
+        "  }" +
+        "  out.push('missing');" +
+        "});" +
+        "return out;";
+    
+    /*
+     * Evaluates every alternative of a LocatorChain in one call
+     * arguments: [0] [[kind, expression], ...] in hit-rate order
+     * returns:   [position, element] of the first visible match, or null
+     */
+    private static final String RESOLVE_CHAIN_SCRIPT =
+        "var alts = arguments[0];" +
+        "function visible(el) { return !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length); }" +
+        "for (var i = 0; i < alts.length; i++) {" +
+        "  var nodes = [];" +
+        "  try {" +
+        "    if (alts[i][0] === 'CSS') {" +
+        "      nodes = document.querySelectorAll(alts[i][1]);" +
+        "    } else {" +
+        "      var snap = document.evaluate(alts[i][1], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+        "      for (var j = 0; j < snap.snapshotLength; j++) nodes.push(snap.snapshotItem(j));" +
+        "    }" +
+        "  } catch (e) { continue; }" +
+        "  for (var k = 0; k < nodes.length; k++) { if (visible(nodes[k])) return [i, nodes[k]]; }" +
+        "}" +
+        "return null;";
+    
     
     public BasePage(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_WAIT));
         this.actions = new Actions(driver);
         PageFactory.initElements(driver, this);
+        PageReadiness.install(driver);
+        if (PROFILE == InteractionProfile.TURBO) {
+            disableAnimations(driver);
+        }
+    }
+    
+    
+    /**
+     * Turbo: no CSS transitions or animations in this document and, where the browser supports CDP,
+     * in every later one, which also reports prefers-reduced-motion to the page
+     */
+    private static void disableAnimations(WebDriver driver) {
+        if (CdpOverrides.isSupported(driver)) {
+            try {
+                if (CdpOverrides.addScriptOnNewDocument(driver, "no-animation", NO_ANIMATION_SCRIPT)) {
+                    CdpOverrides.emulateMediaFeature(driver, "prefers-reduced-motion", "reduce");
+                    log.info("Animations disabled for new documents (turbo profile)");
+                }
+            } catch (Exception e) {
+                log.warn("Could not disable animations over CDP: {}", e.getMessage());
+            }
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(NO_ANIMATION_SCRIPT);
+        } catch (Exception e) {
+            log.debug("Could not disable animations in the current document: {}", e.getMessage());
+        }
     }
     
    
+    /**
+     * Run an explicit wait capped by the scenario budget and book its time as waiting
+     */
+    protected <T> T timedWait(Function<WebDriver, T> condition) {
+        return timedWait(null, condition);
+    }
+    
+    
+    /**
+     * Named explicit wait: its budget comes from the wait's history in WaitTimings (p99 plus margin, the
+     * default until there is enough history) and its latency is recorded for the next run
+     */
+    protected <T> T timedWait(String name, Function<WebDriver, T> condition) {
+        ScenarioClock clock = ScenarioClock.current();
+        long start = System.nanoTime();
+        try {
+            return poll(name, Duration.ofSeconds(DEFAULT_WAIT), condition);
+        } finally {
+            clock.recordWaiting(System.nanoTime() - start);
+        }
+    }
+    
+    
+    /**
+     * Evaluate the condition until it returns something other than null or false, sleeping FIRST_POLL_MS after
+     * the first miss and doubling up to MAX_POLL_MS, so a fast condition is seen within a few ms.
+     * NotFoundException counts as a miss, like in WebDriverWait. The wait is recorded in WaitTimings when named
+     */
+    private <T> T poll(String name, Duration fallback, Function<WebDriver, T> condition) {
+        Duration budget = ScenarioClock.current().cap(WaitTimings.timeout(name, fallback));
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        long sleepMs = FIRST_POLL_MS;
+        RuntimeException lastMiss = null;
+        
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    if (name != null) {
+                        WaitTimings.record(name, (System.nanoTime() - start) / 1_000_000);
+                    }
+                    return value;
+                }
+            } catch (NotFoundException e) {
+                lastMiss = e;
+            }
+            
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                if (name != null) {
+                    WaitTimings.recordTimeout(name);
+                }
+                throw new TimeoutException((name == null ? condition.toString() : name)
+                    + ": not met within " + budget.toMillis() + "ms", lastMiss);
+            }
+            try {
+                Sleeper.SYSTEM_SLEEPER.sleep(Duration.ofNanos(Math.min(left, sleepMs * 1_000_000)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while waiting", e);
+            }
+            sleepMs = Math.min(MAX_POLL_MS, sleepMs * 2);
+        }
+    }
+    
+    
+    /**
+     * driver.get, recording the page load time in WaitTimings
+     */
+    protected void navigate(String url) {
+        navigate(driver, url);
+    }
+    
+    
+    /**
+     * The one place page loads are timed; BaseTest.navigateToURL goes through here too
+     */
+    static void navigate(WebDriver driver, String url) {
+        ScenarioClock clock = ScenarioClock.current();
+        long start = System.nanoTime();
+        try {
+            driver.get(url);
+            WaitTimings.record(WaitTimings.PAGE_LOAD, (System.nanoTime() - start) / 1_000_000);
+        } catch (TimeoutException e) {
+            WaitTimings.recordTimeout(WaitTimings.PAGE_LOAD);
+            throw e;
+        } finally {
+            clock.recordWaiting(System.nanoTime() - start);
+        }
+    }
+    
+    
+    /**
+     * Wait until no fetch/XHR has been in flight for the quiet period, on network events in the page
+     * False when it timed out or the page cannot run the probe
+     */
+    protected boolean waitForNetworkIdle() {
+        return timedReadiness("PageReadiness.networkIdle", budget -> PageReadiness.networkIdle(driver, PageReadiness.QUIET, budget));
+    }
+    
+    
+    /**
+     * Click an element that re-renders the container (null = the page body), e.g. a sort option, and wait until
+     * the container has changed and settled. The container is watched from before the click, so a re-render
+     * that is over before the wait starts, or one that replaces the container node, is not missed.
+     * False when nothing changed in time or the page cannot run the watcher
+     */
+    protected boolean clickAndWaitForMutation(WebElement element, WebElement container) {
+        long watch = PageReadiness.watchMutations(driver, container);
+        try {
+            scrollAndClick(element);
+        } catch (RuntimeException e) {
+            PageReadiness.stopWatching(driver, watch);
+            throw e;
+        }
+        if (watch < 0) {
+            return false;
+        }
+        return timedReadiness("PageReadiness.mutated", budget -> PageReadiness.mutated(driver, watch, PageReadiness.QUIET, budget));
+    }
+    
+    
+    /**
+     * Wait until neither the network nor the DOM has changed for the quiet period
+     * Costs one quiet period when the page is already idle, e.g. after a scroll that rendered nothing new
+     */
+    protected boolean waitForSettled() {
+        return timedReadiness("PageReadiness.settled", budget -> PageReadiness.settled(driver, PageReadiness.QUIET, budget));
+    }
+    
+    
+    /**
+     * Wait until the document has loaded, the Next.js client has hydrated and the network is idle
+     */
+    protected boolean waitForHydration() {
+        return timedReadiness("PageReadiness.hydrated", budget -> PageReadiness.hydrated(driver, PageReadiness.QUIET, budget));
+    }
+    
+    
+    private boolean timedReadiness(String name, Function<Duration, Boolean> wait) {
+        ScenarioClock clock = ScenarioClock.current();
+        long start = System.nanoTime();
+        try {
+            boolean ready = wait.apply(clock.cap(WaitTimings.timeout(name, STEP_BUDGET)));
+            if (ready) {
+                WaitTimings.record(name, (System.nanoTime() - start) / 1_000_000);
+            } else {
+                WaitTimings.recordTimeout(name);
+            }
+            return ready;
+        } finally {
+            clock.recordWaiting(System.nanoTime() - start);
+        }
+    }
+    
+    
+    /**
+     * Resolve a LocatorChain in one browser call per poll
+     * Implicit wait is off, so a poll where nothing matches costs one round trip, not a timeout.
+     * The budget adapts to the chain's history in WaitTimings and is capped by the scenario limit,
+     * and the winning alternative is recorded in LocatorHitRates
+     */
+    protected LocatorChain.Match resolveMatch(LocatorChain chain, Duration budget) {
+        ScenarioClock clock = ScenarioClock.current();
+        List<LocatorChain.Alternative> ordered = chain.orderedByHitRate();
+        List<List<String>> args = new ArrayList<>();
+        for (LocatorChain.Alternative alternative : ordered) {
+            args.add(Arrays.asList(alternative.getKind().name(), alternative.getExpression()));
+        }
+        
+        long[] probingNanos = {0};
+        boolean[] missed = {false};
+        long start = System.nanoTime();
+        
+        try {
+            List<?> hit = poll(chain.getName(), budget, d -> {
+                long probeStart = System.nanoTime();
+                try {
+                    Object result = ((JavascriptExecutor) d).executeScript(RESOLVE_CHAIN_SCRIPT, args);
+                    if (result == null) {
+                        missed[0] = true;
+                    }
+                    return (List<?>) result;
+                } finally {
+                    probingNanos[0] += System.nanoTime() - probeStart;
+                }
+            });
+            
+            LocatorChain.Alternative winner = ordered.get(((Number) hit.get(0)).intValue());
+            LocatorHitRates.recordHit(chain.getName(), winner.getLabel());
+            log.debug("{} resolved using '{}'", chain.getName(), winner.getLabel());
+            return new LocatorChain.Match((WebElement) hit.get(1), winner);
+        } finally {
+            // One miss per wait, however many polls it took
+            if (missed[0]) {
+                clock.recordMiss();
+            }
+            long total = System.nanoTime() - start;
+            clock.recordWorking(probingNanos[0]);
+            clock.recordWaiting(total - probingNanos[0]);
+        }
+    }
+    
+    
+    protected WebElement resolve(LocatorChain chain, Duration budget) {
+        return resolveMatch(chain, budget).getElement();
+    }
+    
+    
+    /**
+     * Find a child element without waiting. Returns null if it is not present
+     */
+    protected WebElement findOptional(SearchContext parent, By locator) {
+        ScenarioClock clock = ScenarioClock.current();
+        long start = System.nanoTime();
+        try {
+            List<WebElement> found = parent.findElements(locator);
+            return found.isEmpty() ? null : found.get(0);
+        } finally {
+            clock.recordWorking(System.nanoTime() - start);
+        }
+    }
+    
+    
+    /**
+     * Feed the text of every element matching the locator, in page order, through a SortVerifier
+     * One pass over the page, nothing is copied or sorted
+     */
+    protected SortVerifier verifyOrder(SortOrder sortOrder, By valueLocator) {
+        SortVerifier verifier = SortVerifier.forOrder(sortOrder);
+        List<WebElement> elements = driver.findElements(valueLocator);
+        log.info("Verifying {} over {} elements on the page", sortOrder.getDisplayText(), elements.size());
+
+        for (WebElement element : elements) {
+            try {
+                verifier.acceptValue(element.getText().trim());
+            } catch (StaleElementReferenceException e) {
+                verifier.acceptValue(null);
+            }
+        }
+
+        log.info("{}", verifier.summary());
+        return verifier;
+    }
+    
+    
     protected WebElement waitForElementToBeVisible(WebElement element) {
         try {
             log.debug("Waiting for element to be visible");
-            return wait.until(ExpectedConditions.visibilityOf(element));
+            return timedWait(ExpectedConditions.visibilityOf(element));
         } catch (TimeoutException e) {
             log.error("Element not visible within timeout: {}", e.getMessage());
             throw e;
@@ -46,7 +434,21 @@ public class BasePage {
     protected WebElement waitForElementToBeClickable(WebElement element) {
         try {
             log.debug("Waiting for element to be clickable");
-            return wait.until(ExpectedConditions.elementToBeClickable(element));
+            return timedWait(ExpectedConditions.elementToBeClickable(element));
+        } catch (TimeoutException e) {
+            log.error("Element not clickable within timeout: {}", e.getMessage());
+            throw e;
+        }
+    }
+    
+    
+    /**
+     * Wait until the located element is clickable, with a budget from the named wait's history
+     */
+    protected WebElement waitForElementToBeClickable(String name, By locator) {
+        try {
+            log.debug("Waiting for {} to be clickable: {}", name, locator);
+            return timedWait(name, ExpectedConditions.elementToBeClickable(locator));
         } catch (TimeoutException e) {
             log.error("Element not clickable within timeout: {}", e.getMessage());
             throw e;
@@ -55,9 +457,17 @@ public class BasePage {
     
     
     protected WebElement waitForElement(By locator) {
+        return waitForElement(null, locator);
+    }
+    
+    
+    /**
+     * Wait until the located element is visible, with a budget from the named wait's history
+     */
+    protected WebElement waitForElement(String name, By locator) {
         try {
             log.debug("Waiting for element: {}", locator);
-            return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            return timedWait(name, ExpectedConditions.visibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             log.error("Element not found: {}", locator, e);
             throw e;
@@ -66,9 +476,17 @@ public class BasePage {
     
     
     protected List<WebElement> waitForElements(By locator) {
+        return waitForElements(null, locator);
+    }
+    
+    
+    /**
+     * Wait until every located element is visible, with a budget from the named wait's history
+     */
+    protected List<WebElement> waitForElements(String name, By locator) {
         try {
             log.debug("Waiting for elements: {}", locator);
-            return wait.until(ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
+            return timedWait(name, ExpectedConditions.visibilityOfAllElementsLocatedBy(locator));
         } catch (TimeoutException e) {
             log.error("Elements not found: {}", locator, e);
             throw e;
@@ -79,7 +497,7 @@ public class BasePage {
     protected void waitForElementToDisappear(By locator) {
         try {
             log.debug("Waiting for element to disappear: {}", locator);
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+            timedWait(ExpectedConditions.invisibilityOfElementLocated(locator));
         } catch (TimeoutException e) {
             log.warn("Element still visible after timeout: {}", locator);
         }
@@ -110,6 +528,52 @@ public class BasePage {
     }
     
     
+    /**
+     * Bring the element into view and click it
+     * Turbo: one script call (instant scroll + click) when nothing covers the element; a covered element gets
+     * a native click once the overlay is gone, never a JS click through it. Debug: highlighted scroll, then a
+     * native click, falling back to a JS click when something overlaps the element
+     */
+    protected void scrollAndClick(WebElement element) {
+        if (PROFILE == InteractionProfile.TURBO) {
+            try {
+                Object outcome = ((JavascriptExecutor) driver).executeScript(SCROLL_AND_CLICK_SCRIPT, element);
+                if ("clicked".equals(outcome)) {
+                    log.info("Clicked element (turbo)");
+                    return;
+                }
+                if ("covered".equals(outcome)) {
+                    log.debug("Element covered at its center, clicking natively once it is not");
+                    nativeClickWhenUncovered(element);
+                    return;
+                }
+                log.debug("Element disabled, waiting for it to become clickable");
+            } catch (JavascriptException e) {
+                log.debug("Turbo click failed, using a waiting click: {}", e.getMessage());
+            }
+        } else {
+            scrollToElementAndHighlight(element);
+        }
+        try { click(element); } catch (Exception e) { clickUsingJS(element); }
+    }
+    
+    
+    /**
+     * Native click, retried while another element would receive it (an overlay or a closing popup)
+     */
+    private void nativeClickWhenUncovered(WebElement element) {
+        timedWait(d -> {
+            try {
+                element.click();
+                return true;
+            } catch (ElementClickInterceptedException e) {
+                return null;
+            }
+        });
+        log.info("Clicked element");
+    }
+    
+    
     protected void sendKeys(WebElement element, String text) {
         try {
             waitForElementToBeVisible(element);
@@ -123,10 +587,14 @@ public class BasePage {
     }
     
     
+    /**
+     * Set an input's value in one script call, with the input and change events React listens for.
+     * The text is passed as a script argument, so quotes in it are safe
+     */
     protected void sendKeysUsingJS(WebElement element, String text) {
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
-            js.executeScript("arguments[0].value='" + text + "';", element);
+            js.executeScript(SET_VALUE_FUNCTION + "setValue(arguments[0], arguments[1]);", element, text);
             log.info("Typed text using JS: {}", text);
         } catch (Exception e) {
             log.error("Failed to send keys using JS: {}", e.getMessage());
@@ -135,6 +603,61 @@ public class BasePage {
     }
     
    
+    /**
+     * Fill several form fields in one browser call, keyed by CSS selector in fill order
+     * Returns the status of each field ("set", "clicked", "rejected" or "missing") so the caller can
+     * fall back to insertText or a per-field step for the ones the script could not set
+     */
+    protected Map<String, String> fillForm(Map<String, String> fields) {
+        List<List<String>> args = new ArrayList<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            args.add(Arrays.asList(field.getKey(), field.getValue()));
+        }
+        
+        ScenarioClock clock = ScenarioClock.current();
+        long start = System.nanoTime();
+        Object raw;
+        try {
+            raw = ((JavascriptExecutor) driver).executeScript(FILL_FORM_SCRIPT, args);
+        } finally {
+            clock.recordWorking(System.nanoTime() - start);
+        }
+        
+        Map<String, String> statuses = new LinkedHashMap<>();
+        List<?> results = raw instanceof List ? (List<?>) raw : Collections.emptyList();
+        int i = 0;
+        for (String selector : fields.keySet()) {
+            statuses.put(selector, i < results.size() ? String.valueOf(results.get(i)) : "missing");
+            i++;
+        }
+        log.info("Filled {} fields in one call: {}", fields.size(), statuses.values());
+        return statuses;
+    }
+    
+    
+    /**
+     * Replace an input's text with real text input, for fields that ignore a scripted value
+     * Uses DevTools Input.insertText where the browser supports CDP, otherwise clear + sendKeys
+     */
+    protected void insertText(WebElement element, String text) {
+        try {
+            ((JavascriptExecutor) driver).executeScript("arguments[0].focus(); if (arguments[0].select) arguments[0].select();", element);
+            if (driver instanceof HasCdp) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("text", text);
+                ((HasCdp) driver).executeCdpCommand("Input.insertText", params);
+            } else {
+                element.clear();
+                element.sendKeys(text);
+            }
+            log.info("Inserted text: {}", text);
+        } catch (Exception e) {
+            log.error("Failed to insert text: {}", e.getMessage());
+            throw e;
+        }
+    }
+    
+    
     protected String getText(WebElement element) {
         try {
             waitForElementToBeVisible(element);
@@ -190,8 +713,9 @@ public class BasePage {
     protected void scrollToElement(WebElement element) {
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
-            // Scroll to center of viewport instead of top
-            js.executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center', inline: 'nearest'});", element);
+            // Scroll to center of viewport instead of top (instantly in turbo)
+            js.executeScript("arguments[0].scrollIntoView({behavior: arguments[1], block: 'center', inline: 'nearest'});",
+                element, PROFILE == InteractionProfile.TURBO ? "instant" : "smooth");
             log.info("Scrolled to element (centered in viewport)");
         } catch (Exception e) {
             log.error("Failed to scroll to element: {}", e.getMessage());
@@ -199,7 +723,14 @@ public class BasePage {
     }
     
     
+    /**
+     * Debug: smooth scroll to the center and a brief highlight. Turbo: one instant scroll, no highlight
+     */
     protected void scrollToElementAndHighlight(WebElement element) {
+        if (PROFILE == InteractionProfile.TURBO) {
+            scrollToElement(element);
+            return;
+        }
         try {
             JavascriptExecutor js = (JavascriptExecutor) driver;
             
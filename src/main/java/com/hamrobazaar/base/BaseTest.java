@@ -11,8 +11,12 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 
@@ -22,40 +26,59 @@ import java.time.Duration;
 public class BaseTest {
     
     protected static final Logger log = LogManager.getLogger(BaseTest.class);
-    protected WebDriver driver;
     
-    // Default timeout values (in seconds)
-    protected static final int IMPLICIT_WAIT = 10;
+    // Default timeout values (in seconds), used until WaitTimings has enough history for a wait
+    // Implicit wait stays off: BasePage resolves locators with explicit per-step budgets instead
+    protected static final int IMPLICIT_WAIT = 0;
     protected static final int EXPLICIT_WAIT = 20;
     protected static final int PAGE_LOAD_TIMEOUT = 30;
     
+    // Async readiness scripts must be allowed to run as long as the longest wait budget
+    protected static final int SCRIPT_TIMEOUT = 30;
+    
+    // Hard limit for one scenario, override with -Dscenario.timeLimitSeconds=N
+    protected static final int SCENARIO_TIME_LIMIT = Integer.getInteger("scenario.timeLimitSeconds", 600);
+    
    
+    /**
+     * Start launching browsers before the first test so startup overlaps with CSV loading and report setup
+     * The pool is sized to the suite's thread count (or data-provider thread count, if larger)
+     * so every parallel method or scenario row gets its own browser
+     */
+    @BeforeSuite(alwaysRun = true)
+    public void startDriverPool(ITestContext context) {
+        String browser = context.getCurrentXmlTest().getParameter("browser");
+        String name = (browser == null) ? "chrome" : browser;
+        int threads = Math.max(1, Math.max(context.getSuite().getXmlSuite().getThreadCount(),
+                context.getSuite().getXmlSuite().getDataProviderThreadCount()));
+        log.info("Pre-launching {} {} browsers", threads, name);
+        DriverManager.startPool(() -> createDriver(name), threads);
+    }
+    
+    
+    /**
+     * The browser leased to the current thread. Test classes must use this instead of keeping
+     * their own field, because parallel methods share one test class instance
+     */
+    protected WebDriver getDriver() {
+        return DriverManager.getDriver();
+    }
+    
+    
     @BeforeMethod
     @Parameters({"browser"})
     public void setUp(@Optional("chrome") String browser) {
         
         log.info("Setting up WebDriver for browser: {}", browser);
+        ScenarioClock.start(Duration.ofSeconds(SCENARIO_TIME_LIMIT));
         
         
         try {
-            // Initialize WebDriver based on browser parameter
-            driver = initializeDriver(browser);
-            
-            // Set driver in DriverManager for global access
-            DriverManager.setDriver(driver);
+            // No-op when the suite already started the pool
+            DriverManager.startPool(() -> createDriver(browser), 1);
             
-            // Configure timeouts
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
-            driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
-            
-            // Maximize browser window
-            driver.manage().window().maximize();
-            log.info("Browser window maximized");
-            
-            // Delete all cookies
-            driver.manage().deleteAllCookies();
-            log.info("All cookies deleted");
+            // Lease a warm browser; DriverManager binds it to this thread
+            DriverManager.leaseDriver();
             
             log.info("WebDriver setup completed successfully");
             
@@ -66,7 +89,33 @@ public class BaseTest {
     }
     
     
-    private WebDriver initializeDriver(String browser) {
+    /**
+     * Launch and configure one browser. Called by the DriverPool on its launcher thread
+     */
+    protected static WebDriver createDriver(String browser) {
+        WebDriver driver = initializeDriver(browser);
+        
+        // Configure timeouts
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT));
+        // Page loads get the p99 of earlier loads plus a margin once there is enough history
+        Duration pageLoad = WaitTimings.timeout(WaitTimings.PAGE_LOAD, Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
+        driver.manage().timeouts().pageLoadTimeout(pageLoad);
+        driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(SCRIPT_TIMEOUT));
+        log.info("Page load timeout: {}ms", pageLoad.toMillis());
+        
+        // Maximize browser window
+        driver.manage().window().maximize();
+        log.info("Browser window maximized");
+        
+        // Delete all cookies
+        driver.manage().deleteAllCookies();
+        log.info("All cookies deleted");
+        
+        return driver;
+    }
+    
+    
+    private static WebDriver initializeDriver(String browser) {
         WebDriver driver;
         
         switch (browser.toLowerCase()) {
@@ -111,16 +160,24 @@ public class BaseTest {
     }
     
     
-    @AfterMethod
-    public void tearDown() {
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
         
         log.info("Tearing down WebDriver");
         
+        ScenarioClock clock = ScenarioClock.finish();
+        if (clock != null) {
+            log.info("Scenario timing: {}", clock.summary());
+        }
+        LocatorHitRates.save();
+        ExtractionStats.save();
+        WaitTimings.save();
+        
         try {
-            if (driver != null) {
-                // Quit driver through DriverManager
-                DriverManager.quitDriver();
-                log.info("WebDriver quit successfully");
+            if (getDriver() != null) {
+                // Return the browser to the pool; a failed test's browser is recycled
+                DriverManager.releaseDriver(result.getStatus() == ITestResult.FAILURE);
+                log.info("WebDriver released successfully");
             }
         } catch (Exception e) {
             log.error("Error during teardown: {}", e.getMessage(), e);
@@ -128,22 +185,28 @@ public class BaseTest {
     }
     
     
+    @AfterSuite(alwaysRun = true)
+    public void stopDriverPool() {
+        DriverManager.shutdownPool();
+    }
+    
+    
     protected void navigateToURL(String url) {
         log.info("Navigating to URL: {}", url);
-        driver.get(url);
-        log.info("Successfully navigated to: {}", driver.getCurrentUrl());
+        BasePage.navigate(getDriver(), url);
+        log.info("Successfully navigated to: {}", getDriver().getCurrentUrl());
     }
     
     
     protected String getPageTitle() {
-        String title = driver.getTitle();
+        String title = getDriver().getTitle();
         log.info("Current page title: {}", title);
         return title;
     }
     
    
     protected String getCurrentURL() {
-        String url = driver.getCurrentUrl();
+        String url = getDriver().getCurrentUrl();
         log.info("Current URL: {}", url);
         return url;
     }
@@ -0,0 +1,163 @@
+package com.hamrobazaar.base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ExtractionStats - Persisted run history of each extraction strategy: runs, complete runs, products and time
+ * Stored as strategy.field=value so the next run can start with the cheapest strategy that has been healthy
+ */
+public final class ExtractionStats {
+
+    private static final Logger log = LogManager.getLogger(ExtractionStats.class);
+
+    private static final Path STORE = Paths.get(System.getProperty("extraction.stats", "test-output/extraction-stats.properties"));
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+    static {
+        load();
+    }
+
+    private ExtractionStats() {
+    }
+
+    public static void record(String strategy, boolean complete, int products, long millis) {
+        ENTRIES.computeIfAbsent(strategy, k -> new Entry()).add(complete, products, millis);
+    }
+
+    public static Entry get(String strategy) {
+        Entry entry = ENTRIES.get(strategy);
+        return entry == null ? new Entry() : entry.copy();
+    }
+
+    /**
+     * Drop the history of every strategy whose name starts with the prefix, so it is not saved
+     */
+    public static void forget(String prefix) {
+        ENTRIES.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    public static synchronized void save() {
+        Properties props = new Properties();
+        for (Map.Entry<String, Entry> entry : new TreeMap<>(ENTRIES).entrySet()) {
+            Entry e = entry.getValue().copy();
+            props.setProperty(entry.getKey() + ".runs", String.valueOf(e.runs));
+            props.setProperty(entry.getKey() + ".complete", String.valueOf(e.complete));
+            props.setProperty(entry.getKey() + ".products", String.valueOf(e.products));
+            props.setProperty(entry.getKey() + ".millis", String.valueOf(e.millis));
+        }
+
+        try {
+            if (STORE.getParent() != null) {
+                Files.createDirectories(STORE.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(STORE, StandardCharsets.UTF_8)) {
+                props.store(writer, "Extraction strategy history (strategy.runs/complete/products/millis)");
+            }
+            log.debug("Saved stats for {} extraction strategies to {}", ENTRIES.size(), STORE);
+        } catch (IOException e) {
+            log.warn("Could not save extraction stats to {}: {}", STORE, e.getMessage());
+        }
+    }
+
+    private static void load() {
+        if (!Files.exists(STORE)) {
+            return;
+        }
+
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(STORE, StandardCharsets.UTF_8)) {
+            props.load(reader);
+            for (String name : props.stringPropertyNames()) {
+                int dot = name.lastIndexOf('.');
+                if (dot <= 0) {
+                    continue;
+                }
+                try {
+                    long value = Long.parseLong(props.getProperty(name).trim());
+                    ENTRIES.computeIfAbsent(name.substring(0, dot), k -> new Entry()).set(name.substring(dot + 1), value);
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring bad extraction stat {}", name);
+                }
+            }
+            log.info("Loaded stats for {} extraction strategies from {}", ENTRIES.size(), STORE);
+        } catch (IOException e) {
+            log.warn("Could not load extraction stats from {}: {}", STORE, e.getMessage());
+        }
+    }
+
+
+    /**
+     * History of one strategy. Instances handed out by get() are snapshots
+     */
+    public static final class Entry {
+
+        private long runs;
+        private long complete;
+        private long products;
+        private long millis;
+
+        private synchronized void add(boolean wasComplete, int productCount, long elapsed) {
+            runs++;
+            if (wasComplete) complete++;
+            products += productCount;
+            millis += elapsed;
+        }
+
+        private synchronized void set(String field, long value) {
+            switch (field) {
+                case "runs":     runs = value; break;
+                case "complete": complete = value; break;
+                case "products": products = value; break;
+                case "millis":   millis = value; break;
+                default: log.debug("Ignoring unknown extraction stat field {}", field);
+            }
+        }
+
+        private synchronized Entry copy() {
+            Entry copy = new Entry();
+            copy.runs = runs;
+            copy.complete = complete;
+            copy.products = products;
+            copy.millis = millis;
+            return copy;
+        }
+
+        public long getRuns()     { return runs; }
+        public long getComplete() { return complete; }
+        public long getProducts() { return products; }
+        public long getMillis()   { return millis; }
+
+        /**
+         * Share of complete runs, smoothed so one run does not decide: (complete + 1) / (runs + 2)
+         */
+        public double successRate() {
+            return (complete + 1.0) / (runs + 2.0);
+        }
+
+        /**
+         * Mean milliseconds per extracted product, or -1 with no history
+         */
+        public double millisPerProduct() {
+            return products == 0 ? -1 : (double) millis / products;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("runs=%d, complete=%d, %.1fms/product", runs, complete, millisPerProduct());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.hamrobazaar.base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ExtractionViewport - Temporarily emulates a very tall viewport for bulk extraction
+ * A virtualized list mounts the cards that fit in the viewport, so a 10000px viewport renders
+ * hundreds of cards per scroll step instead of one screenful. Uses CDP Emulation.setDeviceMetricsOverride
+ * and clears it on close, so interactive steps before and after run in the normal window.
+ * Does nothing on browsers without CDP or when -Dextraction.viewportHeight=0
+ */
+public final class ExtractionViewport implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(ExtractionViewport.class);
+
+    // Tall enough for a few hundred cards, small enough for the compositor to keep up
+    public static final int VIEWPORT_HEIGHT = Integer.getInteger("extraction.viewportHeight", 10000);
+
+    private final WebDriver driver;
+    private final boolean active;
+
+    private ExtractionViewport(WebDriver driver, boolean active) {
+        this.driver = driver;
+        this.active = active;
+    }
+
+    /**
+     * Switch to the tall viewport. Always close the result (try-with-resources) to switch back
+     */
+    public static ExtractionViewport tall(WebDriver driver) {
+        if (VIEWPORT_HEIGHT <= 0 || !(driver instanceof HasCdp)) {
+            return new ExtractionViewport(driver, false);
+        }
+
+        try {
+            Object width = ((JavascriptExecutor) driver).executeScript("return window.innerWidth;");
+
+            Map<String, Object> metrics = new HashMap<>();
+            metrics.put("width", width instanceof Number ? ((Number) width).intValue() : 1366);
+            metrics.put("height", VIEWPORT_HEIGHT);
+            metrics.put("deviceScaleFactor", 0);
+            metrics.put("mobile", false);
+            ((HasCdp) driver).executeCdpCommand("Emulation.setDeviceMetricsOverride", metrics);
+
+            log.info("Extraction viewport set to {}x{}", metrics.get("width"), VIEWPORT_HEIGHT);
+            return new ExtractionViewport(driver, true);
+
+        } catch (Exception e) {
+            log.warn("Could not emulate a tall viewport, extracting in the normal window: {}", e.getMessage());
+            return new ExtractionViewport(driver, false);
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public void close() {
+        if (!active) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Emulation.clearDeviceMetricsOverride", new HashMap<>());
+            log.info("Extraction viewport restored");
+        } catch (Exception e) {
+            log.warn("Could not restore the viewport: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.hamrobazaar.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LocatorChain - Named list of fallback locators for one element
+ * All alternatives are evaluated in a single in-page query (see BasePage.resolve),
+ * ordered by the hit rates recorded in LocatorHitRates so the usual winner is tried first
+ */
+public final class LocatorChain {
+
+    public enum Kind { CSS, XPATH }
+
+    private final String name;
+    private final List<Alternative> alternatives;
+
+    private LocatorChain(String name, List<Alternative> alternatives) {
+        this.name = name;
+        this.alternatives = Collections.unmodifiableList(alternatives);
+    }
+
+    public static Builder named(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Alternative> getAlternatives() {
+        return alternatives;
+    }
+
+    /**
+     * Alternatives sorted by recorded hits, most successful first. Ties keep declaration order
+     */
+    public List<Alternative> orderedByHitRate() {
+        List<Alternative> ordered = new ArrayList<>(alternatives);
+        ordered.sort((a, b) -> Long.compare(
+            LocatorHitRates.getHits(name, b.getLabel()),
+            LocatorHitRates.getHits(name, a.getLabel())));
+        return ordered;
+    }
+
+    @Override
+    public String toString() {
+        return name + alternatives;
+    }
+
+
+    public static final class Alternative {
+
+        private final String label;
+        private final Kind kind;
+        private final String expression;
+
+        private Alternative(String label, Kind kind, String expression) {
+            this.label = label;
+            this.kind = kind;
+            this.expression = expression;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        public By toBy() {
+            return kind == Kind.CSS ? By.cssSelector(expression) : By.xpath(expression);
+        }
+
+        @Override
+        public String toString() {
+            return label + "=" + expression;
+        }
+    }
+
+
+    /**
+     * Result of resolving a chain: the element plus the alternative that found it
+     */
+    public static final class Match {
+
+        private final WebElement element;
+        private final Alternative alternative;
+
+        public Match(WebElement element, Alternative alternative) {
+            this.element = element;
+            this.alternative = alternative;
+        }
+
+        public WebElement getElement() {
+            return element;
+        }
+
+        public Alternative getAlternative() {
+            return alternative;
+        }
+    }
+
+
+    public static final class Builder {
+
+        private final String name;
+        private final List<Alternative> alternatives = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder css(String label, String selector) {
+            alternatives.add(new Alternative(label, Kind.CSS, selector));
+            return this;
+        }
+
+        public Builder xpath(String label, String expression) {
+            alternatives.add(new Alternative(label, Kind.XPATH, expression));
+            return this;
+        }
+
+        public LocatorChain build() {
+            if (alternatives.isEmpty()) {
+                throw new IllegalStateException("LocatorChain '" + name + "' has no alternatives");
+            }
+            return new LocatorChain(name, new ArrayList<>(alternatives));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.hamrobazaar.base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LocatorHitRates - Persisted count of which alternative of each LocatorChain matched
+ * Stored as chainName|label=hits so the next run can try the winning alternative first.
+ * Once a chain has MAX_HITS hits all of its counts are halved, so after a site change the alternative
+ * that matches now overtakes one that was popular before within about MAX_HITS / 2 resolutions
+ */
+public final class LocatorHitRates {
+
+    private static final Logger log = LogManager.getLogger(LocatorHitRates.class);
+
+    private static final Path STORE = Paths.get(System.getProperty("locator.hitRates", "test-output/locator-hit-rates.properties"));
+
+    // Hits a chain keeps before its counts are halved
+    static final long MAX_HITS = 50;
+
+    private static final Map<String, ChainHits> CHAINS = new ConcurrentHashMap<>();
+
+    static {
+        load();
+    }
+
+    private LocatorHitRates() {
+    }
+
+    public static long getHits(String chain, String label) {
+        ChainHits hits = CHAINS.get(chain);
+        return hits == null ? 0 : hits.get(label);
+    }
+
+    public static void recordHit(String chain, String label) {
+        chain(chain).add(label);
+    }
+
+    public static synchronized void save() {
+        Properties props = new Properties();
+        for (Map.Entry<String, ChainHits> entry : new TreeMap<>(CHAINS).entrySet()) {
+            for (Map.Entry<String, Long> hits : entry.getValue().snapshot().entrySet()) {
+                if (hits.getValue() > 0) {
+                    props.setProperty(key(entry.getKey(), hits.getKey()), String.valueOf(hits.getValue()));
+                }
+            }
+        }
+
+        try {
+            if (STORE.getParent() != null) {
+                Files.createDirectories(STORE.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(STORE, StandardCharsets.UTF_8)) {
+                props.store(writer, "LocatorChain hit counts (chain|alternative=hits)");
+            }
+            log.debug("Saved {} locator hit counts to {}", props.size(), STORE);
+        } catch (IOException e) {
+            log.warn("Could not save locator hit rates to {}: {}", STORE, e.getMessage());
+        }
+    }
+
+    private static void load() {
+        if (!Files.exists(STORE)) {
+            return;
+        }
+
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(STORE, StandardCharsets.UTF_8)) {
+            props.load(reader);
+            for (String name : props.stringPropertyNames()) {
+                int bar = name.lastIndexOf('|');
+                if (bar <= 0) {
+                    continue;
+                }
+                try {
+                    chain(name.substring(0, bar)).set(name.substring(bar + 1), Long.parseLong(props.getProperty(name).trim()));
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring bad hit count for {}", name);
+                }
+            }
+            log.info("Loaded {} locator hit counts from {}", props.size(), STORE);
+        } catch (IOException e) {
+            log.warn("Could not load locator hit rates from {}: {}", STORE, e.getMessage());
+        }
+    }
+
+    private static ChainHits chain(String chain) {
+        return CHAINS.computeIfAbsent(chain, k -> new ChainHits());
+    }
+
+    private static String key(String chain, String label) {
+        return chain + "|" + label;
+    }
+
+
+    private static final class ChainHits {
+
+        private final Map<String, Long> hits = new HashMap<>();
+        private long total;
+
+        synchronized long get(String label) {
+            return hits.getOrDefault(label, 0L);
+        }
+
+        synchronized void add(String label) {
+            if (total >= MAX_HITS) {
+                total = 0;
+                for (Map.Entry<String, Long> entry : hits.entrySet()) {
+                    entry.setValue(entry.getValue() / 2);
+                    total += entry.getValue();
+                }
+            }
+            hits.merge(label, 1L, Long::sum);
+            total++;
+        }
+
+        synchronized void set(String label, long count) {
+            total += count - hits.getOrDefault(label, 0L);
+            hits.put(label, count);
+        }
+
+        synchronized Map<String, Long> snapshot() {
+            return new HashMap<>(hits);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.hamrobazaar.base;
+
+import com.hamrobazaar.utils.CdpOverrides;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * PageReadiness - Readiness conditions evaluated by the page itself, on browser events
+ * An in-page probe counts in-flight fetch/XHR requests and watches DOM mutations and the load event.
+ * A wait is one executeAsyncScript call: the probe re-checks its condition whenever a request starts or
+ * ends or the DOM changes, and answers as soon as the condition has held for the quiet period, so there is
+ * no polling interval on the Java side and no fixed slack. The probe is registered for every new document
+ * where the browser supports CDP, otherwise it is injected on the first wait (requests already in flight
+ * at that moment are not counted). Each wait returns false when it timed out or the page could not run it,
+ * so callers can fall back to their old condition. Pages that never stop changing (carousels, countdown
+ * timers) would never look settled, so the DOM part of a wait is only required for the settle cap; after
+ * that a wait is satisfied once the network is idle
+ */
+public final class PageReadiness {
+
+    private static final Logger log = LogManager.getLogger(PageReadiness.class);
+
+    // Quiet period a condition must hold for, override with -Dreadiness.quietMs=N
+    public static final Duration QUIET = Duration.ofMillis(Long.getLong("readiness.quietMs", 150));
+
+    // Longest a wait holds out for a quiet DOM, override with -Dreadiness.settleCapMs=N
+    public static final Duration SETTLE_CAP = Duration.ofMillis(Long.getLong("readiness.settleCapMs", 2000));
+
+    /*
+     * The probe, installed once per document as window.__hbReadiness.
+     * Requests in flight longer than staleMs (long polls, analytics beacons) no longer hold the network busy.
+     * wait(test, timeoutMs, done): test() returns 0 when satisfied, ms to re-check after, or -1 to wait for the next event
+     */
+    private static final String PROBE_SCRIPT =
+        "(function () {" +
+        "  if (window.__hbReadiness) return;" +
+        "  var r = window.__hbReadiness = { pending: {}, nextId: 0, lastNetwork: Date.now(), lastMutation: Date.now()," +
+        "    mutations: 0, loaded: document.readyState === 'complete', staleMs: 5000, waiters: [] };" +
+        "  function changed() { r.waiters.slice().forEach(function (w) { w.check(); }); }" +
+        "  function begin() { var id = ++r.nextId; r.pending[id] = Date.now(); r.lastNetwork = Date.now(); changed(); return id; }" +
+        "  function end(id) { delete r.pending[id]; r.lastNetwork = Date.now(); changed(); }" +
+        "  r.busyFor = function () {" +
+        "    var left = 0, now = Date.now();" +
+        "    for (var id in r.pending) left = Math.max(left, r.pending[id] + r.staleMs - now);" +
+        "    return left;" +
+        "  };" +
+        "  if (window.fetch) {" +
+        "    var fetch0 = window.fetch;" +
+        "    window.fetch = function () {" +
+        "      var id = begin();" +
+        "      return fetch0.apply(this, arguments).then(function (res) { end(id); return res; }, function (err) { end(id); throw err; });" +
+        "    };" +
+        "  }" +
+        "  var send0 = XMLHttpRequest.prototype.send;" +
+        "  XMLHttpRequest.prototype.send = function () {" +
+        "    var id = begin();" +
+        "    this.addEventListener('loadend', function () { end(id); }, { once: true });" +
+        "    return send0.apply(this, arguments);" +
+        "  };" +
+        "  window.addEventListener('load', function () { r.loaded = true; changed(); });" +
+        "  function observe() {" +
+        "    new MutationObserver(function (ms) { r.mutations += ms.length; r.lastMutation = Date.now(); changed(); })" +
+        "      .observe(document.documentElement, { childList: true, subtree: true, characterData: true });" +
+        "  }" +
+        "  if (document.documentElement) observe(); else document.addEventListener('readystatechange', observe, { once: true });" +
+        "  r.wait = function (test, timeoutMs, done) {" +
+        "    var start = Date.now(), w = { finished: false, timer: null };" +
+        "    function finish(ok) {" +
+        "      if (w.finished) return;" +
+        "      w.finished = true; clearTimeout(w.timer); clearTimeout(w.deadline);" +
+        "      r.waiters.splice(r.waiters.indexOf(w), 1);" +
+        "      done([ok, Date.now() - start]);" +
+        "    }" +
+        "    w.check = function () {" +
+        "      clearTimeout(w.timer);" +
+        "      var left = test();" +
+        "      if (left === 0) finish(true); else if (left > 0) w.timer = setTimeout(w.check, left);" +
+        "    };" +
+        "    r.waiters.push(w);" +
+        "    w.deadline = setTimeout(function () { finish(false); }, timeoutMs);" +
+        "    w.check();" +
+        "  };" +
+        "})();";
+
+    // Shared by every wait: ms left until the network has been idle for quiet ms. While requests are in flight
+    // the end event re-checks; the returned delay only matters when a request goes stale without ending.
+    // domLeft gives up on a quiet DOM once it has waited the settle cap since `since` (default: the wait started)
+    // for one, and notes that it did
+    private static final String NETWORK_LEFT =
+        "function networkLeft() { var busy = r.busyFor(); return busy > 0 ? busy : Math.max(0, r.lastNetwork + quiet - Date.now()); }" +
+        "function domLeft(last, since) {" +
+        "  var left = Math.max(0, last + quiet - Date.now());" +
+        "  if (left > 0 && Date.now() - (since || started) >= settleCap) { capped = true; return 0; }" +
+        "  return left;" +
+        "}";
+
+    /*
+     * Wait scripts. arguments: [0] quiet ms, [1] timeout ms, then the condition's own arguments, last the callback
+     * callback: [satisfied, elapsed ms, settled by the cap while the DOM was still changing]
+     */
+    private static final String WAIT_PREFIX =
+        "var callback = arguments[arguments.length - 1], quiet = arguments[0], timeout = arguments[1];" +
+        "var settleCap = " + SETTLE_CAP.toMillis() + ", started = Date.now(), capped = false;" +
+        "var done = function (result) { callback(result.concat([capped])); };" +
+        PROBE_SCRIPT +
+        "var r = window.__hbReadiness;" +
+        NETWORK_LEFT;
+
+    private static final String NETWORK_IDLE_SCRIPT = WAIT_PREFIX +
+        "r.wait(networkLeft, timeout, done);";
+
+    private static final String SETTLED_SCRIPT = WAIT_PREFIX +
+        "r.wait(function () {" +
+        "  return Math.max(networkLeft(), domLeft(r.lastMutation));" +
+        "}, timeout, done);";
+
+    /*
+     * Starts a watch on a container (arguments[0], null = document body) and returns its id. The whole document
+     * is observed, so a container that React replaces counts as changed instead of leaving a detached node watched.
+     * Once the container is gone, every change to the document counts (the replacement rendering)
+     */
+    private static final String WATCH_SCRIPT =
+        PROBE_SCRIPT +
+        "var r = window.__hbReadiness, target = arguments[0] || document.body;" +
+        "r.watches = r.watches || {};" +
+        "var id = r.nextWatch = (r.nextWatch || 0) + 1;" +
+        "var watch = r.watches[id] = { changedAt: 0, firstAt: 0 };" +
+        "watch.observer = new MutationObserver(function (ms) {" +
+        "  var hit = !target.isConnected;" +
+        "  for (var i = 0; i < ms.length && !hit; i++) hit = target.contains(ms[i].target);" +
+        "  if (!hit) return;" +
+        "  watch.changedAt = Date.now();" +
+        "  watch.firstAt = watch.firstAt || watch.changedAt;" +
+        "  r.waiters.slice().forEach(function (w) { w.check(); });" +
+        "});" +
+        "watch.observer.observe(document.documentElement, { childList: true, subtree: true, characterData: true });" +
+        "return id;";
+
+    // arguments[0]: watch id
+    private static final String UNWATCH_SCRIPT =
+        "var r = window.__hbReadiness, watch = r && r.watches && r.watches[arguments[0]];" +
+        "if (watch) { watch.observer.disconnect(); delete r.watches[arguments[0]]; }";
+
+    /*
+     * arguments[2]: watch id from WATCH_SCRIPT. Satisfied once the watched container has changed and then settled.
+     * No such watch means a new document was loaded since, which replaced the container as a whole
+     */
+    private static final String MUTATION_SCRIPT = WAIT_PREFIX +
+        "var watchId = arguments[2], watch = r.watches && r.watches[watchId];" +
+        "if (!watch) watch = { changedAt: Date.now(), firstAt: Date.now(), observer: null };" +
+        "r.wait(function () {" +
+        "  if (watch.changedAt === 0) return -1;" +
+        "  return Math.max(networkLeft(), domLeft(watch.changedAt, Math.max(started, watch.firstAt)));" +
+        "}, timeout, function (result) {" +
+        "  if (watch.observer) { watch.observer.disconnect(); delete r.watches[watchId]; }" +
+        "  done(result);" +
+        "});";
+
+    // Load event fired, network settled, and a Next.js page has its client router (hydration done)
+    private static final String HYDRATION_SCRIPT = WAIT_PREFIX +
+        "r.wait(function () {" +
+        "  if (!r.loaded && document.readyState !== 'complete') return -1;" +
+        "  if (document.getElementById('__NEXT_DATA__') && !(window.next && window.next.router)) return Math.max(quiet, 50);" +
+        "  return networkLeft();" +
+        "}, timeout, done);";
+
+    private PageReadiness() {
+    }
+
+    /**
+     * Register the probe to run on every new document of this browser, so requests made while the page
+     * loads are counted. Idempotent; browsers without CDP get the probe injected by the first wait instead
+     */
+    public static void install(WebDriver driver) {
+        if (!CdpOverrides.isSupported(driver)) {
+            return;
+        }
+        try {
+            if (CdpOverrides.addScriptOnNewDocument(driver, "readiness", PROBE_SCRIPT)) {
+                log.info("Readiness probe registered for new documents");
+            }
+        } catch (Exception e) {
+            log.warn("Could not register readiness probe over CDP: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * No fetch/XHR in flight for the quiet period
+     */
+    public static boolean networkIdle(WebDriver driver, Duration quiet, Duration timeout) {
+        return await(driver, "network idle", NETWORK_IDLE_SCRIPT, quiet, timeout);
+    }
+
+    /**
+     * Neither the network nor the DOM changed for the quiet period.
+     * Returns after one quiet period when nothing is happening, so it is cheap after steps that changed nothing
+     */
+    public static boolean settled(WebDriver driver, Duration quiet, Duration timeout) {
+        return await(driver, "settled", SETTLED_SCRIPT, quiet, timeout);
+    }
+
+    /**
+     * Start watching the container (null = the whole body) for changes. Call before the action that re-renders
+     * it, such as a sort click, so a fast re-render is not missed; then wait with mutated(). Returns the watch id,
+     * or -1 when the page cannot run the watcher
+     */
+    public static long watchMutations(WebDriver driver, WebElement container) {
+        try {
+            Object id = ((JavascriptExecutor) driver).executeScript(WATCH_SCRIPT, container);
+            return id instanceof Number ? ((Number) id).longValue() : -1;
+        } catch (WebDriverException e) {
+            log.warn("Could not watch for mutations: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Drop a watch that will not be waited on (the action failed)
+     */
+    public static void stopWatching(WebDriver driver, long watch) {
+        if (watch < 0) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(UNWATCH_SCRIPT, watch);
+        } catch (WebDriverException e) {
+            log.debug("Could not stop mutation watch {}: {}", watch, e.getMessage());
+        }
+    }
+
+    /**
+     * The container of the watch changed since watchMutations, and then the DOM and network settled.
+     * Times out when nothing changed; false at once for a watch that could not be started
+     */
+    public static boolean mutated(WebDriver driver, long watch, Duration quiet, Duration timeout) {
+        if (watch < 0) {
+            return false;
+        }
+        return await(driver, "results mutated", MUTATION_SCRIPT, quiet, timeout, watch);
+    }
+
+    /**
+     * The load event fired, a Next.js document is hydrated, and the network is idle for the quiet period
+     */
+    public static boolean hydrated(WebDriver driver, Duration quiet, Duration timeout) {
+        return await(driver, "hydration", HYDRATION_SCRIPT, quiet, timeout);
+    }
+
+    private static boolean await(WebDriver driver, String name, String script, Duration quiet, Duration timeout, Object... extra) {
+        Object[] args = new Object[2 + extra.length];
+        args[0] = quiet.toMillis();
+        args[1] = timeout.toMillis();
+        System.arraycopy(extra, 0, args, 2, extra.length);
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(script, args);
+            if (!(result instanceof List) || ((List<?>) result).size() < 2) {
+                return false;
+            }
+            List<?> answer = (List<?>) result;
+            boolean satisfied = Boolean.TRUE.equals(answer.get(0));
+            long elapsed = ((Number) answer.get(1)).longValue();
+            boolean capped = answer.size() > 2 && Boolean.TRUE.equals(answer.get(2));
+            if (satisfied && capped) {
+                log.info("Ready ({}) after {}ms with the DOM still changing, settle cap {}ms", name, elapsed, SETTLE_CAP.toMillis());
+            } else if (satisfied) {
+                log.debug("Ready ({}) after {}ms", name, elapsed);
+            } else {
+                log.warn("Not ready ({}) after {}ms", name, elapsed);
+            }
+            return satisfied;
+        } catch (WebDriverException e) {
+            // Navigation during the wait discards the callback, and a page may refuse the script
+            log.warn("Readiness wait ({}) could not run: {}", name, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hamrobazaar.base;
+
+import org.openqa.selenium.TimeoutException;
+
+import java.time.Duration;
+
+/**
+ * ScenarioClock - Per-thread time budget for one test scenario
+ * Caps every step budget to what is left of the scenario limit and
+ * accounts time spent waiting (polling, explicit waits) versus working (WebDriver calls).
+ * The clock lives in a ThreadLocal on pooled TestNG threads, so every start() must be paired with finish()
+ */
+public final class ScenarioClock {
+
+    private static final ThreadLocal<ScenarioClock> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private long waitingNanos;
+    private long workingNanos;
+    private int misses;
+
+    private ScenarioClock(Duration limit) {
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + limit.toNanos();
+    }
+
+    public static ScenarioClock start(Duration limit) {
+        ScenarioClock clock = new ScenarioClock(limit);
+        CURRENT.set(clock);
+        return clock;
+    }
+
+    /**
+     * The clock started on this thread. Page objects only run inside a scenario (BaseTest.setUp starts it),
+     * so a missing clock is a setup error rather than something to paper over with a clock nobody removes
+     */
+    public static ScenarioClock current() {
+        ScenarioClock clock = CURRENT.get();
+        if (clock == null) {
+            throw new IllegalStateException("No scenario clock on thread " + Thread.currentThread().getName()
+                + ", call ScenarioClock.start before using page objects");
+        }
+        return clock;
+    }
+
+    /**
+     * Remove the clock for this thread and return it so the caller can log the summary
+     */
+    public static ScenarioClock finish() {
+        ScenarioClock clock = CURRENT.get();
+        CURRENT.remove();
+        return clock;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Shrink a step budget to the time left in the scenario
+     * Throws once the scenario limit has been used up so no further step can start waiting
+     */
+    public Duration cap(Duration stepBudget) {
+        Duration remaining = remaining();
+        if (remaining.isZero()) {
+            throw new TimeoutException("Scenario time limit exceeded after " + elapsed().toSeconds() + "s");
+        }
+        return stepBudget.compareTo(remaining) < 0 ? stepBudget : remaining;
+    }
+
+    public Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    public void recordWaiting(long nanos) {
+        waitingNanos += nanos;
+    }
+
+    public void recordWorking(long nanos) {
+        workingNanos += nanos;
+    }
+
+    /**
+     * One locator wait that did not resolve on its first probe (not one per poll)
+     */
+    public void recordMiss() {
+        misses++;
+    }
+
+    public long getWaitingMillis() {
+        return waitingNanos / 1_000_000;
+    }
+
+    public long getWorkingMillis() {
+        return workingNanos / 1_000_000;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public String summary() {
+        return String.format("elapsed=%dms, waiting=%dms, working=%dms, locator misses=%d",
+            elapsed().toMillis(), getWaitingMillis(), getWorkingMillis(), misses);
+    }
+}
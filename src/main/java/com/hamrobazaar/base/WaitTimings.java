@@ -0,0 +1,223 @@
+package com.hamrobazaar.base;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WaitTimings - Persisted latency distribution of each named wait ("HomePage.location.suggestions", "FilterPage.sortOption")
+ * Latencies go into power-of-two millisecond buckets, stored as name.bucket=count. Once a wait has enough
+ * samples its timeout is the observed p99 plus a margin instead of the flat default, so a healthy step keeps
+ * its budget and a broken one fails in seconds. A timeout counts as a sample slower than every bucket, so a
+ * wait that starts timing out more than 1% of the time goes back to the default on its own
+ */
+public final class WaitTimings {
+
+    private static final Logger log = LogManager.getLogger(WaitTimings.class);
+
+    // Name under which driver.get page loads are recorded; BaseTest sets the driver's page load timeout from it
+    public static final String PAGE_LOAD = "driver.pageLoad";
+
+    private static final Path STORE = Paths.get(System.getProperty("wait.timings", "test-output/wait-timings.properties"));
+
+    // Bucket i holds latencies up to 2^i ms; the last one holds timeouts
+    private static final int BUCKETS = 17;
+    private static final int TIMEOUT_BUCKET = BUCKETS - 1;
+
+    // Samples needed before a wait gets its own timeout
+    public static final int MIN_SAMPLES = 20;
+
+    // Counts are halved past this many samples, so recent runs outweigh old ones
+    private static final long MAX_SAMPLES = 2000;
+
+    // Added to p99 (which is already rounded up to its bucket bound), and the smallest timeout handed out
+    public static final Duration MARGIN = Duration.ofMillis(1000);
+
+    // -Dwait.adaptive=false keeps every default budget (history is still recorded)
+    private static final boolean ADAPTIVE = Boolean.parseBoolean(System.getProperty("wait.adaptive", "true"));
+
+    private static final Map<String, Histogram> WAITS = new ConcurrentHashMap<>();
+
+    static {
+        load();
+    }
+
+    private WaitTimings() {
+    }
+
+    public static void record(String name, long millis) {
+        histogram(name).add(bucketOf(millis));
+    }
+
+    public static void recordTimeout(String name) {
+        histogram(name).add(TIMEOUT_BUCKET);
+    }
+
+    /**
+     * Drop every wait whose name starts with the prefix, e.g. the ones unit tests record
+     */
+    public static void forget(String prefix) {
+        WAITS.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    /**
+     * Budget for the named wait: p99 plus MARGIN once there are MIN_SAMPLES, never more than the default.
+     * The default is used as is without enough history, or when p99 is a timeout
+     */
+    public static Duration timeout(String name, Duration fallback) {
+        if (!ADAPTIVE || name == null) {
+            return fallback;
+        }
+        long p99 = percentile(name, 0.99);
+        if (p99 < 0) {
+            return fallback;
+        }
+        Duration adapted = Duration.ofMillis(p99).plus(MARGIN);
+        return adapted.compareTo(fallback) < 0 ? adapted : fallback;
+    }
+
+    /**
+     * Upper bound in ms of the bucket holding the given quantile, -1 with fewer than MIN_SAMPLES
+     * or when the quantile falls among timeouts
+     */
+    public static long percentile(String name, double quantile) {
+        Histogram histogram = WAITS.get(name);
+        if (histogram == null) {
+            return -1;
+        }
+        long[] counts = histogram.snapshot();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total < MIN_SAMPLES) {
+            return -1;
+        }
+
+        long needed = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < TIMEOUT_BUCKET; i++) {
+            seen += counts[i];
+            if (seen >= needed) {
+                return 1L << i;
+            }
+        }
+        return -1;
+    }
+
+    public static long getSamples(String name) {
+        Histogram histogram = WAITS.get(name);
+        if (histogram == null) {
+            return 0;
+        }
+        long total = 0;
+        for (long count : histogram.snapshot()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public static synchronized void save() {
+        Properties props = new Properties();
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(WAITS).entrySet()) {
+            long[] counts = entry.getValue().snapshot();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    props.setProperty(entry.getKey() + "." + i, String.valueOf(counts[i]));
+                }
+            }
+        }
+
+        try {
+            if (STORE.getParent() != null) {
+                Files.createDirectories(STORE.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(STORE, StandardCharsets.UTF_8)) {
+                props.store(writer, "Wait latency histograms (wait.bucket=count, bucket i <= 2^i ms, " + TIMEOUT_BUCKET + " = timed out)");
+            }
+            log.debug("Saved timings for {} waits to {}", WAITS.size(), STORE);
+        } catch (IOException e) {
+            log.warn("Could not save wait timings to {}: {}", STORE, e.getMessage());
+        }
+    }
+
+    private static Histogram histogram(String name) {
+        return WAITS.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    private static int bucketOf(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        int bucket = 64 - Long.numberOfLeadingZeros(millis - 1);
+        return Math.min(bucket, TIMEOUT_BUCKET - 1);
+    }
+
+    private static void load() {
+        if (!Files.exists(STORE)) {
+            return;
+        }
+
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(STORE, StandardCharsets.UTF_8)) {
+            props.load(reader);
+            for (String key : props.stringPropertyNames()) {
+                int dot = key.lastIndexOf('.');
+                if (dot <= 0) {
+                    continue;
+                }
+                try {
+                    int bucket = Integer.parseInt(key.substring(dot + 1));
+                    long count = Long.parseLong(props.getProperty(key).trim());
+                    if (bucket >= 0 && bucket < BUCKETS) {
+                        histogram(key.substring(0, dot)).set(bucket, count);
+                    }
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring bad wait timing {}", key);
+                }
+            }
+            log.info("Loaded timings for {} waits from {}", WAITS.size(), STORE);
+        } catch (IOException e) {
+            log.warn("Could not load wait timings from {}: {}", STORE, e.getMessage());
+        }
+    }
+
+
+    private static final class Histogram {
+
+        private final long[] counts = new long[BUCKETS];
+        private long total;
+
+        synchronized void add(int bucket) {
+            counts[bucket]++;
+            if (++total > MAX_SAMPLES) {
+                total = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] /= 2;
+                    total += counts[i];
+                }
+            }
+        }
+
+        synchronized void set(int bucket, long count) {
+            total += count - counts[bucket];
+            counts[bucket] = count;
+        }
+
+        synchronized long[] snapshot() {
+            return counts.clone();
+        }
+    }
+}
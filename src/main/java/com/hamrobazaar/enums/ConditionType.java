@@ -0,0 +1,53 @@
+package com.hamrobazaar.enums;
+
+import java.util.Locale;
+
+/**
+ * ConditionType - The conditions HamroBazaar lets sellers pick, for the free-text Condition field
+ * Maps card and API wording ("Brand New", "like-new", "Second hand", "Not working") to one value,
+ * UNKNOWN when the text is missing or does not say
+ */
+public enum ConditionType {
+
+    BRAND_NEW   ("Brand New"),
+    LIKE_NEW    ("Like New"),
+    USED        ("Used"),
+    NOT_WORKING ("Not Working"),
+    UNKNOWN     ("N/A");
+
+    private final String displayText;
+
+    ConditionType(String displayText) {
+        this.displayText = displayText;
+    }
+
+    public String getDisplayText() {
+        return displayText;
+    }
+
+    /**
+     * Case-insensitive, ignores spaces, '-' and '_'. Checked most specific first, so "Like New" is not BRAND_NEW
+     */
+    public static ConditionType fromText(String value) {
+        if (value == null) {
+            return UNKNOWN;
+        }
+        String compact = value.toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-]+", "");
+        if (compact.isEmpty() || "n/a".equals(compact)) {
+            return UNKNOWN;
+        }
+        if (compact.contains("notworking") || compact.contains("forparts") || compact.contains("damaged")) {
+            return NOT_WORKING;
+        }
+        if (compact.contains("likenew") || compact.contains("asnew")) {
+            return LIKE_NEW;
+        }
+        if (compact.contains("brandnew") || compact.equals("new") || compact.contains("unused")) {
+            return BRAND_NEW;
+        }
+        if (compact.contains("used") || compact.contains("secondhand") || compact.contains("refurbished")) {
+            return USED;
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,33 @@
+package com.hamrobazaar.enums;
+
+/**
+ * ExtractionSource - Where product records are read from
+ * DOM scrapes the rendered result cards, PAGE_SOURCE parses a page-source snapshot of them in the JVM,
+ * NETWORK decodes the search API responses the page receives,
+ * HYDRATION reads the first results page from the state embedded in the document
+ * (both fall back to DOM when they have nothing), AUTO lets ExtractionSelector pick from the recorded history
+ */
+public enum ExtractionSource {
+
+    DOM,
+    PAGE_SOURCE,
+    NETWORK,
+    HYDRATION,
+    AUTO;
+
+    /**
+     * Convert a config value (e.g. -Dextraction.source=network) to the matching ExtractionSource
+     * Case-insensitive, '-' and '_' are interchangeable (page-source), defaults to DOM when empty
+     */
+    public static ExtractionSource fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DOM;
+        }
+        for (ExtractionSource source : values()) {
+            if (source.name().equalsIgnoreCase(value.trim().replace('-', '_'))) {
+                return source;
+            }
+        }
+        throw new IllegalArgumentException("No ExtractionSource found for value: '" + value + "'");
+    }
+}
@@ -0,0 +1,29 @@
+package com.hamrobazaar.enums;
+
+/**
+ * InteractionProfile - How page objects scroll to and click elements during a run
+ * DEBUG keeps the visual behavior for local troubleshooting: smooth scrolling and a highlight before each click.
+ * TURBO is for scheduled runs: instant scrolls, no highlight, CSS transitions and animations disabled,
+ * and scroll plus click folded into one script call
+ */
+public enum InteractionProfile {
+
+    DEBUG,
+    TURBO;
+
+    /**
+     * Convert a config value (e.g. -Dinteraction.profile=turbo) to the matching InteractionProfile
+     * Case-insensitive, defaults to DEBUG when empty
+     */
+    public static InteractionProfile fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return DEBUG;
+        }
+        for (InteractionProfile profile : values()) {
+            if (profile.name().equalsIgnoreCase(value.trim())) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("No InteractionProfile found for value: '" + value + "'");
+    }
+}
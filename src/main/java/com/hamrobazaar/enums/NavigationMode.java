@@ -0,0 +1,28 @@
+package com.hamrobazaar.enums;
+
+/**
+ * NavigationMode - How a scenario reaches the search results page
+ * URL loads the canonical results URL built by SearchQuery with one driver.get,
+ * UI drives the search form, location, distance and filter panel like a user
+ */
+public enum NavigationMode {
+
+    URL,
+    UI;
+
+    /**
+     * Convert a config value (e.g. -Dnavigation.mode=url) to the matching NavigationMode
+     * Case-insensitive, defaults to UI when empty
+     */
+    public static NavigationMode fromString(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return UI;
+        }
+        for (NavigationMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("No NavigationMode found for value: '" + value + "'");
+    }
+}
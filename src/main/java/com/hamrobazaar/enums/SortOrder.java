@@ -23,14 +23,15 @@ public enum SortOrder {
 
     /**
      * Convert a CSV string value to the matching SortOrder enum
-     * Case-insensitive and trims whitespace
+     * Case-insensitive and ignores whitespace, so "Low to High(Price)" also matches
      */
     public static SortOrder fromString(String value) {
         if (value == null || value.trim().isEmpty()) {
             return RECENT;
         }
+        String compact = value.replaceAll("\\s+", "");
         for (SortOrder sort : values()) {
-            if (sort.displayText.equalsIgnoreCase(value.trim())) {
+            if (sort.displayText.replaceAll("\\s+", "").equalsIgnoreCase(compact)) {
                 return sort;
             }
         }
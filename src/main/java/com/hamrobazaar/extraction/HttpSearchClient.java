@@ -0,0 +1,285 @@
+package com.hamrobazaar.extraction;
+
+import com.hamrobazaar.utils.SearchQuery;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * HttpSearchClient - Runs searches straight against the search API, without a browser
+ * Takes the same SearchQuery (keyword, location, distance, filters, SortOrder) the pages use and emits the
+ * same product records through ProductJsonMapper. One pooled java.net.http.HttpClient serves every search;
+ * result pages are fetched ahead concurrently and delivered in page order, and a shared limit caps the
+ * requests in flight across all searches. Paging goes on until maxCount products are delivered or a short
+ * or empty page arrives, so ads repeated across pages do not cut a search short; it gives up after
+ * MAX_STALE_PAGES full pages in a row without a new ad, so an API that ignores the page number cannot loop.
+ * Thread-safe: one client can run many searches at once
+ */
+public class HttpSearchClient implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(HttpSearchClient.class);
+
+    // Override with -Dhttp.searchApiUrl=<url> if the API moves
+    public static final String DEFAULT_API_URL =
+        System.getProperty("http.searchApiUrl", "https://api.hamrobazaar.com/api/Product/Search");
+
+    private static final String PARAM_PAGE      = "pageNumber";
+    private static final String PARAM_PAGE_SIZE = "pageSize";
+
+    // Full pages that bring no new Ad_Id before paging gives up (the API ignoring pageNumber, or reposts)
+    private static final int MAX_STALE_PAGES = 3;
+
+    // 429 and 5xx are retried with a growing pause
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_PAUSE_MS = 500;
+
+    private final String apiUrl;
+    private final int pageSize;
+    private final int pagesAhead;
+    private final Duration timeout;
+    private final ProductJsonMapper mapper;
+
+    private final HttpClient http;
+    private final Semaphore inFlight;
+    private final ExecutorService searches;
+    private final ScheduledExecutorService retries;
+
+    private HttpSearchClient(Builder builder) {
+        this.apiUrl = builder.apiUrl;
+        this.pageSize = builder.pageSize;
+        this.pagesAhead = builder.pagesAhead;
+        this.timeout = builder.timeout;
+        this.mapper = builder.mapper;
+        this.inFlight = new Semaphore(builder.maxRequests);
+        this.searches = Executors.newFixedThreadPool(builder.maxSearches);
+        this.retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-search-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.http = HttpClient.newBuilder()
+            .connectTimeout(builder.timeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Fetch up to maxCount products and hand each one to the consumer in result order, on the calling thread.
+     * Products are de-duplicated by Ad_Id. Returns how many were delivered
+     */
+    public int search(SearchQuery query, int maxCount, Consumer<Map<String, String>> consumer) {
+        if (!query.isUrlNavigable()) {
+            throw new IllegalArgumentException(query + " has a location without coordinates, which the API cannot filter by");
+        }
+
+        long start = System.currentTimeMillis();
+        Deque<CompletableFuture<List<Map<String, String>>>> ahead = new ArrayDeque<>();
+        int nextPage = 1;
+        int delivered = 0;
+        Set<String> seenAdIds = new HashSet<>();
+        int stalePages = 0;
+
+        try {
+            while (delivered < maxCount) {
+                // Only as many pages ahead as the products still missing would fill
+                int pagesNeeded = (maxCount - delivered + pageSize - 1) / pageSize;
+                while (ahead.size() < Math.min(pagesAhead, pagesNeeded)) {
+                    ahead.add(fetchPage(query, nextPage++));
+                }
+
+                List<Map<String, String>> page = ahead.poll().join();
+                int before = delivered;
+                for (Map<String, String> product : page) {
+                    String adId = product.get(ProductJsonMapper.AD_ID);
+                    if (delivered < maxCount && (adId == null || "N/A".equals(adId) || seenAdIds.add(adId))) {
+                        consumer.accept(product);
+                        delivered++;
+                    }
+                }
+                if (page.size() < pageSize) {
+                    break; // short page: no more results
+                }
+                stalePages = delivered == before ? stalePages + 1 : 0;
+                if (stalePages >= MAX_STALE_PAGES) {
+                    log.warn("Search {} stopped after {} full pages without a new ad (up to page {}), {} of {} products",
+                        query, stalePages, nextPage - ahead.size() - 1, delivered, maxCount);
+                    break;
+                }
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            log.error("Search {} failed: {}", query, cause.getMessage(), cause);
+            throw new RuntimeException("Unable to search " + query + ": " + cause.getMessage(), cause);
+        } finally {
+            for (CompletableFuture<?> unused : ahead) {
+                unused.cancel(true);
+            }
+        }
+
+        log.info("HTTP search {} returned {} products in {}ms", query, delivered, System.currentTimeMillis() - start);
+        return delivered;
+    }
+
+    /**
+     * Run a search on the client's search pool and collect the products
+     */
+    public CompletableFuture<List<Map<String, String>>> searchAsync(SearchQuery query, int maxCount) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Map<String, String>> products = new ArrayList<>();
+            search(query, maxCount, products::add);
+            return products;
+        }, searches);
+    }
+
+    /**
+     * Run many searches concurrently and wait for all of them. The result lists are in query order
+     */
+    public List<List<Map<String, String>>> searchAll(List<SearchQuery> queries, int maxCount) {
+        List<CompletableFuture<List<Map<String, String>>>> futures = new ArrayList<>();
+        for (SearchQuery query : queries) {
+            futures.add(searchAsync(query, maxCount));
+        }
+        List<List<Map<String, String>>> results = new ArrayList<>();
+        for (CompletableFuture<List<Map<String, String>>> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        searches.shutdownNow();
+        retries.shutdownNow();
+        try {
+            searches.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private URI pageUri(SearchQuery query, int page) {
+        StringBuilder uri = new StringBuilder(apiUrl);
+        char separator = apiUrl.indexOf('?') < 0 ? '?' : '&';
+        for (Map.Entry<String, String> param : query.toParams().entrySet()) {
+            uri.append(separator).append(param.getKey()).append('=')
+               .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        uri.append(separator).append(PARAM_PAGE).append('=').append(page)
+           .append('&').append(PARAM_PAGE_SIZE).append('=').append(pageSize);
+        return URI.create(uri.toString());
+    }
+
+    private CompletableFuture<List<Map<String, String>>> fetchPage(SearchQuery query, int page) {
+        HttpRequest request = HttpRequest.newBuilder(pageUri(query, page))
+            .timeout(timeout)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+        return send(request, 1).thenApply(response -> {
+            if (response.statusCode() == 404 && page > 1) {
+                return Collections.<Map<String, String>>emptyList(); // past the last page
+            }
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("HTTP " + response.statusCode() + " for page " + page);
+            }
+            List<Map<String, String>> products = mapper.mapBody(response.body());
+            log.debug("Page {} of {}: {} products", page, query, products.size());
+            return products;
+        });
+    }
+
+    /**
+     * sendAsync under the shared in-flight limit, retrying 429 and 5xx responses and connection errors
+     * (e.g. a pooled keep-alive connection the server already closed).
+     * Retries wait on the client's own scheduler, never on a common-pool thread
+     */
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, int attempt) {
+        inFlight.acquireUninterruptibly();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+            .whenComplete((response, error) -> inFlight.release())
+            .handle((response, error) -> {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                boolean retryable = cause instanceof IOException
+                    || (response != null && (response.statusCode() == 429 || response.statusCode() / 100 == 5));
+                if (!retryable || attempt >= MAX_ATTEMPTS) {
+                    return error == null ? CompletableFuture.completedFuture(response)
+                        : CompletableFuture.<HttpResponse<String>>failedFuture(cause);
+                }
+                log.warn("{} for {}, retry {} of {}", error == null ? "HTTP " + response.statusCode() : cause.toString(),
+                    request.uri(), attempt, MAX_ATTEMPTS - 1);
+                return retryLater(request, attempt);
+            })
+            .thenCompose(next -> next);
+    }
+
+    private CompletableFuture<HttpResponse<String>> retryLater(HttpRequest request, int attempt) {
+        CompletableFuture<HttpResponse<String>> retry = new CompletableFuture<>();
+        retries.schedule(() -> send(request, attempt + 1).whenComplete((next, error) -> {
+            if (error != null) {
+                retry.completeExceptionally(error);
+            } else {
+                retry.complete(next);
+            }
+        }), RETRY_PAUSE_MS * attempt, TimeUnit.MILLISECONDS);
+        return retry;
+    }
+
+
+    public static final class Builder {
+
+        private String apiUrl = DEFAULT_API_URL;
+        private int pageSize = 20;
+        private int pagesAhead = 4;
+        private int maxRequests = 16;
+        private int maxSearches = 8;
+        private Duration timeout = Duration.ofSeconds(20);
+        private ProductJsonMapper mapper = new ProductJsonMapper();
+
+        private Builder() {
+        }
+
+        public Builder apiUrl(String apiUrl)          { this.apiUrl = apiUrl; return this; }
+        public Builder pageSize(int pageSize)         { this.pageSize = pageSize; return this; }
+        public Builder pagesAhead(int pagesAhead)     { this.pagesAhead = pagesAhead; return this; }
+        public Builder maxRequests(int maxRequests)   { this.maxRequests = maxRequests; return this; }
+        public Builder maxSearches(int maxSearches)   { this.maxSearches = maxSearches; return this; }
+        public Builder timeout(Duration timeout)      { this.timeout = timeout; return this; }
+        public Builder mapper(ProductJsonMapper mapper) { this.mapper = mapper; return this; }
+
+        public HttpSearchClient build() {
+            if (pageSize < 1 || pagesAhead < 1 || maxRequests < 1 || maxSearches < 1) {
+                throw new IllegalArgumentException("pageSize, pagesAhead, maxRequests and maxSearches must be at least 1");
+            }
+            return new HttpSearchClient(this);
+        }
+    }
+}
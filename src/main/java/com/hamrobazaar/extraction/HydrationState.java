@@ -0,0 +1,198 @@
+package com.hamrobazaar.extraction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HydrationState - Reads the first page of results from the state the server embedded in the document
+ * Server-rendered pages ship their data as a serialized blob (Next.js __NEXT_DATA__, or a window.__*_STATE__
+ * global) so the client can hydrate without refetching. One script call returns that blob, and
+ * ProductJsonMapper turns it into the same product records the cards produce, before any card is rendered.
+ * The blob describes the document as it was loaded: after client-side navigation (UI path, sort clicks)
+ * it is stale, so it is only read while the URL is still the one the document was loaded from.
+ * The live page and a saved page source go through the same parser (fromState) and staleness check (isCurrent)
+ */
+public final class HydrationState {
+
+    private static final Logger log = LogManager.getLogger(HydrationState.class);
+
+    /*
+     * Returns [source, json, loaded url, current url] or null. Window globals are serialized in the page so
+     * only one string crosses the wire; whether the blob is still current is decided by isCurrent
+     */
+    private static final String READ_SCRIPT =
+        "var nav = performance.getEntriesByType ? performance.getEntriesByType('navigation')[0] : null;" +
+        "var loaded = nav && nav.name ? nav.name : null;" +
+        "var tag = document.getElementById('__NEXT_DATA__');" +
+        "if (tag && tag.textContent) return ['__NEXT_DATA__', tag.textContent, loaded, location.href];" +
+        "var names = ['__NEXT_DATA__', '__NUXT__', '__INITIAL_STATE__', '__PRELOADED_STATE__', '__APOLLO_STATE__'];" +
+        "for (var i = 0; i < names.length; i++) {" +
+        "  var state = window[names[i]];" +
+        "  if (state && typeof state === 'object') {" +
+        "    try { return [names[i], JSON.stringify(state), loaded, location.href]; } catch (e) {}" +
+        "  }" +
+        "}" +
+        "return null;";
+
+    // The same blob in a saved page source
+    private static final Pattern NEXT_DATA_TAG = Pattern.compile(
+        "<script[^>]*\\bid=[\"']__NEXT_DATA__[\"'][^>]*>(.*?)</script>", Pattern.DOTALL | Pattern.CASE_INSENSITIVE);
+
+    // Product lists under a key like these are promotions shown next to the results, not the results
+    private static final Pattern SIDE_LIST = Pattern.compile("(?i)featured|recommend|sponsor|related|similar|promot|banner|top.?ads");
+
+    // Preferred list when there are several: its path names the search results
+    private static final Pattern RESULTS_LIST = Pattern.compile("(?i)search|result");
+
+    private HydrationState() {
+    }
+
+    /**
+     * Products embedded in the current document, in page order and de-duplicated by Ad_Id.
+     * Empty when the page has no hydration state or it is stale
+     */
+    public static List<Map<String, String>> read(WebDriver driver, ProductJsonMapper mapper) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(READ_SCRIPT);
+            if (!(result instanceof List) || ((List<?>) result).size() < 4) {
+                log.info("No hydration state on {}", driver.getCurrentUrl());
+                return new ArrayList<>();
+            }
+
+            List<?> blob = (List<?>) result;
+            String loadedUrl = blob.get(2) == null ? null : String.valueOf(blob.get(2));
+            String currentUrl = String.valueOf(blob.get(3));
+            if (!isCurrent(loadedUrl, currentUrl)) {
+                log.info("Hydration state is stale: loaded {}, now on {}", loadedUrl, currentUrl);
+                return new ArrayList<>();
+            }
+
+            String json = String.valueOf(blob.get(1));
+            List<Map<String, String>> products = fromState(json, mapper);
+            log.info("Read {} products from {} ({} chars)", products.size(), blob.get(0), json.length());
+            return products;
+
+        } catch (Exception e) {
+            log.warn("Could not read hydration state: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Products embedded in a page source (driver.getPageSource() or a saved snapshot)
+     */
+    public static List<Map<String, String>> fromPageSource(String html, ProductJsonMapper mapper) {
+        if (html == null) {
+            return new ArrayList<>();
+        }
+        Matcher matcher = NEXT_DATA_TAG.matcher(html);
+        if (!matcher.find()) {
+            log.info("Page source has no __NEXT_DATA__ script");
+            return new ArrayList<>();
+        }
+        return fromState(matcher.group(1), mapper);
+    }
+
+    /**
+     * The search results in a serialized state blob, in page order and de-duplicated by Ad_Id.
+     * Only the results list is read: when the blob holds several product lists, lists under a featured /
+     * recommended / sponsored key are skipped and a list whose path names the search results is preferred.
+     * A blob without product lists (a normalized cache keyed by id) is read as a whole
+     */
+    public static List<Map<String, String>> fromState(String json, ProductJsonMapper mapper) {
+        Object state;
+        try {
+            state = new Json().toType(json, Json.OBJECT_TYPE);
+        } catch (JsonException e) {
+            log.debug("Hydration state is not JSON: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+
+        Map<String, List<?>> lists = new LinkedHashMap<>();
+        findProductLists(state, "", mapper, lists);
+
+        String chosen = null;
+        for (String path : lists.keySet()) {
+            if (SIDE_LIST.matcher(path).find()) {
+                continue;
+            }
+            if (chosen == null || (RESULTS_LIST.matcher(path).find() && !RESULTS_LIST.matcher(chosen).find())) {
+                chosen = path;
+            }
+        }
+
+        if (chosen != null) {
+            log.debug("Reading results list {} (of {} product lists)", chosen, lists.size());
+            return distinct(mapper.map(lists.get(chosen)));
+        }
+        if (!lists.isEmpty()) {
+            log.info("Hydration state only has side lists {}, no search results", lists.keySet());
+            return new ArrayList<>();
+        }
+        return distinct(mapper.map(state));
+    }
+
+    /**
+     * Whether a blob from the document loaded at loadedUrl still describes the page at currentUrl.
+     * Unknown load URL (no Navigation Timing) counts as current; the fragment is ignored
+     */
+    public static boolean isCurrent(String loadedUrl, String currentUrl) {
+        if (loadedUrl == null || loadedUrl.isEmpty()) {
+            return true;
+        }
+        return withoutFragment(loadedUrl).equals(withoutFragment(currentUrl));
+    }
+
+    private static String withoutFragment(String url) {
+        int hash = url == null ? -1 : url.indexOf('#');
+        return hash < 0 ? String.valueOf(url) : url.substring(0, hash);
+    }
+
+    /**
+     * Every list of product objects in the state, keyed by its path ("props.pageProps.searchResult.data")
+     */
+    private static void findProductLists(Object node, String path, ProductJsonMapper mapper, Map<String, List<?>> lists) {
+        if (node instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                findProductLists(entry.getValue(), path.isEmpty() ? key : path + "." + key, mapper, lists);
+            }
+        } else if (node instanceof List) {
+            List<?> list = (List<?>) node;
+            if (!list.isEmpty() && list.get(0) instanceof Map && mapper.mapProduct((Map<?, ?>) list.get(0)) != null) {
+                lists.put(path, list);
+                return;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                findProductLists(list.get(i), path + "[" + i + "]", mapper, lists);
+            }
+        }
+    }
+
+    /**
+     * The same ad can appear twice in the results (e.g. pinned and in its regular place)
+     */
+    private static List<Map<String, String>> distinct(List<Map<String, String>> products) {
+        Map<String, Map<String, String>> byId = new LinkedHashMap<>();
+        int anonymous = 0;
+        for (Map<String, String> product : products) {
+            String adId = product.get(ProductJsonMapper.AD_ID);
+            if (adId == null || "N/A".equals(adId)) {
+                adId = "#" + anonymous++;
+            }
+            byId.putIfAbsent(adId, product);
+        }
+        return new ArrayList<>(byId.values());
+    }
+}
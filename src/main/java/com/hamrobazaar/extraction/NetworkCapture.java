@@ -0,0 +1,253 @@
+package com.hamrobazaar.extraction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * NetworkCapture - Records the search API responses the results page receives, through DevTools
+ * Listens to Network.responseReceived / loadingFinished for JSON responses whose URL matches the search
+ * pattern, and decodes their bodies into product records when drained. Uses the generic CDP Command/Event
+ * API rather than a versioned devtools package, so it keeps working when Chrome updates.
+ * DevTools can only clear every listener of a session, so each session gets one pair of listeners that
+ * forwards to its open captures; closing a capture detaches only that capture, and Network is disabled
+ * when the last one closes. Start it before navigating so the first results page is captured
+ */
+public class NetworkCapture implements AutoCloseable {
+
+    private static final Logger log = LogManager.getLogger(NetworkCapture.class);
+
+    // The search API endpoint only (not product pages, images or other api calls).
+    // Override with -Dnetwork.searchUrlPattern=<regex> if the API path changes
+    private static final Pattern DEFAULT_SEARCH_URL = Pattern.compile(
+        System.getProperty("network.searchUrlPattern", "(?i)^https://api\\.hamrobazaar\\.com/api/product/search(\\?|$)"));
+
+    // Open captures per DevTools session, behind the session's single pair of listeners
+    private static final Map<DevTools, List<NetworkCapture>> SESSIONS = new WeakHashMap<>();
+
+    private static final Json JSON = new Json();
+
+    private final DevTools devTools;
+    private final Pattern searchUrl;
+    private final ProductJsonMapper mapper;
+
+    // requestId -> url, filled on the DevTools thread
+    private final Map<String, String> tracked = new ConcurrentHashMap<>();
+    private final Queue<String> finished = new ConcurrentLinkedQueue<>();
+
+    private final Set<String> seenAdIds = new HashSet<>();
+    private final Queue<Map<String, String>> pending = new ArrayDeque<>();
+    private int responses;
+    private int products;
+    private int reportedTotal = -1;
+
+    private NetworkCapture(DevTools devTools, Pattern searchUrl, ProductJsonMapper mapper) {
+        this.devTools = devTools;
+        this.searchUrl = searchUrl;
+        this.mapper = mapper;
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasDevTools;
+    }
+
+    public static NetworkCapture start(WebDriver driver) {
+        return start(driver, DEFAULT_SEARCH_URL, new ProductJsonMapper());
+    }
+
+    public static NetworkCapture start(WebDriver driver, Pattern searchUrl, ProductJsonMapper mapper) {
+        if (!isSupported(driver)) {
+            throw new IllegalStateException("Network capture needs a DevTools capable browser (Chrome or Edge)");
+        }
+
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+
+            NetworkCapture capture = new NetworkCapture(devTools, searchUrl, mapper);
+            attach(devTools, capture);
+
+            log.info("Network capture started for URLs matching {}", searchUrl.pattern());
+            return capture;
+
+        } catch (Exception e) {
+            log.error("Failed to start network capture: {}", e.getMessage(), e);
+            throw new RuntimeException("Unable to start network capture: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decode every finished search response and hand new products to the consumer, up to the limit.
+     * Products are de-duplicated by Ad_Id. Returns how many were delivered
+     */
+    public int drain(Consumer<Map<String, String>> consumer, int limit) {
+        int delivered = 0;
+        while (delivered < limit) {
+            Map<String, String> product = pending.poll();
+            if (product == null) {
+                String requestId = finished.poll();
+                if (requestId == null) {
+                    break;
+                }
+                decode(requestId);
+                continue;
+            }
+            consumer.accept(product);
+            delivered++;
+            products++;
+        }
+        return delivered;
+    }
+
+    public int getResponseCount() {
+        return responses;
+    }
+
+    public int getProductCount() {
+        return products;
+    }
+
+    /**
+     * Result count the search API reported in the responses decoded so far ("totalRecords"), or -1 if none did
+     */
+    public int getReportedTotal() {
+        return reportedTotal;
+    }
+
+    @Override
+    public void close() {
+        try {
+            detach(devTools, this);
+            log.info("Network capture stopped: {} responses, {} products", responses, products);
+        } catch (Exception e) {
+            log.warn("Error while stopping network capture: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Add the capture to its session, registering the forwarding listeners and enabling Network on first use
+     */
+    private static void attach(DevTools devTools, NetworkCapture capture) {
+        synchronized (SESSIONS) {
+            List<NetworkCapture> captures = SESSIONS.get(devTools);
+            if (captures == null) {
+                List<NetworkCapture> open = new CopyOnWriteArrayList<>();
+                devTools.addListener(new Event<>("Network.responseReceived", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                    params -> open.forEach(c -> c.onResponseReceived(params)));
+                devTools.addListener(new Event<>("Network.loadingFinished", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+                    params -> open.forEach(c -> c.onLoadingFinished(params)));
+                SESSIONS.put(devTools, open);
+                captures = open;
+            }
+            if (captures.isEmpty()) {
+                devTools.send(new Command<Void>("Network.enable", new HashMap<>()));
+            }
+            captures.add(capture);
+        }
+    }
+
+    /**
+     * Stop forwarding events to the capture; the session's other listeners stay registered
+     */
+    private static void detach(DevTools devTools, NetworkCapture capture) {
+        synchronized (SESSIONS) {
+            List<NetworkCapture> captures = SESSIONS.get(devTools);
+            if (captures == null || !captures.remove(capture) || !captures.isEmpty()) {
+                return;
+            }
+            devTools.send(new Command<Void>("Network.disable", new HashMap<>()));
+        }
+    }
+
+    /**
+     * Queue the new products of one finished response. Products beyond a drain limit stay queued for the next drain
+     */
+    private void decode(String requestId) {
+        String url = tracked.remove(requestId);
+        String body = fetchBody(requestId);
+        if (body == null) {
+            return;
+        }
+
+        responses++;
+        Object payload;
+        try {
+            payload = JSON.toType(body, Json.OBJECT_TYPE);
+        } catch (JsonException e) {
+            log.debug("Response body of {} is not JSON: {}", url, e.getMessage());
+            return;
+        }
+        List<Map<String, String>> mapped = mapper.map(payload);
+        reportedTotal = Math.max(reportedTotal, mapper.totalCount(payload));
+        log.info("Decoded {} products from {}", mapped.size(), url);
+
+        for (Map<String, String> product : mapped) {
+            String adId = product.get(ProductJsonMapper.AD_ID);
+            if (adId == null || "N/A".equals(adId) || seenAdIds.add(adId)) {
+                pending.add(product);
+            }
+        }
+    }
+
+    private void onResponseReceived(Map<String, Object> params) {
+        Object response = params.get("response");
+        if (!(response instanceof Map)) {
+            return;
+        }
+        String url = String.valueOf(((Map<?, ?>) response).get("url"));
+        String mimeType = String.valueOf(((Map<?, ?>) response).get("mimeType"));
+        if (mimeType.contains("json") && searchUrl.matcher(url).find()) {
+            tracked.put(String.valueOf(params.get("requestId")), url);
+        }
+    }
+
+    private void onLoadingFinished(Map<String, Object> params) {
+        String requestId = String.valueOf(params.get("requestId"));
+        if (tracked.containsKey(requestId)) {
+            finished.add(requestId);
+        }
+    }
+
+    /**
+     * Network.getResponseBody, sent from the caller's thread (never from a listener, which would block the connection)
+     */
+    private String fetchBody(String requestId) {
+        try {
+            Map<String, Object> params = new HashMap<>();
+            params.put("requestId", requestId);
+            Map<String, Object> result = devTools.send(new Command<Map<String, Object>>(
+                "Network.getResponseBody", params, input -> input.read(Json.MAP_TYPE)));
+
+            String body = String.valueOf(result.get("body"));
+            if (Boolean.TRUE.equals(result.get("base64Encoded"))) {
+                body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+            }
+            return body;
+        } catch (Exception e) {
+            log.warn("Could not read response body for request {}: {}", requestId, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.hamrobazaar.extraction;
+
+import com.hamrobazaar.utils.PriceParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductJsonMapper - Turns a search API payload into the same product records the DOM extraction produces
+ * The payload shape is not fixed, so products are found by looking for objects that have a title-like
+ * and a price-like key anywhere in the payload, and each field is read from the first matching candidate key.
+ * Besides the six card fields it fills Ad_Id, Posted_Timestamp, Latitude and Longitude, which cards do not show
+ */
+public final class ProductJsonMapper {
+
+    private static final Logger log = LogManager.getLogger(ProductJsonMapper.class);
+
+    public static final String AD_ID            = "Ad_Id";
+    public static final String POSTED_TIMESTAMP = "Posted_Timestamp";
+    public static final String LATITUDE         = "Latitude";
+    public static final String LONGITUDE        = "Longitude";
+
+    /** Fields only the structured sources provide, in CSV column order */
+    public static final String[] EXTRA_COLUMNS = {AD_ID, POSTED_TIMESTAMP, LATITUDE, LONGITUDE};
+
+    // Candidate keys per field, first match wins. Dotted keys walk nested objects
+    private static final String[] TITLE_KEYS       = {"name", "title", "adTitle", "productName"};
+    private static final String[] DESCRIPTION_KEYS = {"description", "shortDescription", "desc", "details"};
+    private static final String[] PRICE_KEYS       = {"price", "adPrice", "priceValue", "amount"};
+    private static final String[] CONDITION_KEYS   = {"conditionName", "condition", "productCondition", "conditionType"};
+    private static final String[] POSTED_KEYS      = {"createdTime", "createdOn", "createdAt", "created_at", "createdDate",
+                                                      "postedOn", "postedAt", "publishedAt"};
+    private static final String[] SELLER_KEYS      = {"creatorInfo.createdByName", "createdByName", "sellerName",
+                                                      "seller.name", "creator.name", "user.name", "userName"};
+    private static final String[] ID_KEYS          = {"id", "adId", "productId", "_id"};
+    private static final String[] LATITUDE_KEYS    = {"location.lat", "location.latitude", "latitude", "lat", "geo.lat"};
+    private static final String[] LONGITUDE_KEYS   = {"location.lng", "location.lon", "location.longitude",
+                                                      "longitude", "lng", "lon", "geo.lng"};
+
+    // Result count the API reports next to a page of products
+    private static final String[] TOTAL_KEYS       = {"totalRecords", "totalCount", "total", "totalElements", "totalItems"};
+
+    // Timestamps without an offset are Nepal local time
+    private static final ZoneId SITE_ZONE = ZoneId.of("Asia/Kathmandu");
+
+    private final Clock clock;
+    private final Json json = new Json();
+
+    public ProductJsonMapper() {
+        this(Clock.systemUTC());
+    }
+
+    /**
+     * The clock is the crawl time that relative dates ("3 days ago") are computed against
+     */
+    public ProductJsonMapper(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Parse a response body and map every product in it. Bodies that are not JSON give an empty list
+     */
+    public List<Map<String, String>> mapBody(String body) {
+        if (body == null || body.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            return map(json.toType(body, Json.OBJECT_TYPE));
+        } catch (JsonException e) {
+            log.debug("Response body is not JSON: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Map every product found anywhere in an already parsed payload (Maps and Lists)
+     */
+    public List<Map<String, String>> map(Object payload) {
+        List<Map<String, String>> products = new ArrayList<>();
+        collect(payload, products);
+        return products;
+    }
+
+    /**
+     * The total number of results reported in a parsed payload (e.g. "totalRecords"), or -1 if it has none.
+     * Product objects and lists are not searched, so a product's own fields are never taken for the total
+     */
+    public int totalCount(Object payload) {
+        if (!(payload instanceof Map) || looksLikeProduct((Map<?, ?>) payload)) {
+            return -1;
+        }
+        Map<?, ?> map = (Map<?, ?>) payload;
+        Object total = first(map, TOTAL_KEYS);
+        if (total instanceof Number) {
+            return ((Number) total).intValue();
+        }
+        for (Object value : map.values()) {
+            int nested = totalCount(value);
+            if (nested >= 0) {
+                return nested;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Map one product object, or null if it does not look like a product
+     */
+    public Map<String, String> mapProduct(Map<?, ?> item) {
+        if (!looksLikeProduct(item)) {
+            return null;
+        }
+
+        Map<String, String> product = new LinkedHashMap<>();
+        product.put("Title",          text(first(item, TITLE_KEYS)));
+        product.put("Description",    text(first(item, DESCRIPTION_KEYS)));
+        product.put("Price",          price(first(item, PRICE_KEYS)));
+        product.put("Condition",      text(first(item, CONDITION_KEYS)));
+
+        Instant posted = timestamp(first(item, POSTED_KEYS));
+        product.put("Ad_Posted_Date", posted == null ? text(first(item, POSTED_KEYS)) : relative(posted));
+        product.put("Seller_Name",    text(first(item, SELLER_KEYS)));
+
+        product.put(AD_ID,            text(first(item, ID_KEYS)));
+        product.put(POSTED_TIMESTAMP, posted == null ? "N/A" : posted.toString());
+        product.put(LATITUDE,         text(first(item, LATITUDE_KEYS)));
+        product.put(LONGITUDE,        text(first(item, LONGITUDE_KEYS)));
+        return product;
+    }
+
+    private void collect(Object node, List<Map<String, String>> products) {
+        if (node instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) node;
+            Map<String, String> product = mapProduct(map);
+            if (product != null) {
+                products.add(product);
+                return;
+            }
+            for (Object value : map.values()) {
+                collect(value, products);
+            }
+        } else if (node instanceof Collection) {
+            for (Object value : (Collection<?>) node) {
+                collect(value, products);
+            }
+        }
+    }
+
+    private boolean looksLikeProduct(Map<?, ?> item) {
+        Object title = first(item, TITLE_KEYS);
+        if (!(title instanceof String) || ((String) title).trim().isEmpty()) {
+            return false;
+        }
+        // A price key (even null for "price on call") separates products from categories, locations etc.
+        for (String key : PRICE_KEYS) {
+            if (hasKey(item, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasKey(Map<?, ?> item, String key) {
+        for (Object name : item.keySet()) {
+            if (key.equalsIgnoreCase(String.valueOf(name))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object first(Map<?, ?> item, String[] keys) {
+        for (String key : keys) {
+            Object value = lookup(item, key);
+            if (value != null && !(value instanceof Map) && !(value instanceof Collection)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Case-insensitive lookup, dotted keys walk nested objects
+     */
+    private static Object lookup(Map<?, ?> item, String dottedKey) {
+        Object current = item;
+        for (String part : dottedKey.split("\\.")) {
+            if (!(current instanceof Map)) {
+                return null;
+            }
+            Map<?, ?> map = (Map<?, ?>) current;
+            Object next = map.get(part);
+            if (next == null) {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (part.equalsIgnoreCase(String.valueOf(entry.getKey()))) {
+                        next = entry.getValue();
+                        break;
+                    }
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return "N/A";
+        }
+        String text = String.valueOf(value).replace('\n', ' ').replace('\r', ' ').trim();
+        return text.isEmpty() ? "N/A" : text;
+    }
+
+    /**
+     * Numbers are rupees; strings go through PriceParser. Written the way cards show it ("65,00,000")
+     */
+    private static String price(Object value) {
+        long paisa;
+        if (value instanceof Number) {
+            paisa = Math.round(((Number) value).doubleValue() * PriceParser.PAISA_PER_RUPEE);
+        } else {
+            paisa = PriceParser.parsePaisa(value == null ? null : value.toString());
+        }
+        return paisa == PriceParser.NO_PRICE ? text(value) : PriceParser.formatAmount(paisa);
+    }
+
+    /**
+     * ISO-8601 with or without offset, or epoch seconds / milliseconds
+     */
+    static Instant timestamp(Object value) {
+        if (value instanceof Number) {
+            long epoch = ((Number) value).longValue();
+            return epoch > 100_000_000_000L ? Instant.ofEpochMilli(epoch) : Instant.ofEpochSecond(epoch);
+        }
+        if (!(value instanceof String)) {
+            return null;
+        }
+        String text = ((String) value).trim();
+        try {
+            return OffsetDateTime.parse(text).toInstant();
+        } catch (DateTimeParseException ignored) {
+            // no offset, try local time below
+        }
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException ignored) {
+            // no zone designator
+        }
+        try {
+            return LocalDateTime.parse(text).atZone(SITE_ZONE).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Same wording as the cards: "5 minutes ago", "3 days ago", "1 years ago"
+     */
+    private String relative(Instant posted) {
+        Duration age = Duration.between(posted, clock.instant());
+        if (age.isNegative()) {
+            age = Duration.ZERO;
+        }
+        long days = age.toDays();
+        if (days >= 365) return (days / 365) + " years ago";
+        if (days >= 30)  return (days / 30) + " months ago";
+        if (days >= 1)   return days + " days ago";
+        if (age.toHours() >= 1) return age.toHours() + " hours ago";
+        return age.toMinutes() + " minutes ago";
+    }
+}
@@ -0,0 +1,169 @@
+package com.hamrobazaar.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+import org.jsoup.select.Selector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * CardSnapshotParser - Extracts product cards from a page-source snapshot inside the JVM
+ * One driver.getPageSource() replaces the findElement/getText round trips: the snapshot is parsed with Jsoup,
+ * cards are found with the same card XPath as SearchResultsPage (one document conversion), and fields are read
+ * with the CSS equivalents of its field XPaths, compiled once, so the cost grows linearly with the cards.
+ * Large snapshots are split across the common fork-join pool.
+ * Works on saved snapshots too, so extraction logic can be tested without a browser
+ */
+public final class CardSnapshotParser {
+
+    private static final Logger log = LogManager.getLogger(CardSnapshotParser.class);
+
+    // Below this many cards one thread is faster than forking
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    // Compiled once; Jsoup evaluators are immutable, so the fork-join slices share them
+    private static final List<Evaluator> FIELDS = compile(SearchResultsPage.FIELD_CSS);
+
+    private CardSnapshotParser() {
+    }
+
+    /**
+     * Products in a snapshot, in page order
+     */
+    public static List<Map<String, String>> parseProducts(String html) {
+        List<Map<String, String>> products = new ArrayList<>();
+        for (List<Object> row : parseRows(html, Collections.emptySet())) {
+            products.add(toProduct(row));
+        }
+        return products;
+    }
+
+    /**
+     * Rows in the batch script's shape, [dataIndex, title, description, price, condition, date, seller],
+     * skipping cards whose data-index is already captured. Missing fields are "N/A"
+     */
+    public static List<List<Object>> parseRows(String html, Collection<Integer> skip) {
+        long start = System.nanoTime();
+        Document document = Jsoup.parse(html == null ? "" : html);
+
+        Elements cards = document.selectXpath(SearchResultsPage.CARD_XPATH);
+        if (cards.isEmpty()) {
+            cards = selectAlternate(document);
+        }
+
+        Set<Integer> skipped = new HashSet<>(skip);
+        List<Element> pending = new ArrayList<>(cards.size());
+        for (Element card : cards) {
+            int dataIndex = dataIndex(card);
+            if (dataIndex < 0 || !skipped.contains(dataIndex)) {
+                pending.add(card);
+            }
+        }
+
+        List<List<Object>> rows = pending.size() < PARALLEL_THRESHOLD
+            ? readCards(pending)
+            : ForkJoinPool.commonPool().invoke(new CardTask(pending));
+
+        log.debug("Parsed {} cards ({} skipped) from a {} char snapshot in {}ms", rows.size(),
+            cards.size() - pending.size(), html == null ? 0 : html.length(), (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    static Map<String, String> toProduct(List<?> row) {
+        Map<String, String> product = new HashMap<>();
+        for (int i = 0; i < SearchResultsPage.FIELD_NAMES.length; i++) {
+            Object value = row.get(i + 1);
+            product.put(SearchResultsPage.FIELD_NAMES[i], value == null ? "N/A" : value.toString());
+        }
+        return product;
+    }
+
+    private static Elements selectAlternate(Document document) {
+        try {
+            return document.select(SearchResultsPage.CARD_ALT_CSS);
+        } catch (Selector.SelectorParseException e) {
+            log.debug("Alternate card selector not supported by Jsoup: {}", e.getMessage());
+            return new Elements();
+        }
+    }
+
+    private static List<List<Object>> readCards(List<Element> cards) {
+        List<List<Object>> rows = new ArrayList<>(cards.size());
+        for (Element card : cards) {
+            rows.add(readCard(card));
+        }
+        return rows;
+    }
+
+    private static List<Object> readCard(Element card) {
+        Object[] row = new Object[FIELDS.size() + 1];
+        row[0] = dataIndex(card);
+        for (int i = 0; i < FIELDS.size(); i++) {
+            Element found = card.selectFirst(FIELDS.get(i));
+            String text = found == null ? "" : found.text().trim();
+            row[i + 1] = text.isEmpty() ? "N/A" : text;
+        }
+        return Arrays.asList(row);
+    }
+
+    private static List<Evaluator> compile(List<String> selectors) {
+        List<Evaluator> evaluators = new ArrayList<>(selectors.size());
+        for (String selector : selectors) {
+            evaluators.add(QueryParser.parse(selector));
+        }
+        return evaluators;
+    }
+
+    private static int dataIndex(Element card) {
+        try {
+            return card.hasAttr("data-index") ? Integer.parseInt(card.attr("data-index").trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    /**
+     * Splits the card list in halves until a slice is small enough to read on one thread; rows stay in page order
+     */
+    private static final class CardTask extends RecursiveTask<List<List<Object>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Element> cards;
+
+        private CardTask(List<Element> cards) {
+            this.cards = cards;
+        }
+
+        @Override
+        protected List<List<Object>> compute() {
+            if (cards.size() <= PARALLEL_THRESHOLD) {
+                return readCards(cards);
+            }
+            int middle = cards.size() / 2;
+            CardTask left = new CardTask(cards.subList(0, middle));
+            CardTask right = new CardTask(cards.subList(middle, cards.size()));
+            left.fork();
+            List<List<Object>> rows = new ArrayList<>(right.compute());
+            rows.addAll(0, left.join());
+            return rows;
+        }
+    }
+}
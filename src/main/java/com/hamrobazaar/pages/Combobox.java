@@ -0,0 +1,201 @@
+package com.hamrobazaar.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Combobox - A text input with a suggestion list (location, condition), used by the page that owns it
+ * Types the query, then polls the visible suggestions (element and text in one in-page call each time) until
+ * one scores at least MIN_SCORE, and clicks it natively. A list that is still loading, or only holds rows
+ * for an earlier prefix of the query, keeps the wait going. Only when the wait runs out is the first
+ * suggestion taken, with a warning.
+ * Scores: 1.0 exact, 0.9 equal ignoring case and spacing, 0.8 contains the query, otherwise up to 0.7 for
+ * the share of query words found in the suggestion (words keep their combining marks, so Devanagari
+ * words stay whole). Ties go to the earlier suggestion
+ */
+public class Combobox {
+
+    private static final Logger log = LogManager.getLogger(Combobox.class);
+
+    // Lowest score taken without waiting out the budget: half the words of a two word query
+    public static final double MIN_SCORE = 0.35;
+
+    /*
+     * arguments: [0] suggestion css
+     * returns:   null while no suggestion is visible, otherwise [[element, text], ...] in page order
+     */
+    private static final String SUGGESTIONS_SCRIPT =
+        "function visible(el) { return !!(el.offsetWidth || el.offsetHeight || el.getClientRects().length); }" +
+        "var options = Array.prototype.filter.call(document.querySelectorAll(arguments[0]), visible);" +
+        "if (options.length === 0) return null;" +
+        "return options.map(function (el) { return [el, (el.innerText || el.textContent || '').trim()]; });";
+
+    private final WebDriver driver;
+    private final String name;
+    private final String suggestionCss;
+    private final Consumer<WebElement> click;
+    private final BiConsumer<WebElement, String> type;
+    private final BiFunction<String, Function<WebDriver, List<?>>, List<?>> wait;
+
+    /**
+     * name prefixes the recorded waits (name + ".suggestions"); suggestionCss matches the suggestion rows.
+     * click, type and wait are the owning page's scrollAndClick, insertText and timedWait
+     */
+    public Combobox(WebDriver driver, String name, String suggestionCss, Consumer<WebElement> click,
+                    BiConsumer<WebElement, String> type, BiFunction<String, Function<WebDriver, List<?>>, List<?>> wait) {
+        this.driver = driver;
+        this.name = name;
+        this.suggestionCss = suggestionCss;
+        this.click = click;
+        this.type = type;
+        this.wait = wait;
+    }
+
+    /**
+     * Type the query into the input and pick the best scoring suggestion
+     * Throws TimeoutException when no suggestion appears within the wait budget
+     */
+    public Selection select(WebElement input, String query) {
+        log.info("{}: selecting '{}'", name, query);
+
+        click.accept(input);
+        type.accept(input, query);
+
+        List<?> options;
+        try {
+            options = wait.apply(name + ".suggestions", d -> {
+                List<?> visible = suggestions(d);
+                return visible != null && best(texts(visible), query) >= 0 ? visible : null;
+            });
+        } catch (TimeoutException e) {
+            options = suggestions(driver);
+            if (options == null) {
+                throw e;
+            }
+            Selection first = choose(options, 0, query);
+            log.warn("{}: no suggestion scored {} for '{}' in time, selected the first: {}", name, MIN_SCORE, query, first);
+            return first;
+        }
+
+        Selection selection = choose(options, best(texts(options), query), query);
+        log.info("{}: selected {}", name, selection);
+        return selection;
+    }
+
+    /**
+     * Index of the best scoring text, the earliest on a tie; -1 when none scores MIN_SCORE
+     */
+    public static int best(List<String> texts, String query) {
+        int best = -1;
+        double bestScore = -1;
+        for (int i = 0; i < texts.size(); i++) {
+            double score = score(texts.get(i), query);
+            if (score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return bestScore >= MIN_SCORE ? best : -1;
+    }
+
+    /**
+     * How well a suggestion matches the query, 0 to 1
+     */
+    public static double score(String text, String query) {
+        String t = normalize(text);
+        String q = normalize(query);
+        if (text.trim().equals(query.trim())) {
+            return 1.0;
+        }
+        if (t.equals(q)) {
+            return 0.9;
+        }
+        if (!q.isEmpty() && t.contains(q)) {
+            return 0.8;
+        }
+
+        List<String> queryWords = words(query);
+        if (queryWords.isEmpty()) {
+            return 0;
+        }
+        List<String> textWords = words(text);
+        int shared = 0;
+        for (String word : queryWords) {
+            if (textWords.stream().anyMatch(w -> w.startsWith(word))) {
+                shared++;
+            }
+        }
+        return 0.7 * shared / queryWords.size();
+    }
+
+    private static String normalize(String s) {
+        return s.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+    }
+
+    private static List<String> words(String s) {
+        List<String> words = new ArrayList<>(Arrays.asList(normalize(s).split("[^\\p{L}\\p{M}\\p{N}]+")));
+        words.removeIf(String::isEmpty);
+        return words;
+    }
+
+    private List<?> suggestions(WebDriver d) {
+        return (List<?>) ((JavascriptExecutor) d).executeScript(SUGGESTIONS_SCRIPT, suggestionCss);
+    }
+
+    private static List<String> texts(List<?> options) {
+        List<String> texts = new ArrayList<>(options.size());
+        for (Object option : options) {
+            texts.add(String.valueOf(((List<?>) option).get(1)));
+        }
+        return texts;
+    }
+
+    /**
+     * Native click on the suggestion, so the list sees real pointer events
+     */
+    private static Selection choose(List<?> options, int index, String query) {
+        List<?> option = (List<?>) options.get(index);
+        String text = String.valueOf(option.get(1));
+        ((WebElement) option.get(0)).click();
+        return new Selection(text, score(text, query), options.size());
+    }
+
+
+    /**
+     * The suggestion that was clicked and how well it matched
+     */
+    public static final class Selection {
+
+        private final String text;
+        private final double score;
+        private final int candidates;
+
+        Selection(String text, double score, int candidates) {
+            this.text = text;
+            this.score = score;
+            this.candidates = candidates;
+        }
+
+        public String getText()     { return text; }
+        public double getScore()    { return score; }
+        public int getCandidates()  { return candidates; }
+
+        @Override
+        public String toString() {
+            return String.format("'%s' (score %.2f of %d suggestions)", text, score, candidates);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.hamrobazaar.pages;
+
+import com.hamrobazaar.base.ExtractionStats;
+import com.hamrobazaar.utils.ExtractionDiff;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * ExtractionSelector - Runs the cheapest healthy ExtractionStrategy and falls back when its data is incomplete
+ * Strategies are ranked from ExtractionStats: expected cost is milliseconds per product divided by the smoothed
+ * success rate. A strategy with no history ranks first so it gets measured once; one that failed most of its
+ * runs is tried last. A run counts as complete when it delivered maxCount products or reached the minimum
+ * completeness (products read over products expected, see SearchResultsPage.completeness). Otherwise the
+ * next strategy tops the results up, skipping products already delivered
+ */
+public final class ExtractionSelector {
+
+    private static final Logger log = LogManager.getLogger(ExtractionSelector.class);
+
+    // Override with -Dextraction.minCompleteness=0.9
+    private static final double MIN_COMPLETENESS =
+        Double.parseDouble(System.getProperty("extraction.minCompleteness", "0.95"));
+
+    // Below this smoothed success rate a strategy is unhealthy and goes to the back
+    private static final double MIN_SUCCESS_RATE = 0.5;
+
+    private final List<ExtractionStrategy> candidates;
+    private Runnable onFallback = () -> { };
+
+    private ExtractionSelector(List<ExtractionStrategy> candidates) {
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException("ExtractionSelector needs at least one strategy");
+        }
+        this.candidates = Collections.unmodifiableList(new ArrayList<>(candidates));
+    }
+
+    /**
+     * Candidates in their no-history preference order
+     */
+    public static ExtractionSelector of(List<ExtractionStrategy> candidates) {
+        return new ExtractionSelector(candidates);
+    }
+
+    /**
+     * Called before a fallback strategy starts topping up. Its products continue the stream after the
+     * earlier ones, so list-order checks (SortVerifier.startSegment) have to start over
+     */
+    public ExtractionSelector onFallback(Runnable onFallback) {
+        this.onFallback = onFallback;
+        return this;
+    }
+
+    /**
+     * Candidates in the order they will be tried. Ties keep the given order
+     */
+    public List<ExtractionStrategy> ranked() {
+        List<ExtractionStrategy> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.comparing(ExtractionSelector::isUnhealthy)
+            .thenComparingDouble(ExtractionSelector::expectedCost));
+        return ranked;
+    }
+
+    private static boolean isUnhealthy(ExtractionStrategy strategy) {
+        return ExtractionStats.get(strategy.getName()).successRate() < MIN_SUCCESS_RATE;
+    }
+
+    /**
+     * Milliseconds per product over the smoothed success rate; 0 without history so untried strategies go first
+     */
+    private static double expectedCost(ExtractionStrategy strategy) {
+        ExtractionStats.Entry stats = ExtractionStats.get(strategy.getName());
+        if (stats.millisPerProduct() < 0) {
+            return 0;
+        }
+        return stats.millisPerProduct() / stats.successRate();
+    }
+
+    /**
+     * Extract up to maxCount products with the best-ranked strategy, falling back down the ranking
+     * while the data is incomplete. Every attempt is recorded in ExtractionStats
+     */
+    public Selection extract(SearchResultsPage page, int maxCount, Consumer<Map<String, String>> consumer) {
+        Set<String> earlier = new HashSet<>();
+        List<String> attempts = new ArrayList<>();
+        int total = 0;
+        String used = null;
+
+        for (ExtractionStrategy strategy : ranked()) {
+            if (!attempts.isEmpty()) {
+                onFallback.run();
+            }
+            attempts.add(strategy.getName());
+            List<String> current = new ArrayList<>();
+            int[] delivered = {0};
+            int remaining = maxCount - total;
+
+            // Only products delivered by an earlier attempt are skipped, repeats within one run are real listings
+            Consumer<Map<String, String>> topUp = product -> {
+                String key = ExtractionDiff.key(product);
+                if (delivered[0] < remaining && !earlier.contains(key)) {
+                    consumer.accept(product);
+                    current.add(key);
+                    delivered[0]++;
+                }
+            };
+
+            long start = System.currentTimeMillis();
+            int read;
+            try {
+                read = strategy.extract(page, maxCount, topUp);
+            } catch (RuntimeException e) {
+                log.warn("Extraction strategy {} failed: {}", strategy.getName(), e.getMessage());
+                read = 0;
+            }
+            long elapsed = System.currentTimeMillis() - start;
+
+            total += delivered[0];
+            earlier.addAll(current);
+            double completeness = read == 0 ? 0.0 : strategy.completeness(page, read, maxCount);
+            boolean complete = read >= maxCount || (read > 0 && completeness >= MIN_COMPLETENESS);
+            ExtractionStats.record(strategy.getName(), complete, read, elapsed);
+            log.info("Strategy {} read {} products in {}ms (completeness {}%), {} in total",
+                strategy.getName(), read, elapsed, String.format("%.1f", completeness * 100), total);
+
+            if (read > 0) {
+                used = used == null ? strategy.getName() : used + "+" + strategy.getName();
+            }
+            if (complete || total >= maxCount) {
+                break;
+            }
+            log.warn("Strategy {} returned incomplete data, falling back", strategy.getName());
+        }
+
+        return new Selection(used == null ? "none" : used, total, attempts);
+    }
+
+
+    /**
+     * Which strategies produced the products of one extract call
+     */
+    public static final class Selection {
+
+        private final String strategy;
+        private final int productCount;
+        private final List<String> attempts;
+
+        private Selection(String strategy, int productCount, List<String> attempts) {
+            this.strategy = strategy;
+            this.productCount = productCount;
+            this.attempts = Collections.unmodifiableList(attempts);
+        }
+
+        /**
+         * Name of the strategy that delivered the products, "a+b" when a fallback topped them up
+         */
+        public String getStrategy()      { return strategy; }
+        public int getProductCount()     { return productCount; }
+        public List<String> getAttempts() { return attempts; }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d products (tried %s)", strategy, productCount, attempts);
+        }
+    }
+}
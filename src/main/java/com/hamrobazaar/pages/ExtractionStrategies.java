@@ -0,0 +1,120 @@
+package com.hamrobazaar.pages;
+
+import com.hamrobazaar.extraction.NetworkCapture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ExtractionStrategies - The built-in ExtractionStrategy implementations
+ * per-card: findElement/getText per field, batch: one script call per scroll step,
+ * agent: in-page MutationObserver queue, page-source: Jsoup over getPageSource(),
+ * network: search API responses recorded by a NetworkCapture started before navigation
+ */
+public final class ExtractionStrategies {
+
+    public static final String PER_CARD    = "per-card";
+    public static final String BATCH       = "batch";
+    public static final String AGENT       = "agent";
+    public static final String PAGE_SOURCE = "page-source";
+    public static final String NETWORK     = "network";
+
+    private ExtractionStrategies() {
+    }
+
+    public static ExtractionStrategy perCard() {
+        return new CardReaderStrategy(PER_CARD, SearchResultsPage.CardReader.PER_CARD);
+    }
+
+    public static ExtractionStrategy batch() {
+        return new CardReaderStrategy(BATCH, SearchResultsPage.CardReader.BATCH);
+    }
+
+    public static ExtractionStrategy cardAgent() {
+        return new CardReaderStrategy(AGENT, SearchResultsPage.CardReader.AGENT);
+    }
+
+    public static ExtractionStrategy pageSource() {
+        return new CardReaderStrategy(PAGE_SOURCE, SearchResultsPage.CardReader.PAGE_SOURCE);
+    }
+
+    public static ExtractionStrategy network(NetworkCapture capture) {
+        return new ExtractionStrategy() {
+            @Override
+            public String getName() {
+                return NETWORK;
+            }
+
+            @Override
+            public int extract(SearchResultsPage page, int maxCount, Consumer<Map<String, String>> consumer) {
+                return page.drainNetwork(capture, maxCount, consumer);
+            }
+
+            @Override
+            public String toString() {
+                return NETWORK;
+            }
+        };
+    }
+
+    /**
+     * Every strategy usable on this page, in the order to try them when there is no history yet.
+     * Network is only included when a capture is running
+     */
+    public static List<ExtractionStrategy> all(NetworkCapture capture) {
+        List<ExtractionStrategy> strategies = new ArrayList<>();
+        if (capture != null) {
+            strategies.add(network(capture));
+        }
+        strategies.add(cardAgent());
+        strategies.add(batch());
+        strategies.add(pageSource());
+        strategies.add(perCard());
+        return strategies;
+    }
+
+    /**
+     * Look a strategy up by name, e.g. from -Ddiff.left=batch
+     */
+    public static ExtractionStrategy byName(String name, NetworkCapture capture) {
+        for (ExtractionStrategy strategy : all(capture)) {
+            if (strategy.getName().equalsIgnoreCase(name.trim())) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("No ExtractionStrategy found for name: '" + name + "'"
+            + (NETWORK.equalsIgnoreCase(name.trim()) ? " (network needs a running NetworkCapture)" : ""));
+    }
+
+
+    /**
+     * Virtual-scroll extraction with a fixed card reader
+     */
+    private static final class CardReaderStrategy implements ExtractionStrategy {
+
+        private final String name;
+        private final SearchResultsPage.CardReader reader;
+
+        private CardReaderStrategy(String name, SearchResultsPage.CardReader reader) {
+            this.name = name;
+            this.reader = reader;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int extract(SearchResultsPage page, int maxCount, Consumer<Map<String, String>> consumer) {
+            return page.extractWithVirtualScroll(reader, maxCount, (index, product) -> consumer.accept(product));
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.hamrobazaar.pages;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ExtractionStrategy - One way of reading the products of an open results page
+ * Built-in strategies are in ExtractionStrategies; ExtractionSelector picks between them.
+ * A strategy streams products to the consumer in list order and reports the completeness of its run,
+ * by default through SearchResultsPage.getLastCompleteness()
+ */
+public interface ExtractionStrategy {
+
+    /**
+     * Stable name, used as the key of the recorded run history (e.g. "batch")
+     */
+    String getName();
+
+    /**
+     * Extract up to maxCount products. Returns the number delivered to the consumer
+     */
+    int extract(SearchResultsPage page, int maxCount, Consumer<Map<String, String>> consumer);
+
+    /**
+     * Share of the expected products the run that just returned actually read (1.0 = nothing missing).
+     * The built-in strategies leave it in the page
+     */
+    default double completeness(SearchResultsPage page, int read, int maxCount) {
+        return page.getLastCompleteness();
+    }
+}
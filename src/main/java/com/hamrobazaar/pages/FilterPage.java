@@ -1,15 +1,17 @@
 package com.hamrobazaar.pages;
 
 import com.hamrobazaar.base.BasePage;
+import com.hamrobazaar.base.LocatorChain;
 import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.utils.SortVerifier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 
 public class FilterPage extends BasePage {
@@ -21,21 +23,31 @@ public class FilterPage extends BasePage {
     // Condition combobox input
     private final By conditionInput       = By.cssSelector("input[name='condition']");
 
-    // All font-medium divs (used for condition suggestions - same pattern as location)
-    private final By conditionSuggestions = By.cssSelector("div.font-medium");
+    // Suggestion rows of the condition combobox (same pattern as location)
+    private static final String CONDITION_SUGGESTION_CSS = "div.font-medium";
 
     // Price range inputs
-    private final By priceFromInput       = By.cssSelector("input[name='priceFrom']");
-    private final By priceToInput         = By.cssSelector("input[name='priceTo']");
+    private static final String PRICE_FROM_CSS = "input[name='priceFrom']";
+    private static final String PRICE_TO_CSS   = "input[name='priceTo']";
+    private final By priceFromInput       = By.cssSelector(PRICE_FROM_CSS);
+    private final By priceToInput         = By.cssSelector(PRICE_TO_CSS);
+
+    // Price and title text of the rendered result cards (used by the sort verifiers)
+    private final By visiblePrices        = By.xpath("//span[contains(@class,'text-sm') and contains(@class,'font-semibold')]");
+    private final By visibleTitles        = By.xpath("//a[contains(@class,'heading-h6') and contains(@class,'break-words')]");
 
     // Sort dropdown button (the "Recent" button)
     // Sort dropdown - aria-label='Sorting-label' and aria-haspopup='dialog' from the HTML
-    private final By sortDropdownButton   = By.cssSelector("button[aria-label='Sorting-label'][aria-haspopup='dialog']");
-    private final By sortDropdownFallback = By.xpath("//button[@aria-label='Sorting-label']");
+    private final LocatorChain sortDropdown = LocatorChain.named("FilterPage.sortDropdown")
+        .css("aria", "button[aria-label='Sorting-label'][aria-haspopup='dialog']")
+        .xpath("fallback", "//button[@aria-label='Sorting-label']")
+        .build();
     // Apply Filters button
-    private final By applyFilterByText    = By.xpath("//button[@type='submit'][contains(.,'Apply filters')]");
-    private final By applyFilterByClass   = By.cssSelector("button[type='submit'].bg-primary-surface");
-    private final By applyFilterGeneric   = By.xpath("//button[@type='submit' and contains(@class,'rounded-lg')]");
+    private final LocatorChain applyFilter = LocatorChain.named("FilterPage.applyFilters")
+        .xpath("text", "//button[@type='submit'][contains(.,'Apply filters')]")
+        .css("class", "button[type='submit'].bg-primary-surface")
+        .xpath("generic", "//button[@type='submit' and contains(@class,'rounded-lg')]")
+        .build();
 
     
 
@@ -44,6 +56,10 @@ public class FilterPage extends BasePage {
         return By.xpath("//button[@role='radio' and @aria-label='" + value.trim() + "']");
     }
 
+    private static String negotiableCss(String value) {
+        return "button[role='radio'][aria-label=\"" + value.trim().replace("\"", "\\\"") + "\"]";
+    }
+
     // Sort option - both High to Low and A to Z buttons have: <button class="flex items-center..."><div><svg/><span class="text-sm font-medium">TEXT</span></div></button>
     private By sortOptionByText(String displayText) {
         return By.xpath("//button[contains(@class,'flex') and contains(@class,'items-center')][.//span[contains(@class,'font-medium') and normalize-space(text())='" + displayText + "']]");
@@ -65,42 +81,13 @@ public class FilterPage extends BasePage {
         log.info("Setting condition: {}", condition);
 
         try {
-            WebElement input = waitForElementToBeClickable(driver.findElement(conditionInput));
-
-            // Scroll to center of viewport first to avoid sticky header blocking click
-            scrollToElementAndHighlight(input);
-
-            // JS click bypasses any overlapping elements (sticky nav, etc.)
-            clickUsingJS(input);
-            log.info("Clicked condition input using JS");
-
-            input.clear();
-            input.sendKeys(condition.trim());
-            log.info("Typed condition: {}", condition);
-
-            // Wait for suggestions and pick matching one
-            List<WebElement> suggestions = waitForElements(conditionSuggestions);
-            log.info("Found {} condition suggestions", suggestions.size());
-
-            for (WebElement suggestion : suggestions) {
-                String text = suggestion.getText().trim();
-                if (text.equalsIgnoreCase(condition.trim())) {
-                    scrollToElementAndHighlight(suggestion);
-                    clickUsingJS(suggestion);
-                    log.info("Selected condition: {}", text);
-                    return;
-                }
-            }
+            WebElement input = waitForElementToBeClickable("FilterPage.conditionInput", conditionInput);
 
-            // Fallback: click first suggestion if no exact match
-            if (!suggestions.isEmpty()) {
-                WebElement first = suggestions.get(0);
-                scrollToElementAndHighlight(first);
-                clickUsingJS(first);
-                log.warn("No exact match for '{}', selected first: {}", condition, first.getText());
-            } else {
-                log.error("No condition suggestions found");
-            }
+            // Type, wait for a suggestion that matches and click it
+            Combobox.Selection selection = new Combobox(driver, "FilterPage.condition", CONDITION_SUGGESTION_CSS,
+                this::scrollAndClick, this::insertText, this::timedWait)
+                .select(input, condition.trim());
+            log.info("Condition set to {}", selection);
 
         } catch (Exception e) {
             log.error("Failed to set condition '{}': {}", condition, e.getMessage(), e);
@@ -121,7 +108,7 @@ public class FilterPage extends BasePage {
 
         try {
             if (hasMin) {
-                WebElement fromInput = waitForElementToBeClickable(driver.findElement(priceFromInput));
+                WebElement fromInput = waitForElementToBeClickable("FilterPage.priceFrom", priceFromInput);
                 scrollToElementAndHighlight(fromInput);
                 fromInput.clear();
                 fromInput.sendKeys(minPrice.trim());
@@ -129,7 +116,7 @@ public class FilterPage extends BasePage {
             }
 
             if (hasMax) {
-                WebElement toInput = waitForElementToBeClickable(driver.findElement(priceToInput));
+                WebElement toInput = waitForElementToBeClickable("FilterPage.priceTo", priceToInput);
                 scrollToElementAndHighlight(toInput);
                 toInput.clear();
                 toInput.sendKeys(maxPrice.trim());
@@ -143,6 +130,51 @@ public class FilterPage extends BasePage {
     }
 
     
+    /**
+     * Set price range and negotiable in one browser call (native value setter plus input/change events,
+     * radio clicked by label), once the panel's first input is visible. Fields the script cannot set fall back to text insertion or the per-field step.
+     * Empty values are skipped, like in setPriceRange and setNegotiable
+     */
+    public void fillFilters(String minPrice, String maxPrice, String negotiable) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (hasValue(minPrice))   fields.put(PRICE_FROM_CSS, minPrice.trim());
+        if (hasValue(maxPrice))   fields.put(PRICE_TO_CSS, maxPrice.trim());
+        if (hasValue(negotiable)) fields.put(negotiableCss(negotiable), negotiable.trim());
+
+        if (fields.isEmpty()) {
+            log.info("No price range or negotiable filter specified, skipping");
+            return;
+        }
+        log.info("Filling filters: price {} to {}, negotiable {}", minPrice, maxPrice, negotiable);
+
+        try {
+            waitForElement("FilterPage.panel", priceFromInput);
+            Map<String, String> statuses = fillForm(fields);
+
+            String fromStatus = statuses.get(PRICE_FROM_CSS);
+            if (fromStatus != null && !"set".equals(fromStatus)) {
+                insertText(waitForElementToBeClickable("FilterPage.priceFrom", priceFromInput), minPrice.trim());
+            }
+            String toStatus = statuses.get(PRICE_TO_CSS);
+            if (toStatus != null && !"set".equals(toStatus)) {
+                insertText(waitForElementToBeClickable("FilterPage.priceTo", priceToInput), maxPrice.trim());
+            }
+            if (hasValue(negotiable) && !"clicked".equals(statuses.get(negotiableCss(negotiable)))) {
+                setNegotiable(negotiable);
+            }
+            log.info("Filters filled");
+
+        } catch (Exception e) {
+            log.error("Failed to fill filters: {}", e.getMessage(), e);
+            throw new RuntimeException("Unable to fill filters: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean hasValue(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    
     public void setNegotiable(String negotiable) {
         if (negotiable == null || negotiable.trim().isEmpty()) {
             log.info("No negotiable filter specified, skipping");
@@ -151,9 +183,8 @@ public class FilterPage extends BasePage {
         log.info("Setting negotiable: {}", negotiable);
 
         try {
-            WebElement btn = waitForElementToBeClickable(driver.findElement(negotiableButton(negotiable)));
-            scrollToElementAndHighlight(btn);
-            try { click(btn); } catch (Exception e) { clickUsingJS(btn); }
+            WebElement btn = waitForElementToBeClickable("FilterPage.negotiable", negotiableButton(negotiable));
+            scrollAndClick(btn);
             log.info("Set negotiable to: {}", negotiable);
         } catch (Exception e) {
             log.error("Failed to set negotiable '{}': {}", negotiable, e.getMessage(), e);
@@ -166,23 +197,10 @@ public class FilterPage extends BasePage {
         log.info("Clicking Apply Filters button");
 
         try {
-            WebElement applyBtn;
-            try {
-                applyBtn = driver.findElement(applyFilterByText);
-                log.info("Found Apply button using text");
-            } catch (Exception e1) {
-                try {
-                    applyBtn = driver.findElement(applyFilterByClass);
-                    log.info("Found Apply button using class");
-                } catch (Exception e2) {
-                    applyBtn = driver.findElement(applyFilterGeneric);
-                    log.info("Found Apply button using generic locator");
-                }
-            }
+            WebElement applyBtn = resolve(applyFilter, STEP_BUDGET);
+            log.info("Found Apply button");
 
-            scrollToElementAndHighlight(applyBtn);
-            waitForElementToBeClickable(applyBtn);
-            try { click(applyBtn); } catch (Exception e) { clickUsingJS(applyBtn); }
+            scrollAndClick(applyBtn);
             log.info("Applied filters");
 
         } catch (Exception e) {
@@ -198,51 +216,9 @@ public class FilterPage extends BasePage {
         
 
         try {
-            List<WebElement> priceElements = driver.findElements(
-                By.xpath("//span[contains(@class,'text-sm') and contains(@class,'font-semibold')]")
-            );
-
-            log.info("Found {} price elements", priceElements.size());
-            if (priceElements.isEmpty()) return false;
-
-            // Step 1: collect into originalPrices
-            List<Double> originalPrices = new ArrayList<>();
-            for (WebElement el : priceElements) {
-                try {
-                    String raw = safeText(el).replaceAll("[^0-9.]", "").trim();
-                    if (!raw.isEmpty()) originalPrices.add(Double.parseDouble(raw));
-                } catch (Exception e) {
-                    log.debug("Could not parse price");
-                }
-            }
-
-            if (originalPrices.isEmpty()) return false;
-
-            // Step 2: copy
-            List<Double> sortedPrices = new ArrayList<>(originalPrices);
-
-            // Step 3: sort descending
-            sortedPrices.sort(java.util.Collections.reverseOrder());
-
-            // Step 4: compare
-            log.info("{} | {} | {}", pad("Index", 8), pad("Original", 15), pad("Expected(Desc)", 18));
-            log.info("{}", "-".repeat(45));
-
-            boolean isSorted = true;
-            for (int i = 0; i < originalPrices.size(); i++) {
-                boolean match = originalPrices.get(i).equals(sortedPrices.get(i));
-                if (!match) isSorted = false;
-                log.info("{} | {} | {} {}",
-                    pad(String.valueOf(i + 1), 8),
-                    pad("Rs " + originalPrices.get(i), 15),
-                    pad("Rs " + sortedPrices.get(i), 18),
-                    match ? "MATCH" : " MISMATCH");
-            }
-
-            
-            log.info(isSorted ? " PASSED - High to Low" : " FAILED - NOT High to Low");
-            
-            return isSorted;
+            SortVerifier verifier = verifyOrder(SortOrder.HIGH_TO_LOW, visiblePrices);
+            log.info(verifier.isSorted() ? " PASSED - High to Low" : " FAILED - NOT High to Low");
+            return verifier.isSorted();
 
         } catch (Exception e) {
             log.error("Error verifying High to Low: {}", e.getMessage(), e);
@@ -257,49 +233,9 @@ public class FilterPage extends BasePage {
         
 
         try {
-            List<WebElement> titleElements = driver.findElements(
-                By.xpath("//a[contains(@class,'heading-h6') and contains(@class,'break-words')]")
-            );
-
-            log.info("Found {} title elements", titleElements.size());
-            if (titleElements.isEmpty()) return false;
-
-            // Step 1: collect into originalTitles
-            List<String> originalTitles = new ArrayList<>();
-            for (WebElement el : titleElements) {
-                String text = safeText(el);
-                if (!text.isEmpty() && !text.equals("N/A")) {
-                    originalTitles.add(text.toLowerCase().trim());
-                }
-            }
-
-            if (originalTitles.isEmpty()) return false;
-
-            // Step 2: copy
-            List<String> sortedTitles = new ArrayList<>(originalTitles);
-
-            // Step 3: sort ascending
-            java.util.Collections.sort(sortedTitles);
-
-            // Step 4: compare
-            log.info("{} | {} | {}", pad("Index", 8), pad("Original", 35), pad("Expected(A-Z)", 35));
-            log.info("{}", "-".repeat(82));
-
-            boolean isSorted = true;
-            for (int i = 0; i < originalTitles.size(); i++) {
-                boolean match = originalTitles.get(i).equals(sortedTitles.get(i));
-                if (!match) isSorted = false;
-                log.info("{} | {} | {} {}",
-                    pad(String.valueOf(i + 1), 8),
-                    pad(originalTitles.get(i), 35),
-                    pad(sortedTitles.get(i), 35),
-                    match ? "MATCH" : " MISMATCH");
-            }
-
-            
-            log.info(isSorted ? "PASSED - A to Z" : "FAILED - NOT A to Z");
-         
-            return isSorted;
+            SortVerifier verifier = verifyOrder(SortOrder.A_TO_Z, visibleTitles);
+            log.info(verifier.isSorted() ? "PASSED - A to Z" : "FAILED - NOT A to Z");
+            return verifier.isSorted();
 
         } catch (Exception e) {
             log.error("Error verifying A to Z: {}", e.getMessage(), e);
@@ -307,40 +243,27 @@ public class FilterPage extends BasePage {
         }
     }
 
-    private String safeText(WebElement el) {
-        try { String t = el.getText(); return t == null ? "N/A" : t.trim(); }
-        catch (Exception e) { return "N/A"; }
-    }
-
-    private String pad(String s, int n) {
-        return String.format("%-" + n + "s", s);
-    }
-
     
     public void applySortOrder(SortOrder sortOrder) {
         log.info("Applying sort order: {}", sortOrder.getDisplayText());
 
         try {
-            // Step 1: Open dropdown
-            WebElement sortBtn;
-            try {
-                sortBtn = waitForElementToBeClickable(driver.findElement(sortDropdownButton));
-                log.info("Found sort dropdown using aria-label");
-            } catch (Exception e) {
-                sortBtn = waitForElementToBeClickable(driver.findElement(sortDropdownFallback));
-                log.info("Found sort dropdown using fallback");
-            }
-            scrollToElementAndHighlight(sortBtn);
-            try { click(sortBtn); } catch (Exception e) { clickUsingJS(sortBtn); }
+            // Step 1: Open dropdown once the client has hydrated (earlier clicks are lost)
+            waitForHydration();
+            LocatorChain.Match match = resolveMatch(sortDropdown, STEP_BUDGET);
+            WebElement sortBtn = waitForElementToBeClickable(match.getElement());
+            log.info("Found sort dropdown using {}", match.getAlternative().getLabel());
+            scrollAndClick(sortBtn);
             log.info("Opened sort dropdown");
 
             // Step 2: Click the matching option
-            WebElement sortOption = waitForElementToBeClickable(
-                driver.findElement(sortOptionByText(sortOrder.getDisplayText()))
-            );
-            scrollToElementAndHighlight(sortOption);
-            try { click(sortOption); } catch (Exception e) { clickUsingJS(sortOption); }
+            WebElement sortOption = waitForElementToBeClickable("FilterPage.sortOption", sortOptionByText(sortOrder.getDisplayText()));
+            // Step 3: Click it and wait for the re-sorted list to render, not for a fixed time
+            boolean rerendered = clickAndWaitForMutation(sortOption, SearchResultsPage.resultsContainer(driver));
             log.info("Selected: {}", sortOrder.getDisplayText());
+            if (!rerendered) {
+                log.warn("Results did not re-render after sorting by {}", sortOrder.getDisplayText());
+            }
 
         } catch (Exception e) {
             log.error("Failed to apply sort order '{}': {}", sortOrder, e.getMessage(), e);
@@ -1,6 +1,9 @@
 package com.hamrobazaar.pages;
 
 import com.hamrobazaar.base.BasePage;
+import com.hamrobazaar.base.LocatorChain;
+import com.hamrobazaar.enums.NavigationMode;
+import com.hamrobazaar.utils.SearchQuery;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
@@ -8,8 +11,6 @@ import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 
-import java.util.List;
-
 
 public class HomePage extends BasePage {
 
@@ -18,44 +19,41 @@ public class HomePage extends BasePage {
     
 
     // Search Box
-    private final By searchBoxByCss        = By.cssSelector("input[placeholder='Search for anything']");
-    private final By searchBoxByClass      = By.cssSelector("input.peer.w-full.bg-transparent");
-    private final By searchBoxByAttributes = By.xpath("//input[@placeholder='Search for anything' and @autocomplete='new-first-name']");
+    private final LocatorChain searchBox = LocatorChain.named("HomePage.searchBox")
+        .css("placeholder", "input[placeholder='Search for anything']")
+        .xpath("attributes", "//input[@placeholder='Search for anything' and @autocomplete='new-first-name']")
+        .css("class", "input.peer.w-full.bg-transparent")
+        .build();
 
     // Search Button
     private final By searchButtonParent    = By.xpath("//button[@type='button'][.//svg[contains(@class,'lucide-search')]]");
     private final By searchButtonBySvg     = By.xpath("//button[@type='button']//svg[contains(@class,'lucide-search')]");
 
     // Location Input
-    private final By locationInputByName   = By.name("location");
-    private final By locationInputByRole   = By.cssSelector("input[role='combobox'][name='location']");
-    private final By locationInputByClass  = By.cssSelector("input.peer.w-full.bg-transparent[name='location']");
-
-    // All suggestions (used as fallback to loop through)
-    private final By locationSuggestionsAll = By.cssSelector("div.font-medium");
-
-   
-    private By suggestionByLocation(String location) {
-        return By.xpath("//div[@class='font-medium' and contains(text(),'" + location + "')]");
-    }
-
-    
-    private By distanceButtonByAria(String distance) {
-        return By.cssSelector("button[role='radio'][aria-label='" + distance + "']");
-    }
-
-    private By distanceButtonByText(String distance) {
-        return By.xpath("//button[@role='radio'][normalize-space(text())='" + distance + "']");
-    }
-
-    private By distanceButtonByGeneric(String distance) {
-        return By.xpath("//button[@role='radio'][contains(.,'" + distance + "')]");
+    private final LocatorChain locationInput = LocatorChain.named("HomePage.locationInput")
+        .css("name", "[name='location']")
+        .css("role", "input[role='combobox'][name='location']")
+        .css("class", "input.peer.w-full.bg-transparent[name='location']")
+        .build();
+
+    // Suggestion rows of the location combobox
+    private static final String LOCATION_SUGGESTION_CSS = "div.font-medium";
+
+    // Distance radio button built from CSV value: aria-label first, then text, then generic
+    private LocatorChain distanceButton(String distance) {
+        return LocatorChain.named("HomePage.distanceButton")
+            .css("aria", "button[role='radio'][aria-label='" + distance + "']")
+            .xpath("text", "//button[@role='radio'][normalize-space(text())='" + distance + "']")
+            .xpath("generic", "//button[@role='radio'][contains(.,'" + distance + "')]")
+            .build();
     }
 
     // Apply Filters Button
-    private final By applyFilterButtonByText    = By.xpath("//button[@type='submit'][contains(.,'Apply filters')]");
-    private final By applyFilterButtonByClass   = By.cssSelector("button[type='submit'].bg-primary-surface");
-    private final By applyFilterButtonGeneric   = By.xpath("//button[@type='submit' and contains(@class,'rounded-lg')]");
+    private final LocatorChain applyFilterButton = LocatorChain.named("HomePage.applyFilters")
+        .xpath("text", "//button[@type='submit'][contains(.,'Apply filters')]")
+        .css("class", "button[type='submit'].bg-primary-surface")
+        .xpath("generic", "//button[@type='submit' and contains(@class,'rounded-lg')]")
+        .build();
 
     
 
@@ -70,32 +68,14 @@ public class HomePage extends BasePage {
         log.info("Searching for product: {}", keyword);
 
         try {
-            WebElement searchBox = waitForElement(searchBoxByCss);
-            searchBox.clear();
-            searchBox.sendKeys(keyword);
-            searchBox.sendKeys(Keys.ENTER);
+            WebElement input = resolve(searchBox, STEP_BUDGET);
+            input.clear();
+            input.sendKeys(keyword);
+            input.sendKeys(Keys.ENTER);
             log.info("Searched for: {}", keyword);
         } catch (Exception e) {
-            log.warn("CSS locator failed, trying XPath");
-            try {
-                WebElement searchBox = waitForElement(searchBoxByAttributes);
-                searchBox.clear();
-                searchBox.sendKeys(keyword);
-                searchBox.sendKeys(Keys.ENTER);
-                log.info("Searched using XPath attributes locator");
-            } catch (Exception ex) {
-                log.warn("XPath locator failed, trying class locator");
-                try {
-                    WebElement searchBox = waitForElement(searchBoxByClass);
-                    searchBox.clear();
-                    searchBox.sendKeys(keyword);
-                    searchBox.sendKeys(Keys.ENTER);
-                    log.info("Searched using class locator");
-                } catch (Exception exc) {
-                    log.error("All search box locators failed");
-                    throw new RuntimeException("Unable to locate search box", exc);
-                }
-            }
+            log.error("All search box locators failed");
+            throw new RuntimeException("Unable to locate search box", e);
         }
     }
 
@@ -103,37 +83,14 @@ public class HomePage extends BasePage {
         log.info("Setting location: {}", location);
 
         try {
-            WebElement locationInput = null;
-
-            try {
-                locationInput = waitForElementToBeClickable(driver.findElement(locationInputByName));
-                log.info("Found location input using name attribute");
-            } catch (Exception e1) {
-                log.warn("Name locator failed, trying role locator");
-                try {
-                    locationInput = waitForElementToBeClickable(driver.findElement(locationInputByRole));
-                    log.info("Found location input using role attribute");
-                } catch (Exception e2) {
-                    log.warn("Role locator failed, trying class locator");
-                    locationInput = waitForElementToBeClickable(driver.findElement(locationInputByClass));
-                    log.info("Found location input using class locator");
-                }
-            }
-
-            scrollToElementAndHighlight(locationInput);
-
-            try {
-                click(locationInput);
-            } catch (Exception e) {
-                clickUsingJS(locationInput);
-            }
-
-            locationInput.clear();
-            locationInput.sendKeys(location);
-            log.info("Typed location: {}", location);
-
-            // Select matching suggestion using the location value from CSV
-            selectLocationFromSuggestions(location);
+            WebElement input = waitForElementToBeClickable(resolve(locationInput, STEP_BUDGET));
+            log.info("Found location input");
+
+            // Type, wait for a suggestion that matches and click it
+            Combobox.Selection selection = new Combobox(driver, "HomePage.location", LOCATION_SUGGESTION_CSS,
+                this::scrollAndClick, this::insertText, this::timedWait)
+                .select(input, location);
+            log.info("Location set to {}", selection);
 
         } catch (Exception e) {
             log.error("Failed to set location: {}", e.getMessage(), e);
@@ -141,83 +98,6 @@ public class HomePage extends BasePage {
         }
     }
 
-    
-    private void selectLocationFromSuggestions(String location) {
-        log.info("Selecting suggestion for: {}", location);
-
-        try {
-            // Step 1: Try to find suggestion matching the exact location text from CSV
-            try {
-                By dynamicSuggestion = suggestionByLocation(location);
-                WebElement suggestion = waitForElement(dynamicSuggestion);
-                log.info("Found suggestion using dynamic location locator");
-
-                scrollToElementAndHighlight(suggestion);
-                waitForElementToBeClickable(suggestion);
-
-                try {
-                    click(suggestion);
-                    log.info("Clicked suggestion: {}", location);
-                } catch (Exception e) {
-                    clickUsingJS(suggestion);
-                    log.info("Clicked suggestion using JS: {}", location);
-                }
-
-                return;
-
-            } catch (Exception e) {
-                log.warn("Dynamic locator did not match, falling back to scanning all suggestions");
-            }
-
-            // Step 2: Loop through all visible suggestions and pick the best match
-            List<WebElement> suggestions = waitForElements(locationSuggestionsAll);
-            log.info("Found {} suggestions in dropdown", suggestions.size());
-
-            for (WebElement suggestion : suggestions) {
-                String text = suggestion.getText();
-                log.info("Checking suggestion: {}", text);
-
-                if (text.toLowerCase().contains(location.toLowerCase())) {
-                    scrollToElementAndHighlight(suggestion);
-                    waitForElementToBeClickable(suggestion);
-
-                    try {
-                        click(suggestion);
-                        log.info("Selected matching suggestion: {}", text);
-                    } catch (Exception e) {
-                        clickUsingJS(suggestion);
-                        log.info("Selected suggestion using JS: {}", text);
-                    }
-
-                    return;
-                }
-            }
-
-            // Step 3: No match found - click first available suggestion
-            if (!suggestions.isEmpty()) {
-                log.warn("No exact match found for '{}', clicking first suggestion", location);
-                WebElement first = suggestions.get(0);
-                scrollToElementAndHighlight(first);
-                waitForElementToBeClickable(first);
-
-                try {
-                    click(first);
-                } catch (Exception e) {
-                    clickUsingJS(first);
-                }
-
-                log.info("Clicked first suggestion: {}", first.getText());
-            } else {
-                log.error("No suggestions found in dropdown");
-                throw new RuntimeException("No suggestions appeared for location: " + location);
-            }
-
-        } catch (Exception e) {
-            log.error("Failed to select location suggestion: {}", e.getMessage(), e);
-            throw new RuntimeException("Unable to select location: " + e.getMessage(), e);
-        }
-    }
-
     public void scrollToDistanceSection() {
         log.info("Scrolling to distance section");
         // Scroll to bottom where distance buttons are
@@ -230,34 +110,12 @@ public class HomePage extends BasePage {
         log.info("Setting distance: {}", distance);
 
         try {
-            WebElement distanceBtn = null;
-
-            // Try aria-label first (built from CSV value)
-            try {
-                distanceBtn = driver.findElement(distanceButtonByAria(distance));
-                log.info("Found distance button using aria-label: {}", distance);
-            } catch (Exception e1) {
-                log.warn("Aria-label locator failed for: {}", distance);
-                try {
-                    distanceBtn = driver.findElement(distanceButtonByText(distance));
-                    log.info("Found distance button using text: {}", distance);
-                } catch (Exception e2) {
-                    log.warn("Text locator failed for: {}", distance);
-                    distanceBtn = driver.findElement(distanceButtonByGeneric(distance));
-                    log.info("Found distance button using generic locator: {}", distance);
-                }
-            }
-
-            scrollToElementAndHighlight(distanceBtn);
-            waitForElementToBeClickable(distanceBtn);
-
-            try {
-                click(distanceBtn);
-                log.info("Clicked distance button: {}", distance);
-            } catch (Exception e) {
-                clickUsingJS(distanceBtn);
-                log.info("Clicked distance button using JS: {}", distance);
-            }
+            LocatorChain.Match match = resolveMatch(distanceButton(distance), STEP_BUDGET);
+            WebElement distanceBtn = match.getElement();
+            log.info("Found distance button using {}: {}", match.getAlternative().getLabel(), distance);
+
+            scrollAndClick(distanceBtn);
+            log.info("Clicked distance button: {}", distance);
 
         } catch (Exception e) {
             log.error("Failed to set distance '{}': {}", distance, e.getMessage(), e);
@@ -269,33 +127,11 @@ public class HomePage extends BasePage {
         log.info("Clicking Apply Filters button");
 
         try {
-            WebElement applyButton = null;
-
-            try {
-                applyButton = driver.findElement(applyFilterButtonByText);
-                log.info("Found Apply Filters button using text");
-            } catch (Exception e1) {
-                log.warn("Text locator failed");
-                try {
-                    applyButton = driver.findElement(applyFilterButtonByClass);
-                    log.info("Found Apply Filters button using class");
-                } catch (Exception e2) {
-                    log.warn("Class locator failed");
-                    applyButton = driver.findElement(applyFilterButtonGeneric);
-                    log.info("Found Apply Filters button using generic locator");
-                }
-            }
-
-            scrollToElementAndHighlight(applyButton);
-            waitForElementToBeClickable(applyButton);
-
-            try {
-                click(applyButton);
-                log.info("Clicked Apply Filters");
-            } catch (Exception e) {
-                clickUsingJS(applyButton);
-                log.info("Clicked Apply Filters using JS");
-            }
+            WebElement applyButton = resolve(applyFilterButton, STEP_BUDGET);
+            log.info("Found Apply Filters button");
+
+            scrollAndClick(applyButton);
+            log.info("Clicked Apply Filters");
 
         } catch (Exception e) {
             log.error("Failed to click Apply Filters: {}", e.getMessage(), e);
@@ -304,6 +140,48 @@ public class HomePage extends BasePage {
     }
 
    
+    /**
+     * Reach the results page for a query
+     * URL mode loads the canonical results URL in one driver.get. UI mode (and any query whose
+     * location has no coordinates) drives the search form and filter panel step by step
+     */
+    public SearchResultsPage openSearch(SearchQuery query, NavigationMode mode) {
+        log.info("Opening search {} in {} mode", query, mode);
+        // Capture cards from the first render of every results document
+        SearchResultsPage.installCardAgent(driver);
+
+        if (mode == NavigationMode.URL && query.isUrlNavigable()) {
+            String url = query.toUrl();
+            navigate(url);
+            log.info("Loaded results URL: {}", url);
+            return new SearchResultsPage(driver);
+        }
+
+        if (mode == NavigationMode.URL) {
+            log.warn("{} has a location without coordinates, falling back to the UI path", query);
+        }
+
+        navigate(SearchQuery.BASE_URL + "/");
+        searchProduct(query.getKeyword());
+        if (query.getLocation() != null) {
+            setLocation(query.getLocation());
+        }
+        if (query.getDistance() != null) {
+            scrollToDistanceSection();
+            setDistance(query.getDistance());
+        }
+
+        FilterPage filterPage = new FilterPage(driver);
+        filterPage.setCondition(query.getCondition());
+        filterPage.fillFilters(query.getPriceFrom(), query.getPriceTo(), query.getNegotiable());
+        filterPage.clickApplyFilters();
+        filterPage.applySortOrder(query.getSortOrder());
+
+        log.info("Search opened through the UI path");
+        return new SearchResultsPage(driver);
+    }
+
+   
     public void searchWithFilters(String keyword, String location, String distance) {
         log.info("Starting search flow - keyword: {}, location: {}, distance: {}", keyword, location, distance);
         searchProduct(keyword);
@@ -1,35 +1,229 @@
 package com.hamrobazaar.pages;
 
 import com.hamrobazaar.base.BasePage;
+import com.hamrobazaar.base.ExtractionViewport;
+import com.hamrobazaar.base.LocatorChain;
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.extraction.HydrationState;
+import com.hamrobazaar.extraction.NetworkCapture;
+import com.hamrobazaar.extraction.ProductJsonMapper;
+import com.hamrobazaar.utils.CdpOverrides;
+import com.hamrobazaar.utils.ProductTable;
+import com.hamrobazaar.utils.SortVerifier;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 public class SearchResultsPage extends BasePage {
 
     private static final Logger log = LogManager.getLogger(SearchResultsPage.class);
 
-    private final By sortDropdownButton = By.cssSelector("button[aria-label='Sorting-label']");
-    private final By sortDropdownByRecent = By.xpath("//button[contains(normalize-space(.),'Recent') and .//*[name()='svg' and contains(@class,'lucide-chevron-down')]]");
-    private final By sortDropdownByClass = By.xpath("//button[contains(@class,'button-secondary') and @type='button' and .//*[name()='svg']]");
-    private final By sortLowToHighButton = By.xpath("//button[.//span[normalize-space(text())='Low to High (Price)']]");
-    private final By sortLowToHighByClass = By.xpath("//button[contains(@class,'flex') and contains(@class,'items-center') and .//span[contains(.,'Low to High')]]");
-    private final By productCardsPrimary = By.xpath("//div[@data-index and contains(@class,'w-full') and contains(@class,'mb-3')]");
-    private final By productCardsAlternate = By.cssSelector("div.group.bg-white.rounded-\\[12px\\]");
-    private final By titleRel = By.xpath(".//a[contains(@class,'heading-h6') and contains(@class,'break-words')]");
-    private final By descriptionRel = By.xpath(".//p[contains(@class,'hidden') and contains(@class,'cursor-pointer') and contains(@class,'break-words')]");
-    private final By priceRel = By.xpath(".//span[contains(@class,'text-sm') and contains(@class,'font-semibold')]");
-    private final By conditionRel = By.xpath(".//span[contains(@class,'inline-flex')]//span[contains(@class,'leading-none')]");
-    private final By dateRel = By.xpath(".//span[contains(@class,'block') and contains(@class,'text-xs') and contains(@class,'text-nowrap') and contains(normalize-space(.),'ago')]");
-    private final By sellerRel = By.xpath(".//a[contains(@class,'paragraph-secondary-regular') and contains(@class,'truncate')]");
+    private final LocatorChain sortDropdown = LocatorChain.named("SearchResultsPage.sortDropdown")
+        .css("aria", "button[aria-label='Sorting-label']")
+        .xpath("recent", "//button[contains(normalize-space(.),'Recent') and .//*[name()='svg' and contains(@class,'lucide-chevron-down')]]")
+        .xpath("class", "//button[contains(@class,'button-secondary') and @type='button' and .//*[name()='svg']]")
+        .build();
+    private final LocatorChain sortLowToHigh = LocatorChain.named("SearchResultsPage.sortLowToHigh")
+        .xpath("text", "//button[.//span[normalize-space(text())='Low to High (Price)']]")
+        .xpath("class", "//button[contains(@class,'flex') and contains(@class,'items-center') and .//span[contains(.,'Low to High')]]")
+        .build();
+
+    // Card locators are kept as raw strings so the batch script and the per-card By locators share one definition
+    static final String CARD_XPATH        = "//div[@data-index and contains(@class,'w-full') and contains(@class,'mb-3')]";
+    static final String CARD_ALT_CSS      = "div.group.bg-white.rounded-\\[12px\\]";
+    private static final String TITLE_XPATH       = ".//a[contains(@class,'heading-h6') and contains(@class,'break-words')]";
+    private static final String DESCRIPTION_XPATH = ".//p[contains(@class,'hidden') and contains(@class,'cursor-pointer') and contains(@class,'break-words')]";
+    private static final String PRICE_XPATH       = ".//span[contains(@class,'text-sm') and contains(@class,'font-semibold')]";
+    private static final String CONDITION_XPATH   = ".//span[contains(@class,'inline-flex')]//span[contains(@class,'leading-none')]";
+    private static final String DATE_XPATH        = ".//span[contains(@class,'block') and contains(@class,'text-xs') and contains(@class,'text-nowrap') and contains(normalize-space(.),'ago')]";
+    private static final String SELLER_XPATH      = ".//a[contains(@class,'paragraph-secondary-regular') and contains(@class,'truncate')]";
+
+    // Field order of each row returned by BATCH_EXTRACT_SCRIPT and CardSnapshotParser (column 0 is the data-index)
+    static final String[] FIELD_NAMES = {"Title", "Description", "Price", "Condition", "Ad_Posted_Date", "Seller_Name"};
+    static final List<String> FIELD_XPATHS = Arrays.asList(
+        TITLE_XPATH, DESCRIPTION_XPATH, PRICE_XPATH, CONDITION_XPATH, DATE_XPATH, SELLER_XPATH);
+
+    // The same fields as Jsoup CSS, for CardSnapshotParser: Jsoup evaluates XPath by converting the whole
+    // document on every call, so per-card XPath grows with cards x page size. Keep in step with FIELD_XPATHS
+    static final List<String> FIELD_CSS = Arrays.asList(
+        "a[class*=heading-h6][class*=break-words]",
+        "p[class*=hidden][class*=cursor-pointer][class*=break-words]",
+        "span[class*=text-sm][class*=font-semibold]",
+        "span[class*=inline-flex] span[class*=leading-none]",
+        "span[class*=block][class*=text-xs][class*=text-nowrap]:contains(ago)",
+        "a[class*=paragraph-secondary-regular][class*=truncate]");
+
+    /*
+     * Reads every rendered card in a single executeScript call.
+     * arguments: [0] card xpath, [1] alternate card css, [2] field xpaths, [3] data-indexes to skip
+     * returns:   [[dataIndex, title, description, price, condition, date, seller], ...]
+     */
+    private static final String BATCH_EXTRACT_SCRIPT =
+        "var cardXp = arguments[0], altCss = arguments[1], fieldXps = arguments[2], skip = {}, out = [];" +
+        "(arguments[3] || []).forEach(function (i) { skip[i] = true; });" +
+        "var snap = document.evaluate(cardXp, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+        "var cards = [];" +
+        "for (var i = 0; i < snap.snapshotLength; i++) cards.push(snap.snapshotItem(i));" +
+        "if (cards.length === 0) cards = Array.prototype.slice.call(document.querySelectorAll(altCss));" +
+        "cards.forEach(function (card) {" +
+        "  var attr = card.getAttribute('data-index');" +
+        "  var idx = attr === null ? -1 : parseInt(attr, 10);" +
+        "  if (idx >= 0 && skip[idx]) return;" +
+        "  var row = [idx];" +
+        "  fieldXps.forEach(function (xp) {" +
+        "    var node = document.evaluate(xp, card, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+        "    var text = node ? (node.innerText || node.textContent || '').trim() : '';" +
+        "    row.push(text === '' ? 'N/A' : text);" +
+        "  });" +
+        "  out.push(row);" +
+        "});" +
+        "return out;";
+
+    /*
+     * In-page card agent, installed once per document (on new-document injection where the browser supports CDP).
+     * A MutationObserver serializes each card as it mounts into window.__hbCardAgent.queue, keyed by data-index,
+     * so a poll only transfers the cards that appeared since the last one. Cards whose title has not rendered yet
+     * stay pending and are retried on the next mutation or drain. The queue starts over when the URL changes.
+     */
+    private static final String CARD_AGENT_SCRIPT =
+        "(function () {" +
+        "  if (window.__hbCardAgent) return;" +
+        "  var cardXp = " + jsString(CARD_XPATH) + ", altCss = " + jsString(CARD_ALT_CSS) + ";" +
+        "  var fieldXps = [" + jsStrings(FIELD_XPATHS) + "];" +
+        "  var selfXp = 'self::' + cardXp.substring(2), descXp = '.' + cardXp;" +
+        "  var agent = window.__hbCardAgent = { queue: [], seen: {}, pending: [], href: location.href, mounted: 0 };" +
+        "  function isCard(el) {" +
+        "    if (document.evaluate(selfXp, el, null, XPathResult.BOOLEAN_TYPE, null).booleanValue) return true;" +
+        "    try { return el.matches(altCss); } catch (e) { return false; }" +
+        "  }" +
+        "  function collect(el) {" +
+        "    if (el.nodeType !== 1) return;" +
+        "    if (isCard(el)) { agent.pending.push(el); return; }" +
+        "    var snap = document.evaluate(descXp, el, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+        "    for (var i = 0; i < snap.snapshotLength; i++) agent.pending.push(snap.snapshotItem(i));" +
+        "    if (snap.snapshotLength === 0) {" +
+        "      try { Array.prototype.forEach.call(el.querySelectorAll(altCss), function (c) { agent.pending.push(c); }); } catch (e) {}" +
+        "    }" +
+        "  }" +
+        "  function serialize(card) {" +
+        "    var attr = card.getAttribute('data-index');" +
+        "    var idx = attr === null ? -1 : parseInt(attr, 10);" +
+        "    if (idx >= 0 && agent.seen[idx]) return true;" +
+        "    var row = [idx];" +
+        "    for (var f = 0; f < fieldXps.length; f++) {" +
+        "      var node = document.evaluate(fieldXps[f], card, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+        "      var text = node ? (node.innerText || node.textContent || '').trim() : '';" +
+        "      if (f === 0 && text === '') return !card.isConnected;" +
+        "      row.push(text === '' ? 'N/A' : text);" +
+        "    }" +
+        "    if (idx >= 0) agent.seen[idx] = true;" +
+        "    agent.queue.push(row);" +
+        "    agent.mounted++;" +
+        "    return true;" +
+        "  }" +
+        "  agent.flush = function () {" +
+        "    if (location.href !== agent.href) { agent.href = location.href; agent.seen = {}; agent.queue = []; }" +
+        "    var waiting = agent.pending; agent.pending = [];" +
+        "    waiting.forEach(function (card) { if (!serialize(card)) agent.pending.push(card); });" +
+        "  };" +
+        "  function start() {" +
+        "    collect(document.documentElement);" +
+        "    agent.flush();" +
+        "    new MutationObserver(function (mutations) {" +
+        "      mutations.forEach(function (m) {" +
+        "        if (m.type === 'childList') Array.prototype.forEach.call(m.addedNodes, collect);" +
+        "        else if (m.target.parentElement) collect(m.target.parentElement);" +
+        "      });" +
+        "      if (agent.pending.length) agent.flush();" +
+        "    }).observe(document.documentElement, { childList: true, subtree: true, characterData: true });" +
+        "  }" +
+        "  if (document.documentElement) start(); else document.addEventListener('readystatechange', start, { once: true });" +
+        "})();";
+
+    /*
+     * Drains the agent queue
+     * returns: null when the agent is not installed, otherwise the same rows as BATCH_EXTRACT_SCRIPT
+     */
+    private static final String CARD_AGENT_DRAIN_SCRIPT =
+        "var agent = window.__hbCardAgent;" +
+        "if (!agent) return null;" +
+        "agent.flush();" +
+        "var out = agent.queue; agent.queue = [];" +
+        "return out;";
+
+    /*
+     * Measures the rendered cards and scrolls so the card with the target data-index sits near the top
+     * of the viewport, estimating its position from the measured card pitch when it is not rendered.
+     * arguments: [0] card xpath, [1] alternate card css, [2] target data-index (-1 = bottom of the page)
+     * returns:   [min rendered index, max rendered index, card pitch in px, at bottom after scrolling]
+     */
+    private static final String SCROLL_TO_INDEX_SCRIPT =
+        "var snap = document.evaluate(arguments[0], document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+        "var cards = [];" +
+        "for (var i = 0; i < snap.snapshotLength; i++) cards.push(snap.snapshotItem(i));" +
+        "if (cards.length === 0) cards = Array.prototype.slice.call(document.querySelectorAll(arguments[1]));" +
+        "var min = -1, max = -1, minTop = 0, maxTop = 0, heights = 0, n = 0;" +
+        "cards.forEach(function (card) {" +
+        "  var attr = card.getAttribute('data-index');" +
+        "  if (attr === null) return;" +
+        "  var idx = parseInt(attr, 10), rect = card.getBoundingClientRect(), top = rect.top + window.scrollY;" +
+        "  if (min < 0 || idx < min) { min = idx; minTop = top; }" +
+        "  if (idx > max) { max = idx; maxTop = top; }" +
+        "  heights += rect.height; n++;" +
+        "});" +
+        "var pitch = max > min ? (maxTop - minTop) / (max - min) : (n ? heights / n : 0);" +
+        "var t = arguments[2], y;" +
+        "if (t < 0 || n === 0 || pitch <= 0) y = document.body.scrollHeight;" +
+        "else y = Math.max(0, minTop + (t - min) * pitch - pitch);" +
+        "window.scrollTo(0, y);" +
+        "var atBottom = window.innerHeight + window.scrollY >= document.body.scrollHeight - 2;" +
+        "return [min, max, pitch, atBottom];";
+
+    /*
+     * arguments: [0] card xpath, [1] alternate card css
+     * returns:   the parent of the first rendered card, or null
+     */
+    private static final String RESULTS_CONTAINER_SCRIPT =
+        "var card = document.evaluate(arguments[0], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue" +
+        "  || document.querySelector(arguments[1]);" +
+        "return card ? card.parentElement : null;";
+
+    private final By productCardsPrimary = By.xpath(CARD_XPATH);
+    private final By productCardsAlternate = By.cssSelector(CARD_ALT_CSS);
+    private final By titleRel = By.xpath(TITLE_XPATH);
+    private final By descriptionRel = By.xpath(DESCRIPTION_XPATH);
+    private final By priceRel = By.xpath(PRICE_XPATH);
+    private final By conditionRel = By.xpath(CONDITION_XPATH);
+    private final By dateRel = By.xpath(DATE_XPATH);
+    private final By sellerRel = By.xpath(SELLER_XPATH);
+    private final By visiblePrices = By.xpath("//span[contains(@class,'text-sm') and contains(@class,'font-semibold')]");
     private final By loadingSpinner = By.xpath("//div[contains(@class,'loading') or contains(@class,'spinner')]");
 
+    // Batch mode reads all cards in one script call; per-card mode is the original findElement walk
+    private boolean batchExtraction = true;
+
+    // Agent mode drains only the cards rendered since the last poll; falls back to batch mode when unavailable
+    private boolean cardAgent = true;
+
+    // Page-source mode parses one getPageSource() snapshot per scroll step in the JVM (CardSnapshotParser)
+    private boolean pageSourceExtraction;
+
+    private double lastCompleteness = 1.0;
+
+    /**
+     * How visible cards are read on each scroll step; AGENT and BATCH fall back to the next cheaper reader on script errors
+     */
+    enum CardReader { PER_CARD, BATCH, AGENT, PAGE_SOURCE }
+
     public SearchResultsPage(WebDriver driver) {
         super(driver);
         log.info("SearchResultsPage initialized");
@@ -38,22 +232,11 @@ public class SearchResultsPage extends BasePage {
     public void openSortDropdown() {
         log.info("Clicking sort dropdown button");
         try {
-            waitForPageToLoad();
-            WebElement sortButton;
-            try {
-                sortButton = waitForElementToBeClickable(driver.findElement(sortDropdownButton));
-                log.info("Found sort button using aria-label");
-            } catch (Exception e1) {
-                try {
-                    sortButton = waitForElementToBeClickable(driver.findElement(sortDropdownByRecent));
-                    log.info("Found sort button using Recent text");
-                } catch (Exception e2) {
-                    sortButton = waitForElementToBeClickable(driver.findElement(sortDropdownByClass));
-                    log.info("Found sort button using class");
-                }
-            }
-            scrollToElementAndHighlight(sortButton);
-            try { click(sortButton); } catch (Exception e) { clickUsingJS(sortButton); }
+            waitForHydration();
+            LocatorChain.Match match = resolveMatch(sortDropdown, STEP_BUDGET);
+            WebElement sortButton = waitForElementToBeClickable(match.getElement());
+            log.info("Found sort button using {}", match.getAlternative().getLabel());
+            scrollAndClick(sortButton);
             log.info("Sort dropdown opened");
         } catch (Exception e) {
             log.error("Failed to open sort dropdown: {}", e.getMessage(), e);
@@ -65,15 +248,11 @@ public class SearchResultsPage extends BasePage {
         log.info("Clicking Low to High option");
         try {
             waitForPageToLoad();
-            WebElement btn;
-            try {
-                btn = waitForElementToBeClickable(driver.findElement(sortLowToHighButton));
-            } catch (Exception e1) {
-                btn = waitForElementToBeClickable(driver.findElement(sortLowToHighByClass));
+            WebElement btn = waitForElementToBeClickable(resolve(sortLowToHigh, STEP_BUDGET));
+            // The sorted list replaces the cards: done once it has re-rendered and the requests behind it finished
+            if (!clickAndWaitForMutation(btn, resultsContainer(driver))) {
+                waitForPageToLoad();
             }
-            scrollToElementAndHighlight(btn);
-            try { click(btn); } catch (Exception e) { clickUsingJS(btn); }
-            waitForPageToLoad();
             log.info("Sorted by Low to High");
         } catch (Exception e) {
             log.error("Failed to sort: {}", e.getMessage(), e);
@@ -95,72 +274,15 @@ public class SearchResultsPage extends BasePage {
         
 
         try {
-            // Step 1: Find all price elements and store in originalPrices
-            List<WebElement> priceElements = driver.findElements(
-                By.xpath("//span[contains(@class,'text-sm') and contains(@class,'font-semibold')]")
-            );
-
-            log.info("Step 1: Found {} price elements on page", priceElements.size());
-
-            if (priceElements.isEmpty()) {
-                log.warn("No price elements found");
-                return false;
-            }
-
-            List<Double> originalPrices = new ArrayList<>();
-
-            for (WebElement el : priceElements) {
-                try {
-                    String raw = safeText(el).replaceAll("[^0-9.]", "").trim();
-                    if (!raw.isEmpty()) {
-                        originalPrices.add(Double.parseDouble(raw));
-                    }
-                } catch (Exception e) {
-                    log.debug("Could not parse price: {}", e.getMessage());
-                }
-            }
-
-            log.info("Step 1 Complete: Extracted {} valid prices", originalPrices.size());
-
-            if (originalPrices.isEmpty()) {
-                log.warn("No numeric prices found");
-                return false;
-            }
-
-            // Step 2: Copy to sortedPrices
-            List<Double> sortedPrices = new ArrayList<>(originalPrices);
-            log.info("Step 2 Complete: Copied {} prices to sortedPrices", sortedPrices.size());
-
-            // Step 3: Sort ascending
-            Collections.sort(sortedPrices);
-            log.info("Step 3 Complete: Sorted copy in ascending order");
-
-            // Step 4: Compare original vs sorted
-            log.info("Step 4: Comparing originalPrices vs sortedPrices");
-            log.info("{} | {} | {}", padRight("Index", 8), padRight("Original", 15), padRight("Expected(Sorted)", 18));
-            log.info("{}", "-".repeat(45));
-
-            boolean isSorted = true;
-            for (int i = 0; i < originalPrices.size(); i++) {
-                boolean match = originalPrices.get(i).equals(sortedPrices.get(i));
-                if (!match) isSorted = false;
-                log.info("{} | {} | {} {}",
-                    padRight(String.valueOf(i + 1), 8),
-                    padRight("Rs " + originalPrices.get(i), 15),
-                    padRight("Rs " + sortedPrices.get(i), 18),
-                    match ? "MATCH" : "MISMATCH"
-                );
-            }
+            SortVerifier verifier = verifyOrder(SortOrder.LOW_TO_HIGH, visiblePrices);
 
-            
-            if (isSorted) {
+            if (verifier.isSorted()) {
                 log.info(" VERIFICATION PASSED - Prices ARE sorted Low to High");
             } else {
                 log.warn("VERIFICATION FAILED - Prices NOT sorted Low to High");
             }
-            
 
-            return isSorted;
+            return verifier.isSorted();
 
         } catch (Exception e) {
             log.error("Error during price verification: {}", e.getMessage(), e);
@@ -168,14 +290,41 @@ public class SearchResultsPage extends BasePage {
         }
     }
 
-    private String padRight(String s, int n) {
-        return String.format("%-" + n + "s", s);
+    private static String jsString(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String jsStrings(List<String> values) {
+        StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(jsString(value));
+        }
+        return sb.toString();
     }
 
+    /**
+     * Network and DOM quiet, on page events. The spinner wait is only the fallback for pages the probe cannot run in
+     */
     private void waitForPageToLoad() {
+        if (waitForSettled()) {
+            return;
+        }
         try { waitForElementToDisappear(loadingSpinner); } catch (Exception ignored) {}
     }
 
+    /**
+     * The element holding the rendered cards (the virtual list), or null before any card has rendered
+     */
+    static WebElement resultsContainer(WebDriver driver) {
+        try {
+            Object container = ((JavascriptExecutor) driver).executeScript(RESULTS_CONTAINER_SCRIPT, CARD_XPATH, CARD_ALT_CSS);
+            return container instanceof WebElement ? (WebElement) container : null;
+        } catch (JavascriptException e) {
+            return null;
+        }
+    }
+
     public List<WebElement> getProductCards() {
         try {
             waitForPageToLoad();
@@ -221,97 +370,290 @@ public class SearchResultsPage extends BasePage {
     }
 
     
+    public void setBatchExtraction(boolean batchExtraction) {
+        this.batchExtraction = batchExtraction;
+        log.info("Batch card extraction {}", batchExtraction ? "enabled" : "disabled");
+    }
+
+    public void setCardAgent(boolean cardAgent) {
+        this.cardAgent = cardAgent;
+        log.info("In-page card agent {}", cardAgent ? "enabled" : "disabled");
+    }
+
+    public void setPageSourceExtraction(boolean pageSourceExtraction) {
+        this.pageSourceExtraction = pageSourceExtraction;
+        log.info("Page-source snapshot extraction {}", pageSourceExtraction ? "enabled" : "disabled");
+    }
+
+    
+    /**
+     * Register the card agent to run on every new document of this browser, so cards are captured from
+     * the first render. Call before navigating to the results page. Browsers without CDP get the agent
+     * injected into the current page when extraction starts instead
+     */
+    public static void installCardAgent(WebDriver driver) {
+        if (!CdpOverrides.isSupported(driver)) {
+            return;
+        }
+        try {
+            if (CdpOverrides.addScriptOnNewDocument(driver, "card-agent", CARD_AGENT_SCRIPT)) {
+                log.info("Card agent registered for new documents");
+            }
+        } catch (Exception e) {
+            log.warn("Could not register card agent over CDP: {}", e.getMessage());
+        }
+    }
+
     public List<Map<String, String>> extractWithVirtualScroll(int maxCount) {
-        log.info("Starting virtual scroll extraction for {} products", maxCount);
+        // The sink already delivers in list order; collecting by arrival keeps cards without a data-index too
+        List<Map<String, String>> products = new ArrayList<>();
+        extractWithVirtualScroll(maxCount, (index, product) -> products.add(product));
+        return products;
+    }
+
+    
+    /**
+     * Stream products to the sink in data-index order, keyed by data-index (cards without one by -1, -2, ...)
+     * Only the seen indexes and the cards waiting behind a missing index are kept, so memory does not
+     * grow with the product data
+     */
+    private int extractWithVirtualScroll(int maxCount, BiConsumer<Integer, Map<String, String>> sink) {
+        return extractWithVirtualScroll(configuredReader(), maxCount, sink);
+    }
+
+    int extractWithVirtualScroll(CardReader reader, int maxCount, BiConsumer<Integer, Map<String, String>> sink) {
+        // Tall viewport only while extracting: the virtual list mounts hundreds of cards per scroll step
+        try (ExtractionViewport viewport = ExtractionViewport.tall(driver)) {
+            return scrollAndExtract(reader, maxCount, sink, viewport.isActive());
+        }
+    }
+
+    /**
+     * The reader chosen with setPageSourceExtraction / setCardAgent / setBatchExtraction
+     */
+    private CardReader configuredReader() {
+        if (pageSourceExtraction) return CardReader.PAGE_SOURCE;
+        if (!batchExtraction)     return CardReader.PER_CARD;
+        return cardAgent ? CardReader.AGENT : CardReader.BATCH;
+    }
+
+    
+    private int scrollAndExtract(CardReader reader, int maxCount, BiConsumer<Integer, Map<String, String>> sink,
+                                 boolean tallViewport) {
+        boolean pageSource = reader == CardReader.PAGE_SOURCE;
+        boolean batch = reader != CardReader.PER_CARD && !pageSource;
+        boolean useAgent = reader == CardReader.AGENT && ensureCardAgent();
+        log.info("Starting virtual scroll extraction for {} products ({} mode)", maxCount,
+            pageSource ? "page-source" : useAgent ? "agent" : batch ? "batch" : "per-card");
 
-        // Use a Map keyed by data-index to avoid duplicates
-        Map<Integer, Map<String, String>> extractedByIndex = new HashMap<>();
+        ExtractionState state = new ExtractionState(maxCount, sink);
+        VirtualScrollController controller = state.controller;
 
         int noNewCount = 0;
         int scrollAttempt = 0;
-        int maxAttempts = 30;
+        // Every scroll moves about one viewport (a dozen cards in a normal window), allow slack for revisiting holes
+        int maxAttempts = Math.max(30, maxCount / 4);
 
-        while (extractedByIndex.size() < maxCount && scrollAttempt < maxAttempts) {
+        while (!state.isFull() && scrollAttempt < maxAttempts) {
 
-            // Get all currently visible cards
-            List<WebElement> visibleCards = driver.findElements(productCardsPrimary);
-            if (visibleCards.isEmpty()) {
-                visibleCards = driver.findElements(productCardsAlternate);
-            }
-
-            int beforeCount = extractedByIndex.size();
-            log.info("Scroll {}: {} visible cards, {} extracted so far",
-                scrollAttempt + 1, visibleCards.size(), beforeCount);
+            int beforeCount = state.count;
 
-            // Extract from each visible card
-            for (WebElement card : visibleCards) {
+            boolean extracted = false;
+            if (pageSource) {
+                extractVisibleCardsFromSource(state);
+                extracted = true;
+            }
+            if (!extracted && useAgent) {
                 try {
-                    // Get data-index to track unique products
-                    String indexAttr = card.getAttribute("data-index");
-                    int dataIndex = (indexAttr != null) ? Integer.parseInt(indexAttr) : -1;
-
-                    // Skip if already extracted this index
-                    if (dataIndex >= 0 && extractedByIndex.containsKey(dataIndex)) {
-                        continue;
-                    }
-
-                    // Extract data
-                    Map<String, String> product = extractProductData(card);
-                    String title = product.getOrDefault("Title", "N/A");
-
-                    if (!product.isEmpty() && !"N/A".equalsIgnoreCase(title)) {
-                        int key = (dataIndex >= 0) ? dataIndex : extractedByIndex.size();
-                        extractedByIndex.put(key, product);
-                        log.info("Extracted [{}/{}] index={}: {}",
-                            extractedByIndex.size(), maxCount, dataIndex, title);
-                    }
-
-                } catch (StaleElementReferenceException e) {
-                    log.debug("Stale element during extraction, skipping");
-                } catch (Exception e) {
-                    log.warn("Error extracting card: {}", e.getMessage());
+                    extracted = drainCardAgent(state);
+                } catch (JavascriptException e) {
+                    log.warn("Card agent drain failed, falling back to batch: {}", e.getMessage());
                 }
+                if (!extracted) {
+                    useAgent = false;
+                }
+            }
+            if (!extracted && batch) {
+                try {
+                    extractVisibleCardsBatch(state);
+                    extracted = true;
+                } catch (JavascriptException e) {
+                    log.warn("Batch extraction script failed, falling back to per-card: {}", e.getMessage());
+                    batch = false;
+                }
+            }
+            if (!extracted) {
+                extractVisibleCardsPerCard(state);
+            }
+
+            int newCards = state.count - beforeCount;
+            log.info("Scroll {}: {} extracted so far", scrollAttempt + 1, state.count);
 
-                // Stop if we have enough
-                if (extractedByIndex.size() >= maxCount) break;
+            // Stop once 0..N-1 are all captured (or the list ended)
+            if (state.isFull()) {
+                log.info("Reached target of {} products!", maxCount);
+                break;
             }
 
-            // Check if we got new products this scroll
-            int afterCount = extractedByIndex.size();
-            if (afterCount == beforeCount) {
-                noNewCount++;
-                log.info("No new products this scroll ({}/3 attempts)", noNewCount);
+            // Aim the next scroll at the lowest missing data-index
+            int aim = controller.nextMissing();
+            VirtualScrollController.Geometry geometry = scrollTowards(aim);
+            controller.afterScroll(aim, newCards, geometry);
+            // A hole given up or the end of the list found frees the cards held behind it
+            state.release();
+            log.debug("Aimed at data-index {}: {}", aim, geometry);
+
+            // Cards without a data-index cannot be tracked, keep the old "3 empty scrolls" rule for them
+            if (geometry.maxIndex < 0) {
+                noNewCount = newCards == 0 ? noNewCount + 1 : 0;
                 if (noNewCount >= 3) {
                     log.info("No more new products after 3 attempts, stopping");
                     break;
                 }
-            } else {
-                noNewCount = 0;
             }
 
-            // Stop if we have enough
-            if (extractedByIndex.size() >= maxCount) {
-                log.info("Reached target of {} products!", maxCount);
-                break;
-            }
-
-            // Scroll down to load more
-            scrollToBottom();
             waitForPageToLoad();
             scrollAttempt++;
         }
 
-        // Sort by index and return as list
-        List<Map<String, String>> result = new ArrayList<>();
-        List<Integer> sortedKeys = new ArrayList<>(extractedByIndex.keySet());
-        Collections.sort(sortedKeys);
-        for (Integer key : sortedKeys) {
-            result.add(extractedByIndex.get(key));
+        state.flush();
+        lastCompleteness = controller.completeness();
+        log.info("Virtual scroll complete: extracted {} products in {} scrolls ({} viewport), {}",
+            state.delivered, scrollAttempt, tallViewport ? "tall" : "normal", controller.summary());
+        return state.delivered;
+    }
+
+    
+    /**
+     * Share of data-index 0..N-1 captured by the last extraction (1.0 = no holes).
+     * N is the requested count, or the list length when the list is shorter
+     */
+    public double getLastCompleteness() {
+        return lastCompleteness;
+    }
+
+    /**
+     * Share of the expected products that were read: the expected count is maxCount, or the result count
+     * the site reported when that is smaller (reportedTotal -1 = not reported)
+     */
+    public static double completeness(int read, int reportedTotal, int maxCount) {
+        int expected = reportedTotal < 0 ? maxCount : Math.min(maxCount, reportedTotal);
+        return expected <= 0 ? (read > 0 ? 1.0 : 0.0) : Math.min(1.0, (double) read / expected);
+    }
+
+    
+    private VirtualScrollController.Geometry scrollTowards(int dataIndex) {
+        try {
+            return VirtualScrollController.Geometry.from(((JavascriptExecutor) driver)
+                .executeScript(SCROLL_TO_INDEX_SCRIPT, CARD_XPATH, CARD_ALT_CSS, dataIndex));
+        } catch (JavascriptException e) {
+            log.warn("Scroll script failed, scrolling to bottom: {}", e.getMessage());
+            scrollToBottom();
+            return VirtualScrollController.Geometry.UNKNOWN;
+        }
+    }
+
+    
+    private void extractVisibleCardsBatch(ExtractionState state) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Object raw = js.executeScript(BATCH_EXTRACT_SCRIPT,
+            CARD_XPATH, CARD_ALT_CSS, FIELD_XPATHS, state.controller.capturedIndexes());
+
+        if (!(raw instanceof List)) {
+            log.warn("Batch extraction returned no rows");
+            return;
+        }
+
+        List<?> rows = (List<?>) raw;
+        log.info("Batch extraction read {} new cards in one call", rows.size());
+        acceptRows(state, rows);
+    }
+
+    
+    /**
+     * One getPageSource() call per scroll step; the cards are parsed and read in the JVM
+     */
+    private void extractVisibleCardsFromSource(ExtractionState state) {
+        List<List<Object>> rows = CardSnapshotParser.parseRows(driver.getPageSource(), state.controller.capturedIndexes());
+        log.info("Page-source snapshot held {} new cards", rows.size());
+        acceptRows(state, rows);
+    }
+
+    
+    /**
+     * Make sure the card agent runs in the current document (it is idempotent) and report whether it is there
+     */
+    private boolean ensureCardAgent() {
+        try {
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            js.executeScript(CARD_AGENT_SCRIPT);
+            return Boolean.TRUE.equals(js.executeScript("return !!window.__hbCardAgent;"));
+        } catch (JavascriptException e) {
+            log.warn("Card agent could not be injected: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    
+    /**
+     * Take the cards the agent serialized since the last drain. Returns false if the agent is gone
+     */
+    private boolean drainCardAgent(ExtractionState state) {
+        Object raw = ((JavascriptExecutor) driver).executeScript(CARD_AGENT_DRAIN_SCRIPT);
+        if (!(raw instanceof List)) {
+            log.warn("Card agent not present in this document");
+            return false;
+        }
+
+        List<?> rows = (List<?>) raw;
+        log.info("Card agent delivered {} new cards", rows.size());
+        acceptRows(state, rows);
+        return true;
+    }
+
+    
+    private void acceptRows(ExtractionState state, List<?> rows) {
+        for (Object rowObj : rows) {
+            List<?> row = (List<?>) rowObj;
+            int dataIndex = ((Number) row.get(0)).intValue();
+            state.accept(dataIndex, CardSnapshotParser.toProduct(row));
+            if (state.isFull()) break;
+        }
+    }
+
+    
+    private void extractVisibleCardsPerCard(ExtractionState state) {
+        // Get all currently visible cards
+        List<WebElement> visibleCards = driver.findElements(productCardsPrimary);
+        if (visibleCards.isEmpty()) {
+            visibleCards = driver.findElements(productCardsAlternate);
         }
+        log.info("{} visible cards", visibleCards.size());
+
+        // Extract from each visible card
+        for (WebElement card : visibleCards) {
+            try {
+                // Get data-index to track unique products
+                String indexAttr = card.getAttribute("data-index");
+                int dataIndex = (indexAttr != null) ? Integer.parseInt(indexAttr) : -1;
+
+                // Skip if already extracted this index
+                if (state.controller.isCaptured(dataIndex)) {
+                    continue;
+                }
+
+                // Extract data
+                state.accept(dataIndex, extractProductData(card));
+
+            } catch (StaleElementReferenceException e) {
+                log.debug("Stale element during extraction, skipping");
+            } catch (Exception e) {
+                log.warn("Error extracting card: {}", e.getMessage());
+            }
 
-        log.info("Virtual scroll complete: extracted {} products in {} scrolls",
-            result.size(), scrollAttempt);
-        return result;
+            // Stop if we have enough
+            if (state.isFull()) break;
+        }
     }
 
     public Map<String, String> extractProductData(WebElement card) {
@@ -333,14 +675,108 @@ public class SearchResultsPage extends BasePage {
         return data;
     }
 
+    /**
+     * Read products from the search API responses captured while the page scrolls, instead of the cards.
+     * Start the capture before navigating. Falls back to DOM extraction when no response is captured
+     */
+    public int extractFromNetwork(NetworkCapture capture, int maxCount, Consumer<Map<String, String>> consumer) {
+        int total = drainNetwork(capture, maxCount, consumer);
+        if (total == 0) {
+            log.warn("No search responses captured, falling back to DOM extraction");
+            return extractMultipleProducts(maxCount, consumer);
+        }
+        return total;
+    }
+
+    /**
+     * Network extraction without the DOM fallback, for ExtractionStrategy
+     */
+    int drainNetwork(NetworkCapture capture, int maxCount, Consumer<Map<String, String>> consumer) {
+        log.info("Extracting up to {} products from captured network responses", maxCount);
+
+        int total = 0;
+        int noNewCount = 0;
+        int scrollAttempt = 0;
+        int maxAttempts = Math.max(30, maxCount / 4);
+
+        while (total < maxCount && scrollAttempt < maxAttempts) {
+            int delivered = capture.drain(consumer, maxCount - total);
+            total += delivered;
+            log.info("Scroll {}: {} products from {} responses", scrollAttempt + 1, total, capture.getResponseCount());
+
+            if (total >= maxCount) {
+                break;
+            }
+            noNewCount = delivered == 0 ? noNewCount + 1 : 0;
+            if (noNewCount >= 3) {
+                log.info("No new responses after 3 scrolls, stopping");
+                break;
+            }
+
+            // Scrolling to the end makes the page request its next results page
+            scrollTowards(-1);
+            waitForPageToLoad();
+            scrollAttempt++;
+        }
+
+        lastCompleteness = completeness(total, capture.getReportedTotal(), maxCount);
+        log.info("Network extraction complete: {} products from {} responses ({} reported), completeness {}%", total,
+            capture.getResponseCount(), capture.getReportedTotal(), String.format("%.1f", lastCompleteness * 100));
+        return total;
+    }
+
+    /**
+     * Read the first results page from the state embedded in the document, with one script call and no card DOM.
+     * Meant for first-page scenarios: when the state holds fewer than maxCount products (or none, or it is stale
+     * after client-side navigation) everything is extracted from the DOM instead, so nothing is delivered twice
+     */
+    public int extractFromHydrationState(int maxCount, Consumer<Map<String, String>> consumer) {
+        List<Map<String, String>> products = HydrationState.read(driver, new ProductJsonMapper());
+        if (products.size() < maxCount) {
+            log.info("Hydration state has {} of {} products, extracting from the DOM", products.size(), maxCount);
+            return extractMultipleProducts(maxCount, consumer);
+        }
+
+        for (Map<String, String> product : products.subList(0, maxCount)) {
+            consumer.accept(product);
+        }
+        lastCompleteness = completeness(maxCount, -1, maxCount);
+        log.info("Hydration extraction complete: {} products", maxCount);
+        return maxCount;
+    }
+
     public List<Map<String, String>> extractMultipleProducts(int maxCount) {
         log.info("Extracting up to {} products using virtual scroll", maxCount);
         // Use virtual scroll extraction to handle HamroBazaar's lazy loading
         return extractWithVirtualScroll(maxCount);
     }
 
+    /**
+     * Columnar variant for large extractions: rows are appended to a ProductTable as they stream in,
+     * so no per-product map is kept. Rows are in data-index order, like extractWithVirtualScroll(maxCount)
+     */
+    public ProductTable extractProductTable(int maxCount) {
+        ProductTable table = new ProductTable(maxCount);
+        extractMultipleProducts(maxCount, table);
+        return table;
+    }
+
+    
+    /**
+     * Streaming variant: each product goes to the consumer as soon as it is extracted
+     * Returns the number of products delivered
+     */
+    public int extractMultipleProducts(int maxCount, Consumer<Map<String, String>> consumer) {
+        log.info("Streaming up to {} products using virtual scroll", maxCount);
+        return extractWithVirtualScroll(maxCount, (index, product) -> consumer.accept(product));
+    }
+
     private String safeFind(WebElement parent, By locator) {
-        try { return safeText(parent.findElement(locator)); }
+        // findOptional does not wait, so a card without this field costs one round trip instead of a timeout
+        try {
+            WebElement el = findOptional(parent, locator);
+            return el == null ? "N/A" : safeText(el);
+        }
         catch (Exception e) { return "N/A"; }
     }
 
@@ -349,6 +785,95 @@ public class SearchResultsPage extends BasePage {
         catch (Exception e) { return "N/A"; }
     }
 
+    /**
+     * Tracks which data-indexes were captured during one extraction run and hands products to the sink
+     * in data-index order: a card is held until every lower index has been delivered or given up as a hole,
+     * so revisiting a hole never puts a later card ahead of an earlier one. Only the cards waiting behind
+     * a hole are held, never the whole result
+     */
+    static final class ExtractionState {
+
+        final VirtualScrollController controller;
+        private final int maxCount;
+        private final BiConsumer<Integer, Map<String, String>> sink;
+        private final TreeMap<Integer, Map<String, String>> held = new TreeMap<>();
+        private int count;
+        private int delivered;
+        private int nextIndex;
+        private int unindexed;
+
+        ExtractionState(int maxCount, BiConsumer<Integer, Map<String, String>> sink) {
+            this.controller = new VirtualScrollController(maxCount);
+            this.maxCount = maxCount;
+            this.sink = sink;
+        }
+
+        void accept(int dataIndex, Map<String, String> product) {
+            String title = product.getOrDefault("Title", "N/A");
+            if (product.isEmpty() || "N/A".equalsIgnoreCase(title)) {
+                return;
+            }
+            if (isFull()) {
+                return;
+            }
+            // Indexed cards count only once and only inside 0..N-1
+            if (dataIndex >= 0 && !controller.capture(dataIndex)) {
+                return;
+            }
+            count++;
+            log.info("Extracted [{}/{}] index={}: {}", count, maxCount, dataIndex, title);
+            if (dataIndex < 0) {
+                // Cards without a data-index cannot be ordered: delivered on arrival under negative keys,
+                // which never collide with a data-index
+                deliver(-(++unindexed), product);
+                return;
+            }
+            held.put(dataIndex, product);
+            release();
+        }
+
+        /**
+         * Deliver held cards whose lower indexes are all delivered or given up (call after the controller
+         * abandons a hole or finds the end of the list)
+         */
+        void release() {
+            while (!held.isEmpty()) {
+                Map<String, String> product = held.remove(nextIndex);
+                if (product != null) {
+                    deliver(nextIndex, product);
+                } else if (!controller.isGivenUp(nextIndex)) {
+                    return;
+                }
+                nextIndex++;
+            }
+        }
+
+        /**
+         * End of the run: whatever is still held goes out in index order, behind the holes left open
+         */
+        void flush() {
+            if (!held.isEmpty()) {
+                log.info("Delivering {} cards held behind missing data-index {}", held.size(), controller.missingRanges());
+            }
+            while (!held.isEmpty()) {
+                Map.Entry<Integer, Map<String, String>> first = held.pollFirstEntry();
+                deliver(first.getKey(), first.getValue());
+            }
+        }
+
+        private void deliver(int key, Map<String, String> product) {
+            delivered++;
+            sink.accept(key, product);
+        }
+
+        /**
+         * Done when N products arrived or the controller has nothing left to look for
+         */
+        boolean isFull() {
+            return count >= maxCount || (controller.capturedCount() > 0 && controller.isComplete());
+        }
+    }
+
     public int getProductCount() {
         try { return getProductCards().size(); } catch (Exception e) { return 0; }
     }
@@ -0,0 +1,188 @@
+package com.hamrobazaar.pages;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * VirtualScrollController - Decides where to scroll next in the virtualized results list
+ * Tracks captured data-index values in a BitSet and aims every scroll at the lowest missing index,
+ * so cards that were virtualized away between scrolls are revisited instead of silently lost.
+ * Complete once 0..N-1 are all captured, or once the end of the list is reached
+ */
+final class VirtualScrollController {
+
+    private static final Logger log = LogManager.getLogger(VirtualScrollController.class);
+
+    // Scrolls aimed at the same missing index without capturing it before giving up on it
+    private static final int MAX_TRIES_PER_GAP = 3;
+
+    private final int target;
+    private final BitSet captured = new BitSet();
+    private final BitSet abandoned = new BitSet();
+
+    private int listEnd = -1;
+    private int lastAim = -1;
+    private int triesAtAim;
+
+    VirtualScrollController(int target) {
+        this.target = target;
+    }
+
+    /**
+     * Record a captured card. Returns false for duplicates and for indexes outside 0..N-1
+     */
+    boolean capture(int dataIndex) {
+        if (dataIndex < 0 || dataIndex >= target || captured.get(dataIndex)) {
+            return false;
+        }
+        captured.set(dataIndex);
+        return true;
+    }
+
+    boolean isCaptured(int dataIndex) {
+        return dataIndex >= 0 && captured.get(dataIndex);
+    }
+
+    /**
+     * True once the index will not be captured any more: given up as a hole, or past the end of the list
+     */
+    boolean isGivenUp(int dataIndex) {
+        return abandoned.get(dataIndex) || dataIndex >= expectedCount();
+    }
+
+    /**
+     * Captured indexes, for scripts that skip cards already read
+     */
+    List<Integer> capturedIndexes() {
+        List<Integer> indexes = new ArrayList<>(captured.cardinality());
+        for (int i = captured.nextSetBit(0); i >= 0; i = captured.nextSetBit(i + 1)) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    /**
+     * Lowest index still to capture, or -1 when there is nothing left to aim at
+     */
+    int nextMissing() {
+        int limit = expectedCount();
+        for (int i = captured.nextClearBit(0); i < limit; i = captured.nextClearBit(i + 1)) {
+            if (!abandoned.get(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    boolean isComplete() {
+        return nextMissing() < 0;
+    }
+
+    /**
+     * Update after a scroll aimed at {@code aim}: repeated aims that capture nothing first reveal
+     * the end of the list (when the page is at the bottom), otherwise the index is given up as a hole
+     */
+    void afterScroll(int aim, int newCards, Geometry geometry) {
+        if (aim < 0) {
+            return;
+        }
+        if (aim != lastAim || newCards > 0) {
+            lastAim = aim;
+            triesAtAim = 0;
+            return;
+        }
+        if (++triesAtAim < MAX_TRIES_PER_GAP) {
+            return;
+        }
+
+        triesAtAim = 0;
+        if (geometry.atBottom && aim > geometry.maxIndex) {
+            listEnd = geometry.maxIndex + 1;
+            log.info("Reached the end of the list at {} cards", listEnd);
+        } else {
+            abandoned.set(aim);
+            log.warn("Card data-index={} not captured after {} scrolls, leaving a hole", aim, MAX_TRIES_PER_GAP);
+        }
+    }
+
+    /**
+     * Cards that should exist: N, or fewer when the list ended first
+     */
+    int expectedCount() {
+        return listEnd >= 0 ? Math.min(target, listEnd) : target;
+    }
+
+    int capturedCount() {
+        return captured.cardinality();
+    }
+
+    /**
+     * Share of 0..N-1 captured (1.0 = no holes)
+     */
+    double completeness() {
+        int expected = expectedCount();
+        return expected == 0 ? 1.0 : (double) captured.get(0, expected).cardinality() / expected;
+    }
+
+    /**
+     * Missing index ranges, e.g. "11, 23-25"
+     */
+    String missingRanges() {
+        StringBuilder sb = new StringBuilder();
+        int expected = expectedCount();
+        int start = captured.nextClearBit(0);
+        while (start < expected) {
+            int end = Math.min(captured.nextSetBit(start) < 0 ? expected : captured.nextSetBit(start), expected);
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(start);
+            if (end - 1 > start) sb.append('-').append(end - 1);
+            start = captured.nextClearBit(end);
+        }
+        return sb.toString();
+    }
+
+    String summary() {
+        String missing = missingRanges();
+        return String.format("completeness %d/%d (%.1f%%)%s", captured.get(0, expectedCount()).cardinality(),
+            expectedCount(), completeness() * 100, missing.isEmpty() ? "" : ", missing: " + missing);
+    }
+
+
+    /**
+     * What the scroll script measured: rendered index range, card pitch in px, and whether the page is at the bottom
+     */
+    static final class Geometry {
+
+        static final Geometry UNKNOWN = new Geometry(-1, -1, 0, false);
+
+        final int minIndex;
+        final int maxIndex;
+        final double cardHeight;
+        final boolean atBottom;
+
+        Geometry(int minIndex, int maxIndex, double cardHeight, boolean atBottom) {
+            this.minIndex = minIndex;
+            this.maxIndex = maxIndex;
+            this.cardHeight = cardHeight;
+            this.atBottom = atBottom;
+        }
+
+        static Geometry from(Object raw) {
+            if (!(raw instanceof List) || ((List<?>) raw).size() < 4) {
+                return UNKNOWN;
+            }
+            List<?> values = (List<?>) raw;
+            return new Geometry(((Number) values.get(0)).intValue(), ((Number) values.get(1)).intValue(),
+                ((Number) values.get(2)).doubleValue(), Boolean.TRUE.equals(values.get(3)));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rendered %d-%d, card %.0fpx%s", minIndex, maxIndex, cardHeight, atBottom ? ", at bottom" : "");
+        }
+    }
+}
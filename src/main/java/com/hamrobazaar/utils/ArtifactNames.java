@@ -0,0 +1,37 @@
+package com.hamrobazaar.utils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ArtifactNames - Collision-free file names for reports, screenshots and CSV output
+ * Combines the scenario name, a millisecond timestamp and a JVM-wide sequence number,
+ * so concurrent scenarios never write to the same file
+ */
+public final class ArtifactNames {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS");
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private ArtifactNames() {
+    }
+
+    /**
+     * e.g. unique("test-output/", "Car_Results", ".csv") -> test-output/Car_Results_2026-02-18_14-04-33-120_3.csv
+     */
+    public static String unique(String directory, String scenario, String extension) {
+        return directory + sanitize(scenario) + "_" + LocalDateTime.now().format(TIMESTAMP)
+            + "_" + SEQUENCE.incrementAndGet() + extension;
+    }
+
+    /**
+     * Replace characters that are not safe in file names (data provider names may contain spaces or commas)
+     */
+    public static String sanitize(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return "Scenario";
+        }
+        return name.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+}
@@ -0,0 +1,65 @@
+package com.hamrobazaar.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BoundedInterner - Shares one String instance per distinct value, for fields that repeat across listings
+ * Seller names and conditions repeat hundreds of times in a crawl; interning keeps one copy of each.
+ * Unlike String.intern the dictionary has a size limit: once full, the least recently used value is dropped,
+ * so a crawl with many one-off values cannot grow it without bound. Thread-safe
+ */
+public final class BoundedInterner {
+
+    private final int capacity;
+    private final Map<String, String> values;
+    private long hits;
+    private long misses;
+
+    public BoundedInterner(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("BoundedInterner capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        // Access order, so eviction drops the least recently used value
+        this.values = new LinkedHashMap<String, String>(Math.min(capacity, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > BoundedInterner.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * The shared instance equal to value (value itself the first time), null stays null
+     */
+    public synchronized String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = values.get(value);
+        if (shared != null) {
+            hits++;
+            return shared;
+        }
+        misses++;
+        values.put(value, value);
+        return value;
+    }
+
+    public synchronized int size() {
+        return values.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Share of intern calls answered with an existing instance
+     */
+    public synchronized double hitRate() {
+        long calls = hits + misses;
+        return calls == 0 ? 0.0 : (double) hits / calls;
+    }
+}
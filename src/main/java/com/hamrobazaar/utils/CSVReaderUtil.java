@@ -2,6 +2,7 @@ package com.hamrobazaar.utils;
 
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -25,7 +26,8 @@ public class CSVReaderUtil {
     public static List<Map<String, String>> readCSV(String filePath) {
         List<Map<String, String>> data = new ArrayList<>();
         
-        try (CSVReader reader = new CSVReader(new FileReader(filePath))) {
+        // Always UTF-8: Devanagari values and the BOM must not depend on the platform charset
+        try (CSVReader reader = new CSVReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
             
             List<String[]> allRows = reader.readAll();
             
@@ -34,8 +36,11 @@ public class CSVReaderUtil {
                 return data;
             }
             
-            // First row contains headers
+            // First row contains headers (strip the UTF-8 BOM Excel writes before the first one)
             String[] headers = allRows.get(0);
+            if (headers.length > 0 && headers[0].startsWith("\uFEFF")) {
+                headers[0] = headers[0].substring(1);
+            }
             log.info("CSV Headers: {}", String.join(", ", headers));
             
             // Process each data row (skip header row)
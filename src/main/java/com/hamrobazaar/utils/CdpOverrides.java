@@ -0,0 +1,95 @@
+package com.hamrobazaar.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * CdpOverrides - DevTools state a page object leaves on a browser for the rest of its session
+ * Scripts registered with Page.addScriptToEvaluateOnNewDocument and emulated media features survive
+ * navigation, so they are applied through here and DriverPool undoes them before the next lease.
+ * Each script is registered once per browser under a key (the readiness probe, the card agent, ...)
+ */
+public final class CdpOverrides {
+
+    private static final Logger log = LogManager.getLogger(CdpOverrides.class);
+
+    // Per browser: script key -> CDP identifier (weak, so pooled drivers can be collected)
+    private static final Map<WebDriver, Map<String, String>> SCRIPTS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private CdpOverrides() {
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasCdp;
+    }
+
+    /**
+     * Run the source on every new document of this browser. Returns false when the key is already
+     * registered (nothing was sent); throws when the browser has no CDP or rejects the command
+     */
+    public static boolean addScriptOnNewDocument(WebDriver driver, String key, String source) {
+        synchronized (SCRIPTS) {
+            Map<String, String> scripts = SCRIPTS.computeIfAbsent(driver, d -> new LinkedHashMap<>());
+            if (scripts.containsKey(key)) {
+                return false;
+            }
+            Map<String, Object> params = new HashMap<>();
+            params.put("source", source);
+            Map<String, Object> result = cdp(driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+            scripts.put(key, String.valueOf(result.get("identifier")));
+            return true;
+        }
+    }
+
+    /**
+     * Report a media feature (prefers-reduced-motion, ...) to every page of this browser
+     */
+    public static void emulateMediaFeature(WebDriver driver, String name, String value) {
+        Map<String, Object> feature = new HashMap<>();
+        feature.put("name", name);
+        feature.put("value", value);
+        Map<String, Object> media = new HashMap<>();
+        media.put("features", Collections.singletonList(feature));
+        cdp(driver).executeCdpCommand("Emulation.setEmulatedMedia", media);
+    }
+
+    /**
+     * Remove every registered script and clear emulated media and device metrics, so the next user of a
+     * pooled browser starts without them. Does nothing on browsers without CDP; throws when a command fails
+     */
+    public static void reset(WebDriver driver) {
+        Map<String, String> scripts = SCRIPTS.remove(driver);
+        if (!isSupported(driver)) {
+            return;
+        }
+        HasCdp cdp = cdp(driver);
+        if (scripts != null) {
+            for (String identifier : scripts.values()) {
+                cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument",
+                    Collections.singletonMap("identifier", identifier));
+            }
+        }
+        Map<String, Object> media = new HashMap<>();
+        media.put("media", "");
+        media.put("features", List.of());
+        cdp.executeCdpCommand("Emulation.setEmulatedMedia", media);
+        cdp.executeCdpCommand("Emulation.clearDeviceMetricsOverride", new HashMap<>());
+        log.debug("Cleared {} new-document scripts and emulation overrides", scripts == null ? 0 : scripts.size());
+    }
+
+    private static HasCdp cdp(WebDriver driver) {
+        if (!isSupported(driver)) {
+            throw new UnsupportedOperationException("Browser has no DevTools protocol: " + driver.getClass().getSimpleName());
+        }
+        return (HasCdp) driver;
+    }
+}
@@ -4,6 +4,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 
+import java.time.Duration;
+import java.util.function.Supplier;
+
 public class DriverManager {
     
     private static final Logger log = LogManager.getLogger(DriverManager.class);
@@ -11,12 +14,80 @@ public class DriverManager {
     
     private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
     
+    // Pool settings, override with -Ddriver.pool.size=N -Ddriver.pool.maxUses=N -Ddriver.pool.leaseTimeoutSeconds=N
+    // Without driver.pool.size the pool is sized to the suite's thread count
+    private static final int POOL_MAX_USES = Integer.getInteger("driver.pool.maxUses", 10);
+    private static final int LEASE_TIMEOUT = Integer.getInteger("driver.pool.leaseTimeoutSeconds", 120);
+    
+    private static DriverPool pool;
+    
+    
+    /**
+     * Create the pool and start launching browsers in the background. Later calls are no-ops
+     */
+    public static synchronized void startPool(Supplier<WebDriver> factory, int defaultSize) {
+        if (pool == null) {
+            pool = new DriverPool(factory, Integer.getInteger("driver.pool.size", defaultSize), POOL_MAX_USES);
+            pool.prewarm();
+        }
+    }
+    
+    
+    /**
+     * Lease a browser from the pool and bind it to the current thread
+     */
+    public static WebDriver leaseDriver() {
+        DriverPool current;
+        synchronized (DriverManager.class) {
+            current = pool;
+        }
+        if (current == null) {
+            throw new IllegalStateException("Driver pool not started, call startPool first");
+        }
+        WebDriver leased = current.lease(Duration.ofSeconds(LEASE_TIMEOUT));
+        setDriver(leased);
+        return leased;
+    }
+    
+    
+    /**
+     * Give the current thread's browser back to the pool. A failed test's browser is recycled
+     */
+    public static void releaseDriver(boolean failed) {
+        WebDriver current = driver.get();
+        if (current == null) {
+            return;
+        }
+        try {
+            DriverPool owner;
+            synchronized (DriverManager.class) {
+                owner = pool;
+            }
+            if (owner != null) {
+                owner.release(current, failed);
+            } else {
+                current.quit();
+            }
+            log.info("WebDriver released for thread: {}", Thread.currentThread().getId());
+        } catch (Exception e) {
+            log.error("Error while releasing WebDriver: {}", e.getMessage(), e);
+        } finally {
+            driver.remove();
+        }
+    }
+    
+    
+    public static synchronized void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+    
    
     public static WebDriver getDriver() {
         WebDriver currentDriver = driver.get();
-        System.out.println("DriverManager.getDriver() called - Thread: " + Thread.currentThread().getId());
-        System.out.println("Driver in ThreadLocal: " + currentDriver);
-        log.info("DriverManager.getDriver() - Thread: {}, Driver: {}", Thread.currentThread().getId(), currentDriver);
+        log.debug("DriverManager.getDriver() - Thread: {}, Driver: {}", Thread.currentThread().getId(), currentDriver);
         return currentDriver;
     }
     
@@ -0,0 +1,274 @@
+package com.hamrobazaar.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * DriverPool - Pre-launched browsers leased to tests and reset between leases
+ * Browsers are started on a background thread so startup overlaps with CSV loading and report setup.
+ * A browser is recycled after maxUses leases, after a failed test, or when its reset fails
+ */
+public class DriverPool {
+
+    private static final Logger log = LogManager.getLogger(DriverPool.class);
+
+    private final Supplier<WebDriver> factory;
+    private final int size;
+    private final int maxUses;
+
+    private final BlockingQueue<PooledDriver> idle = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, PooledDriver> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger live = new AtomicInteger();
+    private final ExecutorService launcher;
+
+    private volatile boolean shutdown;
+    private volatile Throwable lastLaunchFailure;
+
+    private static final long LAUNCH_CHECK_MS = 250;
+
+    // How long shutdown waits for launches already in a browser constructor, which shutdownNow cannot stop
+    private static final long LAUNCH_DRAIN_SECONDS = 30;
+
+    public DriverPool(Supplier<WebDriver> factory, int size, int maxUses) {
+        this.factory = factory;
+        this.size = Math.max(1, size);
+        this.maxUses = Math.max(1, maxUses);
+        this.launcher = Executors.newFixedThreadPool(this.size, runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("DriverPool created: size={}, maxUses={}", this.size, this.maxUses);
+    }
+
+    /**
+     * Start launching browsers up to the pool size without blocking the caller
+     */
+    public void prewarm() {
+        while (reserveSlot()) {
+            launchAsync();
+        }
+    }
+
+    /**
+     * Take an idle browser, waiting up to the timeout for one to finish launching
+     */
+    public WebDriver lease(Duration timeout) {
+        if (shutdown) {
+            throw new IllegalStateException("DriverPool is shut down");
+        }
+
+        PooledDriver pooled = idle.poll();
+        if (pooled == null) {
+            // Nothing idle: make sure a launch is in flight if the pool has room
+            if (reserveSlot()) {
+                launchAsync();
+            }
+            pooled = awaitIdle(timeout);
+        }
+
+        if (pooled == null) {
+            throw new IllegalStateException("No browser available within " + timeout.getSeconds() + "s");
+        }
+
+        pooled.uses++;
+        leased.put(pooled.driver, pooled);
+        log.info("Leased browser (use {}/{}) to thread {}", pooled.uses, maxUses, Thread.currentThread().getId());
+        return pooled.driver;
+    }
+
+    /**
+     * Return a browser to the pool. Failed or worn-out browsers are quit and replaced
+     */
+    public void release(WebDriver driver, boolean failed) {
+        PooledDriver pooled = leased.remove(driver);
+        if (pooled == null) {
+            log.warn("Released a browser that was not leased from this pool, quitting it");
+            quietQuit(driver);
+            return;
+        }
+
+        if (shutdown || failed || pooled.uses >= maxUses) {
+            log.info("Recycling browser after {} uses (failed={})", pooled.uses, failed);
+            retire(pooled);
+            return;
+        }
+
+        try {
+            reset(driver);
+            idle.offer(pooled);
+            log.info("Browser reset and returned to pool");
+        } catch (Exception e) {
+            log.warn("Browser reset failed, recycling it: {}", e.getMessage());
+            retire(pooled);
+        }
+    }
+
+    /**
+     * Wait for a launch to land in the idle queue. Fails fast if every launch has failed
+     * instead of sitting out the whole timeout
+     */
+    private PooledDriver awaitIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (System.nanoTime() < deadline) {
+                PooledDriver pooled = idle.poll(LAUNCH_CHECK_MS, TimeUnit.MILLISECONDS);
+                if (pooled != null) {
+                    return pooled;
+                }
+                Throwable failure = lastLaunchFailure;
+                if (failure != null && live.get() == 0) {
+                    throw new IllegalStateException("Browser launch failed: " + failure.getMessage(), failure);
+                }
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser", e);
+        }
+    }
+
+    /**
+     * Quit every browser. Launches already under way are waited for first, so none of them lands in the
+     * idle queue after it was drained; one that still finishes later quits its own browser
+     */
+    public void shutdown() {
+        shutdown = true;
+        launcher.shutdownNow();
+        try {
+            if (!launcher.awaitTermination(LAUNCH_DRAIN_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Browser launches still running after {}s, they will quit their browsers", LAUNCH_DRAIN_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PooledDriver> drivers = new ArrayList<>();
+        idle.drainTo(drivers);
+        drivers.addAll(leased.values());
+        leased.clear();
+
+        for (PooledDriver pooled : drivers) {
+            quietQuit(pooled.driver);
+        }
+        log.info("DriverPool shut down, quit {} browsers", drivers.size());
+    }
+
+    /**
+     * Bring a browser back to a clean state: one tab, no cookies, empty web storage, blank page,
+     * and no new-document scripts or emulation overrides left by the previous lease (see CdpOverrides)
+     */
+    private void reset(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        for (int i = 1; i < handles.size(); i++) {
+            driver.switchTo().window(handles.get(i));
+            driver.close();
+        }
+        driver.switchTo().window(handles.get(0));
+
+        ((JavascriptExecutor) driver).executeScript(
+            "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+        driver.manage().deleteAllCookies();
+        CdpOverrides.reset(driver);
+        driver.get("about:blank");
+    }
+
+    private void retire(PooledDriver pooled) {
+        live.decrementAndGet();
+        quietQuit(pooled.driver);
+        if (!shutdown && reserveSlot()) {
+            launchAsync();
+        }
+    }
+
+    /**
+     * Claim room for one more browser, so concurrent callers never launch more than the pool size
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int current = live.get();
+            if (current >= size) {
+                return false;
+            }
+            if (live.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void launchAsync() {
+        try {
+            launcher.execute(() -> {
+                long start = System.currentTimeMillis();
+                boolean launched = false;
+                try {
+                    WebDriver driver = factory.get();
+                    lastLaunchFailure = null;
+                    if (shutdown) {
+                        // The pool shut down while the browser started: nobody will drain it any more
+                        log.info("Browser launched after shutdown, quitting it");
+                        quietQuit(driver);
+                        return;
+                    }
+                    PooledDriver pooled = new PooledDriver(driver);
+                    idle.offer(pooled);
+                    if (shutdown && idle.remove(pooled)) {
+                        // Shut down between the check and the offer, after the drain
+                        quietQuit(driver);
+                        return;
+                    }
+                    launched = true;
+                    log.info("Browser launched in {}ms ({} live)", System.currentTimeMillis() - start, live.get());
+                } catch (RuntimeException | Error e) {
+                    lastLaunchFailure = e;
+                    log.error("Failed to launch browser: {}", e.getMessage(), e);
+                    if (e instanceof Error) {
+                        throw (Error) e;
+                    }
+                } finally {
+                    // Any failure, Errors included, gives the slot back
+                    if (!launched) {
+                        live.decrementAndGet();
+                    }
+                }
+            });
+        } catch (Exception e) {
+            live.decrementAndGet();
+            log.warn("Could not schedule browser launch: {}", e.getMessage());
+        }
+    }
+
+    private void quietQuit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            log.debug("Error while quitting browser: {}", e.getMessage());
+        }
+    }
+
+
+    private static final class PooledDriver {
+
+        private final WebDriver driver;
+        private int uses;
+
+        private PooledDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -4,8 +4,6 @@ import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import java.io.File;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
 
 public class ExtentManager {
@@ -14,7 +12,8 @@ public class ExtentManager {
     private static String reportPath;
     
     
-    public static ExtentReports getInstance() {
+    // Synchronized so concurrent test threads can never create two reports
+    public static synchronized ExtentReports getInstance() {
         if (extent == null) {
             createInstance();
         }
@@ -30,8 +29,7 @@ public class ExtentManager {
         }
         
         // Generate report file name with timestamp
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
-        reportPath = "reports/HamroBazaar_Report_" + timestamp + ".html";
+        reportPath = ArtifactNames.unique("reports/", "HamroBazaar_Report", ".html");
         
         // Create ExtentSparkReporter (HTML reporter)
         ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
@@ -60,12 +58,12 @@ public class ExtentManager {
     }
     
     
-    public static String getReportPath() {
+    public static synchronized String getReportPath() {
         return reportPath;
     }
     
     
-    public static void flushReport() {
+    public static synchronized void flushReport() {
         System.out.println("Flushing ExtentReport");
         if (extent != null) {
             extent.flush();
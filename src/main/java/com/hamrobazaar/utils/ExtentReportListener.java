@@ -58,9 +58,12 @@ public class ExtentReportListener implements ITestListener {
     
     @Override
     public void onTestStart(ITestResult result) {
-        // Create a new test in the report
-        ExtentTest test = extent.createTest(result.getMethod().getMethodName(),
-                result.getMethod().getDescription());
+        // Creating a test mutates the shared report, so it is the only step done under the lock.
+        // Logging afterwards goes to this thread's own ExtentTest and needs no locking
+        ExtentTest test;
+        synchronized (extent) {
+            test = extent.createTest(reportName(result), result.getMethod().getDescription());
+        }
         extentTest.set(test);
         
         // Log test start
@@ -140,6 +143,19 @@ public class ExtentReportListener implements ITestListener {
     }
     
     
+    /**
+     * Data-driven invocations share a method name, so the first parameter (e.g. the scenario row) is appended
+     */
+    private String reportName(ITestResult result) {
+        String name = result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        if (parameters != null && parameters.length > 0 && parameters[0] != null) {
+            name += " - " + parameters[0];
+        }
+        return name;
+    }
+    
+    
     public static ExtentTest getTest() {
         return extentTest.get();
     }
@@ -0,0 +1,133 @@
+package com.hamrobazaar.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ExtractionDiff - Compares the products two extraction strategies read from the same page
+ * Products are matched by identity (title, price in paisa and seller, whitespace and case folded) so
+ * "Rs. 65,00,000" from a card and 6500000 from the API are the same product. Matched products are then
+ * compared field by field. Used to prove a faster backend returns the same data before switching to it
+ */
+public final class ExtractionDiff {
+
+    private static final Logger log = LogManager.getLogger(ExtractionDiff.class);
+
+    // Fields compared on matched products (Title and Seller_Name are part of the identity)
+    private static final String[] COMPARED_FIELDS = {"Description", "Condition", "Ad_Posted_Date"};
+
+    private final String leftName;
+    private final String rightName;
+    private final int leftCount;
+    private final int rightCount;
+    private final List<Map<String, String>> onlyLeft = new ArrayList<>();
+    private final List<Map<String, String>> onlyRight = new ArrayList<>();
+    private final List<String> mismatches = new ArrayList<>();
+    private int matched;
+
+    private ExtractionDiff(String leftName, List<Map<String, String>> left, String rightName, List<Map<String, String>> right) {
+        this.leftName = leftName;
+        this.rightName = rightName;
+        this.leftCount = left.size();
+        this.rightCount = right.size();
+    }
+
+    public static ExtractionDiff compare(String leftName, List<Map<String, String>> left,
+                                         String rightName, List<Map<String, String>> right) {
+        ExtractionDiff diff = new ExtractionDiff(leftName, left, rightName, right);
+
+        // Keyed lists, not a plain map: the same ad can legitimately be listed twice
+        Map<String, List<Map<String, String>>> rightByKey = new LinkedHashMap<>();
+        for (Map<String, String> product : right) {
+            rightByKey.computeIfAbsent(key(product), k -> new ArrayList<>()).add(product);
+        }
+
+        for (Map<String, String> product : left) {
+            List<Map<String, String>> candidates = rightByKey.get(key(product));
+            if (candidates == null || candidates.isEmpty()) {
+                diff.onlyLeft.add(product);
+                continue;
+            }
+            diff.matched++;
+            diff.compareFields(product, candidates.remove(0));
+        }
+        for (List<Map<String, String>> rest : rightByKey.values()) {
+            diff.onlyRight.addAll(rest);
+        }
+
+        log.info(diff.summary());
+        return diff;
+    }
+
+    /**
+     * Identity of a product across strategies: folded title | price in paisa | folded seller
+     */
+    public static String key(Map<String, String> product) {
+        long paisa = PriceParser.parsePaisa(product.get("Price"));
+        return fold(product.get("Title")) + "|" + (paisa == PriceParser.NO_PRICE ? "-" : String.valueOf(paisa))
+            + "|" + fold(product.get("Seller_Name"));
+    }
+
+    private void compareFields(Map<String, String> left, Map<String, String> right) {
+        for (String field : COMPARED_FIELDS) {
+            String a = fold(left.get(field));
+            String b = fold(right.get(field));
+            if (!a.equals(b)) {
+                mismatches.add(String.format("'%s' %s: %s='%s' %s='%s'",
+                    left.get("Title"), field, leftName, left.get(field), rightName, right.get(field)));
+            }
+        }
+    }
+
+    private static String fold(String value) {
+        if (value == null || "N/A".equals(value)) {
+            return "";
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Same products on both sides with no field differences
+     */
+    public boolean isEquivalent() {
+        return onlyLeft.isEmpty() && onlyRight.isEmpty() && mismatches.isEmpty();
+    }
+
+    public int getMatched() {
+        return matched;
+    }
+
+    public List<Map<String, String>> getOnlyLeft() {
+        return Collections.unmodifiableList(onlyLeft);
+    }
+
+    public List<Map<String, String>> getOnlyRight() {
+        return Collections.unmodifiableList(onlyRight);
+    }
+
+    /**
+     * One line per differing field of a matched product
+     */
+    public List<String> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    public String summary() {
+        return String.format("%s (%d) vs %s (%d): %s - matched=%d, only %s=%d, only %s=%d, field mismatches=%d%s",
+            leftName, leftCount, rightName, rightCount, isEquivalent() ? "EQUIVALENT" : "DIFFERENT", matched,
+            leftName, onlyLeft.size(), rightName, onlyRight.size(), mismatches.size(),
+            mismatches.isEmpty() ? "" : ", first: " + mismatches.get(0));
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -0,0 +1,188 @@
+package com.hamrobazaar.utils;
+
+/**
+ * PriceParser - Reads prices as written on HamroBazaar into a long amount of paisa (1 rupee = 100 paisa)
+ * Handles "Rs"/"Rs."/"NPR"/"रू" prefixes, lakh/crore comma grouping ("65,00,000"), Devanagari digits,
+ * an optional "lakh"/"crore" suffix, and up to two decimal places. Parsing walks the characters once
+ * and allocates nothing, so it is cheap enough to run on every card of a large crawl.
+ * Text without a number ("Price on call", "Negotiable", "N/A") returns NO_PRICE
+ */
+public final class PriceParser {
+
+    /** Returned when the text holds no price */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    public static final long PAISA_PER_RUPEE = 100L;
+
+    private static final long LAKH = 100_000L;
+    private static final long CRORE = 10_000_000L;
+
+    // Largest value that can still take another digit without overflowing
+    private static final long OVERFLOW_GUARD = (Long.MAX_VALUE - 9) / 10;
+
+    private PriceParser() {
+    }
+
+    /**
+     * e.g. "Rs 65,00,000" -> 650000000, "रू १,५००" -> 150000, "Rs. 1,499.50" -> 149950, "Price on call" -> NO_PRICE
+     */
+    public static long parsePaisa(CharSequence text) {
+        if (text == null) {
+            return NO_PRICE;
+        }
+
+        int length = text.length();
+        int i = 0;
+        long rupees = 0;
+        boolean digits = false;
+
+        // Skip the currency prefix and anything else before the first digit
+        while (i < length && digitValue(text.charAt(i)) < 0) {
+            i++;
+        }
+
+        // Integer part, ignoring grouping commas (lakh/crore or western grouping)
+        while (i < length) {
+            char c = text.charAt(i);
+            int d = digitValue(c);
+            if (d >= 0) {
+                if (rupees > OVERFLOW_GUARD) {
+                    return NO_PRICE;
+                }
+                rupees = rupees * 10 + d;
+                digits = true;
+            } else if (!(c == ',' && i + 1 < length && digitValue(text.charAt(i + 1)) >= 0)) {
+                break;
+            }
+            i++;
+        }
+
+        if (!digits) {
+            return NO_PRICE;
+        }
+
+        // Up to two decimal places, further digits are truncated
+        long fraction = 0;
+        if (i < length && text.charAt(i) == '.' && i + 1 < length && digitValue(text.charAt(i + 1)) >= 0) {
+            i++;
+            int places = 0;
+            while (i < length) {
+                int d = digitValue(text.charAt(i));
+                if (d < 0) {
+                    break;
+                }
+                if (places < 2) {
+                    fraction = fraction * 10 + d;
+                    places++;
+                }
+                i++;
+            }
+            if (places == 1) {
+                fraction *= 10;
+            }
+        }
+
+        long multiplier = unitMultiplier(text, i);
+        if (rupees > Long.MAX_VALUE / (multiplier * PAISA_PER_RUPEE)) {
+            return NO_PRICE;
+        }
+        return rupees * multiplier * PAISA_PER_RUPEE + fraction * multiplier;
+    }
+
+    /**
+     * Whole rupees, or NO_PRICE
+     */
+    public static long parseRupees(CharSequence text) {
+        long paisa = parsePaisa(text);
+        return paisa == NO_PRICE ? NO_PRICE : paisa / PAISA_PER_RUPEE;
+    }
+
+    public static boolean hasPrice(long paisa) {
+        return paisa != NO_PRICE;
+    }
+
+    /**
+     * Paisa back to the way the site writes it: 650000000 -> "Rs 65,00,000", 149950 -> "Rs 1,499.50"
+     */
+    public static String format(long paisa) {
+        return paisa == NO_PRICE ? "N/A" : "Rs " + formatAmount(paisa);
+    }
+
+    /**
+     * Same as format without the currency prefix, the way result cards show it: 650000000 -> "65,00,000"
+     */
+    public static String formatAmount(long paisa) {
+        if (paisa == NO_PRICE) {
+            return "N/A";
+        }
+
+        String rupees = Long.toString(Math.abs(paisa) / PAISA_PER_RUPEE);
+        StringBuilder sb = new StringBuilder();
+        if (paisa < 0) {
+            sb.append('-');
+        }
+
+        // Indian grouping: last three digits, then groups of two
+        int head = rupees.length() - 3;
+        if (head <= 0) {
+            sb.append(rupees);
+        } else {
+            int first = head % 2 == 0 ? 2 : 1;
+            sb.append(rupees, 0, first);
+            for (int i = first; i < head; i += 2) {
+                sb.append(',').append(rupees, i, i + 2);
+            }
+            sb.append(',').append(rupees, head, rupees.length());
+        }
+
+        long fraction = Math.abs(paisa) % PAISA_PER_RUPEE;
+        if (fraction != 0) {
+            sb.append('.').append(fraction < 10 ? "0" : "").append(fraction);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * ASCII 0-9 and Devanagari ० - ९, otherwise -1
+     */
+    private static int digitValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= '०' && c <= '९') {
+            return c - '०';
+        }
+        return -1;
+    }
+
+    /**
+     * "15 lakh", "1.5 crore", "2 Cr", "५ लाख" - only whole words right after the number count
+     */
+    private static long unitMultiplier(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\u00A0')) {
+            i++;
+        }
+        if (startsWithWord(text, i, "lakh") || startsWithWord(text, i, "lac") || startsWithWord(text, i, "लाख")) {
+            return LAKH;
+        }
+        if (startsWithWord(text, i, "crore") || startsWithWord(text, i, "cr") || startsWithWord(text, i, "करोड")) {
+            return CRORE;
+        }
+        return 1;
+    }
+
+    private static boolean startsWithWord(CharSequence text, int from, String word) {
+        int end = from + word.length();
+        if (end > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(text.charAt(from + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        // "cr" must not match the start of an unrelated word such as "credit"
+        return end == text.length() || !Character.isLetter(text.charAt(end));
+    }
+}
@@ -0,0 +1,95 @@
+package com.hamrobazaar.utils;
+
+import com.hamrobazaar.enums.ConditionType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ProductNormalizer - Normalization stage between extraction and output
+ * Adds Condition_Type (a ConditionType name) and Posted_After/Posted_Before (epoch millis bounds of
+ * Ad_Posted_Date, against the crawl time), and interns the repeating Condition, Seller_Name and
+ * Ad_Posted_Date strings through a BoundedInterner. The raw fields are kept as they were read.
+ * Product maps are updated in place, so this has to run before anything keeps them
+ */
+public final class ProductNormalizer implements Consumer<Map<String, String>> {
+
+    private static final Logger log = LogManager.getLogger(ProductNormalizer.class);
+
+    public static final String[] EXTRA_COLUMNS = {"Condition_Type", "Posted_After", "Posted_Before"};
+
+    // Distinct sellers, conditions and date texts kept; a crawl rarely sees more
+    private static final int DEFAULT_INTERNER_CAPACITY = 4096;
+
+    private final long crawlMillis;
+    private final BoundedInterner interner;
+    private int normalized;
+
+    private ProductNormalizer(long crawlMillis, BoundedInterner interner) {
+        this.crawlMillis = crawlMillis;
+        this.interner = interner;
+    }
+
+    /**
+     * Relative dates are resolved against now, taken once so every product of the crawl uses the same clock
+     */
+    public static ProductNormalizer forCrawl() {
+        return at(System.currentTimeMillis());
+    }
+
+    public static ProductNormalizer at(long crawlMillis) {
+        return new ProductNormalizer(crawlMillis, new BoundedInterner(DEFAULT_INTERNER_CAPACITY));
+    }
+
+    /**
+     * Normalize each product, then hand it on
+     */
+    public Consumer<Map<String, String>> into(Consumer<Map<String, String>> downstream) {
+        return product -> {
+            accept(product);
+            downstream.accept(product);
+        };
+    }
+
+    @Override
+    public void accept(Map<String, String> product) {
+        String condition = interner.intern(product.get("Condition"));
+        String date = interner.intern(product.get("Ad_Posted_Date"));
+        if (condition != null) {
+            product.put("Condition", condition);
+        }
+        if (date != null) {
+            product.put("Ad_Posted_Date", date);
+        }
+        String seller = product.get("Seller_Name");
+        if (seller != null) {
+            product.put("Seller_Name", interner.intern(seller));
+        }
+
+        product.put("Condition_Type", ConditionType.fromText(condition).name());
+
+        long after = RelativeDateParser.postedNotBefore(date, crawlMillis);
+        long before = RelativeDateParser.postedNotAfter(date, crawlMillis);
+        product.put("Posted_After", RelativeDateParser.hasAge(after) ? String.valueOf(after) : "N/A");
+        product.put("Posted_Before", RelativeDateParser.hasAge(before) ? String.valueOf(before) : "N/A");
+        normalized++;
+    }
+
+    public long getCrawlMillis() {
+        return crawlMillis;
+    }
+
+    public String summary() {
+        return String.format("Normalized %d products, %d distinct interned values (%.0f%% reused)",
+            normalized, interner.size(), interner.hitRate() * 100);
+    }
+
+    /**
+     * Logs the interner use once the crawl is done
+     */
+    public void logSummary() {
+        log.info(summary());
+    }
+}
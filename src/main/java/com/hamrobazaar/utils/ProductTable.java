@@ -0,0 +1,406 @@
+package com.hamrobazaar.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * ProductTable - Column store for extracted products, instead of one HashMap per listing
+ * Price is a primitive long column in paisa, Condition, Seller_Name and Ad_Posted_Date are dictionary
+ * encoded (an int code per row, each distinct text stored once), Title and Description are plain string
+ * columns, and "N/A" is stored as null. Extra columns (Ad_Id, ...) are added on first use.
+ * Existing callers get read-only Map row views; bulk scans (prices, counts) read the columns directly.
+ * Price text reads back as it was appended ("Rs. 1,499" stays "Rs. 1,499"): the text around the amount
+ * is a dictionary-encoded format, and only texts the format cannot rebuild are kept whole.
+ * Not thread-safe: fill it from one extraction, then read it
+ */
+public final class ProductTable implements Iterable<Map<String, String>>, Consumer<Map<String, String>> {
+
+    public static final String TITLE       = "Title";
+    public static final String DESCRIPTION = "Description";
+    public static final String PRICE       = "Price";
+    public static final String CONDITION   = "Condition";
+    public static final String POSTED_DATE = "Ad_Posted_Date";
+    public static final String SELLER      = "Seller_Name";
+
+    private static final String[] BASE_COLUMNS = {TITLE, DESCRIPTION, PRICE, CONDITION, POSTED_DATE, SELLER};
+    private static final String MISSING = "N/A";
+
+    // Stands for the formatted amount in a price format ("Rs. " + AMOUNT)
+    private static final String AMOUNT = "\u0000";
+
+    private int size;
+    private String[] titles;
+    private String[] descriptions;
+    private long[] prices;
+    private int[] priceFormatCodes;
+    private String[] rawPrices; // only allocated once a price text cannot be rebuilt ("Price on call")
+    private int[] conditionCodes;
+    private int[] sellerCodes;
+    private int[] dateCodes;
+
+    private final Dictionary priceFormats = new Dictionary();
+    private final Dictionary conditions = new Dictionary();
+    private final Dictionary sellers = new Dictionary();
+    private final Dictionary dates = new Dictionary();
+    private final Map<String, String[]> extras = new LinkedHashMap<>();
+
+    public ProductTable() {
+        this(64);
+    }
+
+    public ProductTable(int expectedRows) {
+        int capacity = Math.max(16, expectedRows);
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+        prices = new long[capacity];
+        priceFormatCodes = new int[capacity];
+        conditionCodes = new int[capacity];
+        sellerCodes = new int[capacity];
+        dateCodes = new int[capacity];
+    }
+
+    /**
+     * Append one product record (the map is not kept). Returns the row number
+     */
+    public int append(Map<String, String> product) {
+        ensureCapacity(size + 1);
+        int row = size;
+
+        titles[row] = stored(product.get(TITLE));
+        descriptions[row] = stored(product.get(DESCRIPTION));
+
+        String priceText = stored(product.get(PRICE));
+        long paisa = PriceParser.parsePaisa(priceText);
+        prices[row] = paisa;
+        String format = priceFormat(priceText, paisa);
+        priceFormatCodes[row] = priceFormats.code(format);
+        if (format == null && priceText != null) {
+            if (rawPrices == null) {
+                rawPrices = new String[titles.length];
+            }
+            rawPrices[row] = priceText;
+        }
+
+        conditionCodes[row] = conditions.code(stored(product.get(CONDITION)));
+        sellerCodes[row] = sellers.code(stored(product.get(SELLER)));
+        dateCodes[row] = dates.code(stored(product.get(POSTED_DATE)));
+
+        for (Map.Entry<String, String> entry : product.entrySet()) {
+            if (!isBaseColumn(entry.getKey())) {
+                String[] column = extras.computeIfAbsent(entry.getKey(), k -> new String[titles.length]);
+                column[row] = stored(entry.getValue());
+            }
+        }
+
+        size++;
+        return row;
+    }
+
+    /**
+     * Consumer form of append, so a table can be the extraction consumer
+     */
+    @Override
+    public void accept(Map<String, String> product) {
+        append(product);
+    }
+
+    public void appendAll(Iterable<? extends Map<String, String>> products) {
+        for (Map<String, String> product : products) {
+            append(product);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Base columns followed by the extra columns seen so far
+     */
+    public List<String> getColumns() {
+        List<String> columns = new ArrayList<>(Arrays.asList(BASE_COLUMNS));
+        columns.addAll(extras.keySet());
+        return columns;
+    }
+
+    public String getTitle(int row)       { return shown(titles[check(row)]); }
+    public String getDescription(int row) { return shown(descriptions[check(row)]); }
+    public String getCondition(int row)   { return shown(conditions.value(conditionCodes[check(row)])); }
+    public String getSeller(int row)      { return shown(sellers.value(sellerCodes[check(row)])); }
+    public String getPostedDate(int row)  { return shown(dates.value(dateCodes[check(row)])); }
+
+    /**
+     * Price in paisa, or PriceParser.NO_PRICE
+     */
+    public long getPricePaisa(int row) {
+        return prices[check(row)];
+    }
+
+    /**
+     * Price as CSV text, as it was appended, or "N/A"
+     */
+    public String getPriceText(int row) {
+        String format = priceFormats.value(priceFormatCodes[check(row)]);
+        if (format != null) {
+            return format.replace(AMOUNT, PriceParser.formatAmount(prices[row]));
+        }
+        return rawPrices == null ? MISSING : shown(rawPrices[row]);
+    }
+
+    /**
+     * Any column by name, as text. "N/A" for missing values and unknown columns
+     */
+    public String get(int row, String column) {
+        switch (column) {
+            case TITLE:       return getTitle(row);
+            case DESCRIPTION: return getDescription(row);
+            case PRICE:       return getPriceText(row);
+            case CONDITION:   return getCondition(row);
+            case POSTED_DATE: return getPostedDate(row);
+            case SELLER:      return getSeller(row);
+            default:
+                String[] extra = extras.get(column);
+                return extra == null ? MISSING : shown(extra[check(row)]);
+        }
+    }
+
+    /**
+     * Read-only Map view of one row, for callers written against product maps
+     */
+    public Map<String, String> row(int row) {
+        return new RowView(check(row));
+    }
+
+    @Override
+    public Iterator<Map<String, String>> iterator() {
+        return new Iterator<Map<String, String>>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public Map<String, String> next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return new RowView(next++);
+            }
+        };
+    }
+
+    /**
+     * Every price in row order, in paisa (NO_PRICE included), without boxing
+     */
+    public void forEachPrice(LongConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(prices[i]);
+        }
+    }
+
+    /**
+     * Count, min, max, sum and average of the known prices, in paisa
+     */
+    public LongSummaryStatistics priceStatistics() {
+        LongSummaryStatistics stats = new LongSummaryStatistics();
+        for (int i = 0; i < size; i++) {
+            if (prices[i] != PriceParser.NO_PRICE) {
+                stats.accept(prices[i]);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Rows per distinct value of a dictionary column (Condition, Seller_Name, Ad_Posted_Date),
+     * in first-seen order. Counted over the int codes, one map entry per distinct value
+     */
+    public Map<String, Integer> countBy(String column) {
+        Dictionary dictionary;
+        int[] codes;
+        switch (column) {
+            case CONDITION:   dictionary = conditions; codes = conditionCodes; break;
+            case SELLER:      dictionary = sellers;    codes = sellerCodes;    break;
+            case POSTED_DATE: dictionary = dates;      codes = dateCodes;      break;
+            default: throw new IllegalArgumentException("Not a dictionary column: '" + column + "'");
+        }
+
+        int[] counts = new int[dictionary.size()];
+        for (int i = 0; i < size; i++) {
+            counts[codes[i]]++;
+        }
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(shown(dictionary.value(code)), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= titles.length) {
+            return;
+        }
+        int capacity = Math.max(needed, titles.length + (titles.length >> 1));
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        priceFormatCodes = Arrays.copyOf(priceFormatCodes, capacity);
+        conditionCodes = Arrays.copyOf(conditionCodes, capacity);
+        sellerCodes = Arrays.copyOf(sellerCodes, capacity);
+        dateCodes = Arrays.copyOf(dateCodes, capacity);
+        if (rawPrices != null) {
+            rawPrices = Arrays.copyOf(rawPrices, capacity);
+        }
+        for (Map.Entry<String, String[]> extra : extras.entrySet()) {
+            extra.setValue(Arrays.copyOf(extra.getValue(), capacity));
+        }
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    /**
+     * The price text with its amount replaced by AMOUNT, or null when the amount cannot be rebuilt from the
+     * paisa column (no price, or digits grouped differently from PriceParser.formatAmount)
+     */
+    private static String priceFormat(String priceText, long paisa) {
+        if (priceText == null || paisa == PriceParser.NO_PRICE) {
+            return null;
+        }
+        String amount = PriceParser.formatAmount(paisa);
+        int at = priceText.indexOf(amount);
+        if (at < 0 || priceText.indexOf(amount, at + 1) >= 0 || priceText.contains(AMOUNT)) {
+            return null;
+        }
+        String format = priceText.substring(0, at) + AMOUNT + priceText.substring(at + amount.length());
+        return format.replace(AMOUNT, amount).equals(priceText) ? format : null;
+    }
+
+    private static boolean isBaseColumn(String column) {
+        for (String base : BASE_COLUMNS) {
+            if (base.equals(column)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stored(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() || MISSING.equals(trimmed) ? null : trimmed;
+    }
+
+    private static String shown(String value) {
+        return value == null ? MISSING : value;
+    }
+
+
+    /**
+     * Distinct values of a low-cardinality column; code 0 is reserved for missing
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>(Collections.singletonList(null));
+
+        int code(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+
+    /**
+     * Map view over one row; values are read from the columns on access
+     */
+    private final class RowView extends AbstractMap<String, String> {
+
+        private final int row;
+
+        private RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public String get(Object key) {
+            return key instanceof String && containsKey(key) ? ProductTable.this.get(row, (String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && (isBaseColumn((String) key) || extras.containsKey(key));
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            List<String> columns = getColumns();
+            return new AbstractSet<Entry<String, String>>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    Iterator<String> names = columns.iterator();
+                    return new Iterator<Entry<String, String>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            String name = names.next();
+                            return new SimpleImmutableEntry<>(name, ProductTable.this.get(row, name));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return columns.size();
+                }
+            };
+        }
+    }
+}
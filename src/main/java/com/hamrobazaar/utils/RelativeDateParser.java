@@ -0,0 +1,161 @@
+package com.hamrobazaar.utils;
+
+/**
+ * RelativeDateParser - Reads Ad_Posted_Date text ("7 months ago", "an hour ago", "yesterday") as an age range
+ * The site floors the age to one unit, so "7 months ago" means at least 7 and less than 8 months before the
+ * crawl. Months are 30 days and years 365 days, the same rounding ProductJsonMapper uses for API dates.
+ * Parsing walks the characters once and allocates nothing, like PriceParser, so it can run on every product.
+ * Text without an age ("N/A", "Featured") returns NO_AGE
+ */
+public final class RelativeDateParser {
+
+    /** Returned when the text holds no age */
+    public static final long NO_AGE = Long.MIN_VALUE;
+
+    private static final long SECOND = 1000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR   = 60 * MINUTE;
+    private static final long DAY    = 24 * HOUR;
+    private static final long WEEK   = 7 * DAY;
+    private static final long MONTH  = 30 * DAY;
+    private static final long YEAR   = 365 * DAY;
+
+    // Largest amount that can still take another digit without overflowing a year count in millis
+    private static final long MAX_AMOUNT = Long.MAX_VALUE / YEAR / 2;
+
+    private RelativeDateParser() {
+    }
+
+    /**
+     * Lower bound of the age in milliseconds, e.g. "7 months ago" -> 7 * 30 days, "just now" -> 0.
+     * Later ads have larger values, so a Recent list is sorted when this never decreases
+     */
+    public static long minAgeMillis(CharSequence text) {
+        long unit = unitMillis(text);
+        return unit == NO_AGE ? NO_AGE : amount(text) * unit;
+    }
+
+    /**
+     * Exclusive upper bound of the age in milliseconds, e.g. "7 months ago" -> 8 * 30 days
+     */
+    public static long maxAgeMillis(CharSequence text) {
+        long unit = unitMillis(text);
+        return unit == NO_AGE ? NO_AGE : (amount(text) + 1) * unit;
+    }
+
+    /**
+     * Earliest epoch millis the ad can have been posted, given when the page was read
+     */
+    public static long postedNotBefore(CharSequence text, long crawlMillis) {
+        long age = maxAgeMillis(text);
+        return age == NO_AGE ? NO_AGE : crawlMillis - age;
+    }
+
+    /**
+     * Latest epoch millis the ad can have been posted, given when the page was read
+     */
+    public static long postedNotAfter(CharSequence text, long crawlMillis) {
+        long age = minAgeMillis(text);
+        return age == NO_AGE ? NO_AGE : crawlMillis - age;
+    }
+
+    public static boolean hasAge(long millis) {
+        return millis != NO_AGE;
+    }
+
+    /**
+     * The number in front of the unit: digits (ASCII or Devanagari), "a"/"an"/"one" for 1, 0 for "just now"/"today"
+     */
+    private static long amount(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length && digitValue(text.charAt(i)) < 0) {
+            i++;
+        }
+        if (i == length) {
+            return wordAt(text, "yesterday") >= 0 ? 1 : (wordAt(text, "a") >= 0 || wordAt(text, "an") >= 0
+                || wordAt(text, "one") >= 0 ? 1 : 0);
+        }
+
+        long amount = 0;
+        while (i < length) {
+            int d = digitValue(text.charAt(i));
+            if (d < 0) {
+                break;
+            }
+            amount = Math.min(MAX_AMOUNT, amount * 10 + d);
+            i++;
+        }
+        return amount;
+    }
+
+    /**
+     * Milliseconds of the unit word, or NO_AGE when there is none
+     */
+    private static long unitMillis(CharSequence text) {
+        if (text == null) {
+            return NO_AGE;
+        }
+        if (wordAt(text, "now") >= 0) {
+            return MINUTE;
+        }
+        if (wordAt(text, "second") >= 0 || wordAt(text, "seconds") >= 0 || wordAt(text, "sec") >= 0 || wordAt(text, "secs") >= 0) {
+            return SECOND;
+        }
+        if (wordAt(text, "minute") >= 0 || wordAt(text, "minutes") >= 0 || wordAt(text, "min") >= 0 || wordAt(text, "mins") >= 0) {
+            return MINUTE;
+        }
+        if (wordAt(text, "hour") >= 0 || wordAt(text, "hours") >= 0 || wordAt(text, "hr") >= 0 || wordAt(text, "hrs") >= 0) {
+            return HOUR;
+        }
+        if (wordAt(text, "day") >= 0 || wordAt(text, "days") >= 0 || wordAt(text, "today") >= 0 || wordAt(text, "yesterday") >= 0) {
+            return DAY;
+        }
+        if (wordAt(text, "week") >= 0 || wordAt(text, "weeks") >= 0) {
+            return WEEK;
+        }
+        if (wordAt(text, "month") >= 0 || wordAt(text, "months") >= 0) {
+            return MONTH;
+        }
+        if (wordAt(text, "year") >= 0 || wordAt(text, "years") >= 0 || wordAt(text, "yr") >= 0 || wordAt(text, "yrs") >= 0) {
+            return YEAR;
+        }
+        return NO_AGE;
+    }
+
+    /**
+     * Index of word as a whole word (case-insensitive), or -1
+     */
+    private static int wordAt(CharSequence text, String word) {
+        int last = text.length() - word.length();
+        for (int from = 0; from <= last; from++) {
+            if ((from == 0 || !Character.isLetter(text.charAt(from - 1))) && matches(text, from, word)
+                && (from + word.length() == text.length() || !Character.isLetter(text.charAt(from + word.length())))) {
+                return from;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(CharSequence text, int from, String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(text.charAt(from + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ASCII 0-9 and Devanagari ० - ९, otherwise -1
+     */
+    private static int digitValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= '०' && c <= '९') {
+            return c - '०';
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,276 @@
+package com.hamrobazaar.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ResultSink - Streams extracted products to UTF-8 CSV as they arrive
+ * Writes through a buffered FileChannel, optionally gzipped, and rotates to a new part file
+ * once a size limit is reached. append is synchronized so many scenarios can share one sink
+ */
+public class ResultSink implements Closeable {
+
+    private static final Logger log = LogManager.getLogger(ResultSink.class);
+
+    public static final String[] COLUMNS = {"Title", "Description", "Price", "Condition", "Ad_Posted_Date", "Seller_Name"};
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path basePath;
+    private final boolean gzip;
+    private final boolean bom;
+    private final long rotateAtBytes;
+    private final String[] columns;
+    private final String header;
+
+    private final List<Path> files = new ArrayList<>();
+    private final StringBuilder line = new StringBuilder(512);
+
+    private OutputStream out;
+    private long bytesInPart;
+    private int rowsInPart;
+    private int part;
+    private int count;
+    private boolean closed;
+
+    private ResultSink(Builder builder) {
+        this.basePath = builder.basePath;
+        this.gzip = builder.gzip;
+        this.bom = builder.bom;
+        this.rotateAtBytes = builder.rotateAtBytes;
+        this.columns = builder.columns;
+        this.header = "SN," + String.join(",", builder.columns) + "\n";
+    }
+
+    public static Builder to(String filePath) {
+        return new Builder(Paths.get(filePath));
+    }
+
+    /**
+     * Write one product row. The SN column keeps counting across rotated parts
+     */
+    public synchronized void append(Map<String, String> product) {
+        ensureOpen();
+        line.setLength(0);
+        line.append(count + 1);
+        for (String column : columns) {
+            line.append(',');
+            appendEscaped(line, product.getOrDefault(column, "N/A"));
+        }
+        writeLine();
+    }
+
+    public void appendAll(Collection<Map<String, String>> products) {
+        for (Map<String, String> product : products) {
+            append(product);
+        }
+    }
+
+    /**
+     * Write every row of a ProductTable, reading the columns directly instead of through row maps
+     */
+    public synchronized void appendAll(ProductTable table) {
+        ensureOpen();
+        for (int row = 0; row < table.size(); row++) {
+            line.setLength(0);
+            line.append(count + 1);
+            for (String column : columns) {
+                line.append(',');
+                appendEscaped(line, table.get(row, column));
+            }
+            writeLine();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("ResultSink already closed: " + basePath);
+        }
+    }
+
+    private void writeLine() {
+        line.append('\n');
+        try {
+            byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+            // A part always takes at least one row, so a row longer than the limit cannot rotate forever
+            if (out == null || (rotateAtBytes > 0 && bytesInPart + bytes.length > rotateAtBytes && rowsInPart > 0)) {
+                openNextPart();
+            }
+            out.write(bytes);
+            bytesInPart += bytes.length;
+            rowsInPart++;
+            count++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write result to " + currentFile(), e);
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Files written so far, in order (more than one when the sink rotated)
+     */
+    public synchronized List<Path> getFiles() {
+        return Collections.unmodifiableList(new ArrayList<>(files));
+    }
+
+    public synchronized void flush() throws IOException {
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        // An empty result still produces a file with just the header
+        if (out == null) {
+            openNextPart();
+        }
+        out.close();
+        out = null;
+        log.info("ResultSink closed: {} products in {} file(s), first: {}", count, files.size(), files.get(0).toAbsolutePath());
+    }
+
+    private void openNextPart() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+
+        part++;
+        Path file = partPath(part);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        OutputStream channelStream = Channels.newOutputStream(channel);
+        out = gzip ? new GZIPOutputStream(channelStream, BUFFER_SIZE) : new BufferedOutputStream(channelStream, BUFFER_SIZE);
+        files.add(file);
+        rowsInPart = 0;
+
+        // BOM lets Excel detect UTF-8, otherwise Devanagari text shows as ????
+        byte[] headerBytes = header.getBytes(StandardCharsets.UTF_8);
+        if (bom) {
+            out.write(UTF8_BOM);
+        }
+        out.write(headerBytes);
+        // The limit covers the whole part file, header and BOM included
+        bytesInPart = headerBytes.length + (bom ? UTF8_BOM.length : 0);
+        log.info("ResultSink writing part {}: {}", part, file);
+    }
+
+    /**
+     * Car_Results.csv -> Car_Results.csv, Car_Results.part2.csv, ... (plus .gz when compressed)
+     */
+    private Path partPath(int partNumber) {
+        String name = basePath.getFileName().toString();
+        String stem = name.endsWith(".csv") ? name.substring(0, name.length() - 4) : name;
+        String fileName = stem + (partNumber == 1 ? "" : ".part" + partNumber) + ".csv" + (gzip ? ".gz" : "");
+        return basePath.resolveSibling(fileName);
+    }
+
+    private Path currentFile() {
+        return files.isEmpty() ? basePath : files.get(files.size() - 1);
+    }
+
+    private static void appendEscaped(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0;
+        if (quote) {
+            sb.append('"');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r') {
+                sb.append(' ');
+            } else if (c == '"') {
+                sb.append("\"\"");
+            } else {
+                sb.append(c);
+            }
+        }
+        if (quote) {
+            sb.append('"');
+        }
+    }
+
+
+    public static final class Builder {
+
+        private final Path basePath;
+        private boolean gzip;
+        private boolean bom = true;
+        private long rotateAtBytes;
+        private String[] columns = COLUMNS;
+
+        private Builder(Path basePath) {
+            this.basePath = basePath;
+        }
+
+        public Builder gzip(boolean gzip) {
+            this.gzip = gzip;
+            return this;
+        }
+
+        /**
+         * Write a UTF-8 byte order mark so spreadsheet tools pick the right charset (on by default)
+         */
+        public Builder byteOrderMark(boolean bom) {
+            this.bom = bom;
+            return this;
+        }
+
+        /**
+         * Start a new part file once the current one would exceed this many (uncompressed) bytes. 0 disables rotation
+         */
+        public Builder rotateAtBytes(long rotateAtBytes) {
+            this.rotateAtBytes = rotateAtBytes;
+            return this;
+        }
+
+        /**
+         * Columns written after the six card columns (e.g. the Ad_Id and coordinates network extraction adds)
+         */
+        public Builder extraColumns(String... extra) {
+            String[] all = Arrays.copyOf(COLUMNS, COLUMNS.length + extra.length);
+            System.arraycopy(extra, 0, all, COLUMNS.length, extra.length);
+            this.columns = all;
+            return this;
+        }
+
+        public ResultSink build() {
+            return new ResultSink(this);
+        }
+    }
+}
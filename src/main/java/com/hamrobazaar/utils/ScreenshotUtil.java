@@ -8,8 +8,6 @@ import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
 import java.io.File;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 
 
 public class ScreenshotUtil {
@@ -41,12 +39,8 @@ public class ScreenshotUtil {
                 System.out.println("Created screenshots directory: " + screenshotDir.getAbsolutePath());
             }
             
-            // Generate timestamp for unique filename
-            String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
-            
-            // Create filename
-            String fileName = testName + "_" + timestamp + ".png";
-            String filePath = SCREENSHOT_DIR + fileName;
+            // Millisecond timestamp plus sequence number, so parallel failures never share a file
+            String filePath = ArtifactNames.unique(SCREENSHOT_DIR, testName, ".png");
             
             log.info("Screenshot will be saved to: {}", filePath);
             System.out.println("Taking screenshot: " + filePath);
@@ -0,0 +1,237 @@
+package com.hamrobazaar.utils;
+
+import com.hamrobazaar.enums.SortOrder;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SearchQuery - Complete search state of one scenario (keyword, location, filters, sort)
+ * Built from a testdata.csv row and turned into the canonical results URL,
+ * so extraction-only runs can load the results page with a single driver.get
+ */
+public final class SearchQuery {
+
+    public static final String BASE_URL = "https://hamrobazaar.com";
+    private static final String SEARCH_PATH = "/search/product";
+
+    // Results URL parameter names, in the order they are written to the canonical URL
+    private static final String PARAM_KEYWORD    = "q";
+    private static final String PARAM_LATITUDE   = "lat";
+    private static final String PARAM_LONGITUDE  = "lng";
+    private static final String PARAM_RADIUS     = "radius";
+    private static final String PARAM_CONDITION  = "condition";
+    private static final String PARAM_PRICE_FROM = "priceFrom";
+    private static final String PARAM_PRICE_TO   = "priceTo";
+    private static final String PARAM_NEGOTIABLE = "negotiable";
+    private static final String PARAM_SORT       = "sortBy";
+
+    private final String testName;
+    private final String keyword;
+    private final String location;
+    private final String latitude;
+    private final String longitude;
+    private final String distance;
+    private final String condition;
+    private final String priceFrom;
+    private final String priceTo;
+    private final String negotiable;
+    private final SortOrder sortOrder;
+
+    private SearchQuery(Builder builder) {
+        this.testName   = builder.testName;
+        this.keyword    = builder.keyword;
+        this.location   = builder.location;
+        this.latitude   = builder.latitude;
+        this.longitude  = builder.longitude;
+        this.distance   = builder.distance;
+        this.condition  = builder.condition;
+        this.priceFrom  = builder.priceFrom;
+        this.priceTo    = builder.priceTo;
+        this.negotiable = builder.negotiable;
+        this.sortOrder  = builder.sortOrder;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Build a query from one row returned by CSVReaderUtil (column names as in testdata.csv)
+     */
+    public static SearchQuery fromTestData(Map<String, String> row) {
+        return builder()
+            .testName(row.get("Test name"))
+            .keyword(row.get("Search keyword"))
+            .location(row.get("Location and distance"))
+            .coordinates(row.get("Latitude"), row.get("Longitude"))
+            .distance(row.get("Distance from location"))
+            .condition(row.get("Quality"))
+            .priceRange(row.get("Pricing from"), row.get("Pricing to"))
+            .negotiable(row.get("Negotiable"))
+            .sortOrder(SortOrder.fromString(row.get("Sort Order")))
+            .build();
+    }
+
+    public String getTestName()   { return testName; }
+    public String getKeyword()    { return keyword; }
+    public String getLocation()   { return location; }
+    public String getLatitude()   { return latitude; }
+    public String getLongitude()  { return longitude; }
+    public String getDistance()   { return distance; }
+    public String getCondition()  { return condition; }
+    public String getPriceFrom()  { return priceFrom; }
+    public String getPriceTo()    { return priceTo; }
+    public String getNegotiable() { return negotiable; }
+    public SortOrder getSortOrder() { return sortOrder; }
+
+    /**
+     * The location filter is applied by coordinates in the URL, so a location without
+     * coordinates can only be set through the UI suggestion list
+     */
+    public boolean isUrlNavigable() {
+        return hasText(keyword) && (!hasText(location) || (hasText(latitude) && hasText(longitude)));
+    }
+
+    public String toUrl() {
+        return toUrl(BASE_URL);
+    }
+
+    /**
+     * Canonical results URL: fixed parameter order, empty filters left out, values UTF-8 encoded
+     */
+    public String toUrl(String baseUrl) {
+        StringBuilder url = new StringBuilder(baseUrl).append(SEARCH_PATH);
+        char separator = '?';
+        for (Map.Entry<String, String> param : toParams().entrySet()) {
+            url.append(separator).append(param.getKey()).append('=')
+               .append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return url.toString();
+    }
+
+    /**
+     * The search parameters in canonical order with empty filters left out, not encoded
+     */
+    public Map<String, String> toParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put(PARAM_KEYWORD, keyword);
+        if (hasText(location)) {
+            params.put(PARAM_LATITUDE, latitude);
+            params.put(PARAM_LONGITUDE, longitude);
+            params.put(PARAM_RADIUS, radiusKm(distance));
+        }
+        params.put(PARAM_CONDITION, condition);
+        params.put(PARAM_PRICE_FROM, priceFrom);
+        params.put(PARAM_PRICE_TO, priceTo);
+        if (hasText(negotiable) && !"Any".equalsIgnoreCase(negotiable)) {
+            params.put(PARAM_NEGOTIABLE, negotiable.toLowerCase());
+        }
+        params.put(PARAM_SORT, sortParam(sortOrder));
+        params.values().removeIf(value -> !hasText(value));
+        return params;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchQuery[" + (testName == null ? keyword : testName) + "]";
+    }
+
+    /**
+     * "10km" -> "10", "500m" -> "0.5", a bare number is kilometres. Anything else throws
+     */
+    static String radiusKm(String distance) {
+        if (!hasText(distance)) {
+            return null;
+        }
+        String value = distance.trim().toLowerCase();
+        try {
+            String km;
+            if (value.endsWith("km")) {
+                km = value.substring(0, value.length() - 2).trim();
+            } else if (value.endsWith("m")) {
+                double metres = Double.parseDouble(value.substring(0, value.length() - 1).trim());
+                km = String.valueOf(metres / 1000);
+            } else {
+                km = value;
+            }
+            Double.parseDouble(km);
+            return km;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unrecognised distance: '" + distance + "'", e);
+        }
+    }
+
+    private static String sortParam(SortOrder sortOrder) {
+        if (sortOrder == null) {
+            return null;
+        }
+        switch (sortOrder) {
+            case LOW_TO_HIGH: return "price-asc";
+            case HIGH_TO_LOW: return "price-desc";
+            case A_TO_Z:      return "title-asc";
+            default:          return null; // Recent is the site default
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    private static String clean(String value) {
+        return hasText(value) ? value.trim() : null;
+    }
+
+
+    public static final class Builder {
+
+        private String testName;
+        private String keyword;
+        private String location;
+        private String latitude;
+        private String longitude;
+        private String distance;
+        private String condition;
+        private String priceFrom;
+        private String priceTo;
+        private String negotiable;
+        private SortOrder sortOrder = SortOrder.RECENT;
+
+        private Builder() {
+        }
+
+        public Builder testName(String testName)     { this.testName = clean(testName); return this; }
+        public Builder keyword(String keyword)       { this.keyword = clean(keyword); return this; }
+        public Builder location(String location)     { this.location = clean(location); return this; }
+        public Builder distance(String distance)     { this.distance = clean(distance); return this; }
+        public Builder condition(String condition)   { this.condition = clean(condition); return this; }
+        public Builder negotiable(String negotiable) { this.negotiable = clean(negotiable); return this; }
+
+        public Builder coordinates(String latitude, String longitude) {
+            this.latitude = clean(latitude);
+            this.longitude = clean(longitude);
+            return this;
+        }
+
+        public Builder priceRange(String priceFrom, String priceTo) {
+            this.priceFrom = clean(priceFrom);
+            this.priceTo = clean(priceTo);
+            return this;
+        }
+
+        public Builder sortOrder(SortOrder sortOrder) {
+            this.sortOrder = sortOrder == null ? SortOrder.RECENT : sortOrder;
+            return this;
+        }
+
+        public SearchQuery build() {
+            if (!hasText(keyword)) {
+                throw new IllegalStateException("SearchQuery needs a search keyword");
+            }
+            return new SearchQuery(this);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.hamrobazaar.utils;
+
+import com.hamrobazaar.enums.SortOrder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * SortVerifier - Checks that products arrive in the order of a SortOrder, in a single streaming pass
+ * Each value is compared only with the previous one, so nothing is copied or sorted and the check can
+ * run over every extracted product as it streams in (pass it as the extraction consumer).
+ * Prices are compared as long paisa, titles with locale-aware CollationKeys so Devanagari titles order correctly,
+ * and Recent compares the minimum age RelativeDateParser reads from Ad_Posted_Date (never decreasing down the list).
+ * Not thread-safe: use one verifier per scenario
+ */
+public final class SortVerifier implements Consumer<Map<String, String>> {
+
+    private static final Logger log = LogManager.getLogger(SortVerifier.class);
+
+    // Nepali collation rules where the JDK has them, root (Unicode) order otherwise
+    private static final Locale TITLE_LOCALE = new Locale("ne", "NP");
+
+    private final SortOrder sortOrder;
+    private final String field;
+    private final int direction;
+    private final Collator collator;
+
+    private long previousPrice = PriceParser.NO_PRICE;
+    private long previousAge = RelativeDateParser.NO_AGE;
+    private CollationKey previousTitle;
+    private String previousText;
+    private int previousPosition;
+
+    private int position;
+    private int checked;
+    private int skipped;
+    private int violations;
+    private String firstViolation;
+
+    private SortVerifier(SortOrder sortOrder) {
+        this.sortOrder = sortOrder;
+        switch (sortOrder) {
+            case LOW_TO_HIGH:
+                this.field = "Price";
+                this.direction = 1;
+                this.collator = null;
+                break;
+            case HIGH_TO_LOW:
+                this.field = "Price";
+                this.direction = -1;
+                this.collator = null;
+                break;
+            case A_TO_Z:
+                this.field = "Title";
+                this.direction = 1;
+                // SECONDARY ignores case but keeps accents and vowel signs apart
+                this.collator = Collator.getInstance(TITLE_LOCALE);
+                this.collator.setStrength(Collator.SECONDARY);
+                this.collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+                break;
+            case RECENT:
+                this.field = "Ad_Posted_Date";
+                this.direction = 1;
+                this.collator = null;
+                break;
+            default:
+                this.field = null;
+                this.direction = 0;
+                this.collator = null;
+        }
+    }
+
+    public static SortVerifier forOrder(SortOrder sortOrder) {
+        return new SortVerifier(sortOrder);
+    }
+
+    /**
+     * Verify an already collected list in one pass
+     */
+    public static SortVerifier verify(SortOrder sortOrder, Iterable<Map<String, String>> products) {
+        SortVerifier verifier = new SortVerifier(sortOrder);
+        for (Map<String, String> product : products) {
+            verifier.accept(product);
+        }
+        return verifier;
+    }
+
+    /**
+     * Verify a ProductTable straight from its columns: prices are compared as the stored paisa,
+     * so nothing is parsed or boxed per row
+     */
+    public static SortVerifier verify(SortOrder sortOrder, ProductTable table) {
+        SortVerifier verifier = new SortVerifier(sortOrder);
+        boolean byPrice = "Price".equals(verifier.field);
+        for (int i = 0; i < table.size(); i++) {
+            if (byPrice) {
+                verifier.acceptPaisa(table.getPricePaisa(i));
+            } else {
+                verifier.acceptValue(verifier.field == null ? null : table.get(i, verifier.field));
+            }
+        }
+        return verifier;
+    }
+
+    /**
+     * False when there is nothing to check for this sort order
+     */
+    public boolean isApplicable() {
+        return field != null;
+    }
+
+    /**
+     * The product field this verifier reads ("Price", "Title" or "Ad_Posted_Date")
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * The next value starts a new ordered run and is not compared with the previous one.
+     * For streams that concatenate separately ordered parts, e.g. products topped up by a fallback strategy
+     */
+    public void startSegment() {
+        previousPrice = PriceParser.NO_PRICE;
+        previousAge = RelativeDateParser.NO_AGE;
+        previousTitle = null;
+    }
+
+    @Override
+    public void accept(Map<String, String> product) {
+        if (field != null) {
+            acceptValue(product.get(field));
+        }
+    }
+
+    /**
+     * Feed the next raw value (price text, title or posted date) in page order
+     */
+    public void acceptValue(String text) {
+        position++;
+        if (field == null) {
+            return;
+        }
+        if ("Price".equals(field)) {
+            acceptPrice(text);
+        } else if ("Title".equals(field)) {
+            acceptTitle(text);
+        } else {
+            acceptAge(text);
+        }
+    }
+
+    /**
+     * Feed the next already parsed price in page order (PriceParser.NO_PRICE is skipped)
+     */
+    public void acceptPaisa(long paisa) {
+        position++;
+        if ("Price".equals(field)) {
+            acceptPrice(paisa, null);
+        }
+    }
+
+    private void acceptPrice(String text) {
+        acceptPrice(PriceParser.parsePaisa(text), text);
+    }
+
+    /**
+     * text is only needed for violation messages; without it the paisa value is formatted on demand
+     */
+    private void acceptPrice(long price, String text) {
+        if (price == PriceParser.NO_PRICE) {
+            skipped++;
+            return;
+        }
+        if (previousPrice != PriceParser.NO_PRICE && direction * Long.compare(previousPrice, price) > 0) {
+            recordViolation(text != null ? text : PriceParser.format(price));
+        }
+        previousPrice = price;
+        remember(text);
+    }
+
+    private void acceptAge(String text) {
+        long age = RelativeDateParser.minAgeMillis(text);
+        if (age == RelativeDateParser.NO_AGE) {
+            skipped++;
+            return;
+        }
+        if (previousAge != RelativeDateParser.NO_AGE && direction * Long.compare(previousAge, age) > 0) {
+            recordViolation(text);
+        }
+        previousAge = age;
+        remember(text);
+    }
+
+    private void acceptTitle(String text) {
+        if (text == null || text.trim().isEmpty() || "N/A".equals(text)) {
+            skipped++;
+            return;
+        }
+        CollationKey key = collator.getCollationKey(text.trim());
+        if (previousTitle != null && direction * previousTitle.compareTo(key) > 0) {
+            recordViolation(text);
+        }
+        previousTitle = key;
+        remember(text);
+    }
+
+    private void remember(String text) {
+        checked++;
+        previousText = text;
+        previousPosition = position;
+    }
+
+    private void recordViolation(String text) {
+        violations++;
+        if (firstViolation == null) {
+            String previous = previousText != null ? previousText : PriceParser.format(previousPrice);
+            firstViolation = String.format("#%d '%s' after #%d '%s'", position, text, previousPosition, previous);
+            log.warn("{} order broken at {}", sortOrder.getDisplayText(), firstViolation);
+        }
+    }
+
+    /**
+     * Sorted when nothing was out of order and at least one value could be checked
+     * (an empty or unparseable page is not a pass). Always true when not applicable
+     */
+    public boolean isSorted() {
+        if (!isApplicable()) {
+            return true;
+        }
+        return violations == 0 && checked > 0;
+    }
+
+    public int getChecked() {
+        return checked;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getViolations() {
+        return violations;
+    }
+
+    /**
+     * Description of the first out-of-order value, or null
+     */
+    public String getFirstViolation() {
+        return firstViolation;
+    }
+
+    public SortOrder getSortOrder() {
+        return sortOrder;
+    }
+
+    public String summary() {
+        if (!isApplicable()) {
+            return sortOrder.getDisplayText() + ": no verifier, skipped";
+        }
+        return String.format("%s: %s - checked=%d, skipped=%d, violations=%d%s",
+            sortOrder.getDisplayText(), isSorted() ? "PASSED" : "FAILED", checked, skipped, violations,
+            firstViolation == null ? "" : ", first: " + firstViolation);
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
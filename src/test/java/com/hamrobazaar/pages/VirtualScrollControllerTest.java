@@ -0,0 +1,198 @@
+package com.hamrobazaar.pages;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VirtualScrollController gap and end-of-list decisions, and the order SearchResultsPage.ExtractionState
+ * delivers cards in - plain unit test, no browser needed (same package: both classes are package-private)
+ */
+public class VirtualScrollControllerTest {
+
+    private static final VirtualScrollController.Geometry MID_LIST =
+        new VirtualScrollController.Geometry(0, 11, 120, false);
+
+    @Test(description = "Captures count once and only inside 0..N-1; the lowest missing index is aimed at next")
+    public void testCaptureAndNextMissing() {
+        VirtualScrollController controller = new VirtualScrollController(5);
+        Assert.assertTrue(controller.capture(0));
+        Assert.assertTrue(controller.capture(1));
+        Assert.assertTrue(controller.capture(3));
+        Assert.assertFalse(controller.capture(3));
+        Assert.assertFalse(controller.capture(5));
+        Assert.assertFalse(controller.capture(-1));
+
+        Assert.assertEquals(controller.nextMissing(), 2);
+        Assert.assertEquals(controller.capturedIndexes(), Arrays.asList(0, 1, 3));
+        Assert.assertEquals(controller.completeness(), 0.6, 1e-9);
+        Assert.assertEquals(controller.missingRanges(), "2, 4");
+        Assert.assertFalse(controller.isComplete());
+        Assert.assertEquals(controller.summary(), "completeness 3/5 (60.0%), missing: 2, 4");
+    }
+
+    @Test(description = "A hole in the rendered list is given up after MAX_TRIES_PER_GAP scrolls without a capture")
+    public void testHoleAbandoned() {
+        VirtualScrollController controller = new VirtualScrollController(5);
+        capture(controller, 0, 1, 3, 4);
+
+        controller.afterScroll(2, 0, MID_LIST);     // first aim at 2
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        Assert.assertFalse(controller.isGivenUp(2));
+        Assert.assertEquals(controller.nextMissing(), 2);
+
+        controller.afterScroll(2, 0, MID_LIST);     // third scroll in a row that captured nothing
+        Assert.assertTrue(controller.isGivenUp(2));
+        Assert.assertTrue(controller.isComplete());
+        // A hole is still a hole: completeness and the report keep it
+        Assert.assertEquals(controller.completeness(), 0.8, 1e-9);
+        Assert.assertEquals(controller.missingRanges(), "2");
+        Assert.assertEquals(controller.expectedCount(), 5);
+    }
+
+    @Test(description = "New cards or a new aim restart the count of fruitless scrolls")
+    public void testProgressResetsTries() {
+        VirtualScrollController controller = new VirtualScrollController(10);
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 4, MID_LIST);     // progress elsewhere
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        Assert.assertFalse(controller.isGivenUp(2));
+
+        controller.afterScroll(3, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        controller.afterScroll(2, 0, MID_LIST);
+        Assert.assertFalse(controller.isGivenUp(2));
+        controller.afterScroll(2, 0, MID_LIST);
+        Assert.assertTrue(controller.isGivenUp(2));
+
+        controller.afterScroll(-1, 0, MID_LIST);    // nothing to aim at: no effect
+        Assert.assertEquals(controller.nextMissing(), 0);
+    }
+
+    @Test(description = "Aiming past the last rendered card at the bottom of the page ends the list instead of leaving a hole")
+    public void testEndOfList() {
+        VirtualScrollController controller = new VirtualScrollController(10);
+        capture(controller, 0, 1, 2, 3, 4, 5);
+        VirtualScrollController.Geometry bottom = new VirtualScrollController.Geometry(0, 5, 120, true);
+
+        for (int i = 0; i < 4; i++) {
+            controller.afterScroll(6, 0, bottom);
+        }
+        Assert.assertEquals(controller.expectedCount(), 6);
+        Assert.assertTrue(controller.isComplete());
+        Assert.assertTrue(controller.isGivenUp(7));
+        Assert.assertFalse(controller.isGivenUp(5));
+        Assert.assertEquals(controller.completeness(), 1.0, 1e-9);
+        Assert.assertEquals(controller.missingRanges(), "");
+        Assert.assertEquals(controller.summary(), "completeness 6/6 (100.0%)");
+    }
+
+    @Test(description = "At the bottom, a missing index inside the rendered range is a hole, not the end")
+    public void testHoleAtBottom() {
+        VirtualScrollController controller = new VirtualScrollController(10);
+        capture(controller, 0, 1, 2, 4, 5);
+        VirtualScrollController.Geometry bottom = new VirtualScrollController.Geometry(0, 5, 120, true);
+
+        for (int i = 0; i < 4; i++) {
+            controller.afterScroll(3, 0, bottom);
+        }
+        Assert.assertTrue(controller.isGivenUp(3));
+        Assert.assertEquals(controller.expectedCount(), 10);
+        Assert.assertEquals(controller.nextMissing(), 6);
+        Assert.assertEquals(controller.missingRanges(), "3, 6-9");
+    }
+
+    @Test(description = "Geometry is read from the scroll script's array, UNKNOWN otherwise")
+    public void testGeometry() {
+        VirtualScrollController.Geometry geometry =
+            VirtualScrollController.Geometry.from(Arrays.asList(12L, 35L, 118.5, true));
+        Assert.assertEquals(geometry.minIndex, 12);
+        Assert.assertEquals(geometry.maxIndex, 35);
+        Assert.assertEquals(geometry.cardHeight, 118.5);
+        Assert.assertTrue(geometry.atBottom);
+        Assert.assertSame(VirtualScrollController.Geometry.from(null), VirtualScrollController.Geometry.UNKNOWN);
+        Assert.assertSame(VirtualScrollController.Geometry.from(Arrays.asList(1L, 2L)), VirtualScrollController.Geometry.UNKNOWN);
+    }
+
+    @Test(description = "Cards are delivered in data-index order, each one once, whatever order they arrive in")
+    public void testDeliveryOrder() {
+        List<Integer> keys = new ArrayList<>();
+        SearchResultsPage.ExtractionState state = new SearchResultsPage.ExtractionState(5, (key, product) -> keys.add(key));
+
+        state.accept(2, product("c"));
+        state.accept(1, product("b"));
+        Assert.assertTrue(keys.isEmpty(), keys.toString());     // both wait for 0
+
+        state.accept(0, product("a"));
+        state.accept(1, product("b again"));
+        state.accept(3, product("N/A"));                        // no title: not a card
+        Assert.assertEquals(keys, Arrays.asList(0, 1, 2));
+        Assert.assertFalse(state.isFull());
+
+        state.accept(3, product("d"));
+        state.accept(4, product("e"));
+        Assert.assertEquals(keys, Arrays.asList(0, 1, 2, 3, 4));
+        Assert.assertTrue(state.isFull());
+    }
+
+    @Test(description = "Cards behind a hole go out once the hole is given up, or in index order at the end of the run")
+    public void testReleaseAndFlush() {
+        List<Integer> keys = new ArrayList<>();
+        SearchResultsPage.ExtractionState state = new SearchResultsPage.ExtractionState(6, (key, product) -> keys.add(key));
+        state.accept(0, product("a"));
+        state.accept(2, product("c"));
+        state.accept(5, product("f"));
+        state.accept(4, product("e"));
+        Assert.assertEquals(keys, Collections.singletonList(0));
+
+        for (int i = 0; i < 4; i++) {
+            state.controller.afterScroll(1, 0, MID_LIST);
+        }
+        state.release();
+        Assert.assertEquals(keys, Arrays.asList(0, 2));       // 3 is still looked for
+
+        state.flush();
+        Assert.assertEquals(keys, Arrays.asList(0, 2, 4, 5));
+    }
+
+    @Test(description = "Cards without a data-index get their own negative keys and never replace indexed cards")
+    public void testCardsWithoutIndex() {
+        Map<Integer, String> byKey = new HashMap<>();
+        SearchResultsPage.ExtractionState state = new SearchResultsPage.ExtractionState(5,
+            (key, product) -> Assert.assertNull(byKey.put(key, product.get("Title")), "key " + key + " reused"));
+
+        state.accept(-1, product("x"));
+        state.accept(0, product("a"));
+        state.accept(-1, product("y"));
+        state.accept(1, product("b"));
+
+        Assert.assertEquals(byKey.size(), 4);
+        Assert.assertEquals(byKey.get(-1), "x");
+        Assert.assertEquals(byKey.get(-2), "y");
+        Assert.assertEquals(byKey.get(0), "a");
+        Assert.assertEquals(byKey.get(1), "b");
+    }
+
+    private static void capture(VirtualScrollController controller, int... indexes) {
+        for (int index : indexes) {
+            controller.capture(index);
+        }
+    }
+
+    private static Map<String, String> product(String title) {
+        Map<String, String> product = new HashMap<>();
+        product.put("Title", title);
+        return product;
+    }
+}
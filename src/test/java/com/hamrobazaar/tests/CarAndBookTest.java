@@ -5,15 +5,15 @@ import com.hamrobazaar.enums.SortOrder;
 import com.hamrobazaar.pages.FilterPage;
 import com.hamrobazaar.pages.HomePage;
 import com.hamrobazaar.pages.SearchResultsPage;
+import com.hamrobazaar.utils.ArtifactNames;
 import com.hamrobazaar.utils.CSVReaderUtil;
 import com.hamrobazaar.utils.ExtentReportListener;
+import com.hamrobazaar.utils.ProductTable;
+import com.hamrobazaar.utils.ResultSink;
 import com.aventstack.extentreports.Status;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 
 
@@ -22,9 +22,6 @@ public class CarAndBookTest extends BaseTest {
     private static final String CSV_PATH   = "src/test/resources/testdata/testdata.csv";
     private static final String OUTPUT_DIR = "test-output/";
 
-    private static final String TIMESTAMP =
-        new java.text.SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new java.util.Date());
-
   
 
     @Test(priority = 1, description = "Car Search - Used condition, High to Low price, 100000-10000000 range")
@@ -59,7 +56,7 @@ public class CarAndBookTest extends BaseTest {
             ExtentReportListener.getTest().log(Status.PASS, "Navigated to HamroBazaar");
 
             // Step 2: Search + Location + Distance (using HomePage - same as SearchResultsTest)
-            HomePage homePage = new HomePage(driver);
+            HomePage homePage = new HomePage(getDriver());
 
             homePage.searchProduct(keyword);
             ExtentReportListener.getTest().log(Status.PASS, "Searched for: " + keyword);
@@ -72,16 +69,14 @@ public class CarAndBookTest extends BaseTest {
             ExtentReportListener.getTest().log(Status.PASS, "Set distance: " + distance);
 
             // Step 3: Extra Filters (using NEW FilterPage)
-            FilterPage filterPage = new FilterPage(driver);
+            FilterPage filterPage = new FilterPage(getDriver());
 
             filterPage.setCondition(condition);
             ExtentReportListener.getTest().log(Status.PASS, "Set condition: " + condition);
 
-            filterPage.setPriceRange(minPrice, maxPrice);
-            ExtentReportListener.getTest().log(Status.PASS, "Set price range: " + minPrice + " to " + maxPrice);
-
-            filterPage.setNegotiable(negotiable);
-            ExtentReportListener.getTest().log(Status.PASS, "Set negotiable: " + negotiable);
+            filterPage.fillFilters(minPrice, maxPrice, negotiable);
+            ExtentReportListener.getTest().log(Status.PASS, "Set price range: " + minPrice + " to " + maxPrice
+                + ", negotiable: " + negotiable);
 
             // Step 4: Apply Filters
             filterPage.clickApplyFilters();
@@ -92,7 +87,7 @@ public class CarAndBookTest extends BaseTest {
             ExtentReportListener.getTest().log(Status.PASS, "Sorted by: " + sort.getDisplayText());
 
             // Step 6: Verify sort - High to Low
-            SearchResultsPage resultsPage = new SearchResultsPage(driver);
+            SearchResultsPage resultsPage = new SearchResultsPage(getDriver());
             boolean isSorted = filterPage.verifyPriceSortedHighToLow();
 
             if (isSorted) {
@@ -103,13 +98,15 @@ public class CarAndBookTest extends BaseTest {
             Assert.assertTrue(isSorted, "Car prices are NOT sorted High to Low!");
 
             // Step 7: Extract 50 products
-            List<Map<String, String>> products = resultsPage.extractMultipleProducts(50);
+            ProductTable products = resultsPage.extractProductTable(50);
             Assert.assertFalse(products.isEmpty(), "No car products extracted!");
             ExtentReportListener.getTest().log(Status.PASS, "Extracted " + products.size() + " car products");
 
             // Step 8: Save CSV
-            String outputCsv = OUTPUT_DIR + "Car_Results_" + TIMESTAMP + ".csv";
-            saveToCSV(products, outputCsv);
+            String outputCsv = ArtifactNames.unique(OUTPUT_DIR, "Car_Results", ".csv");
+            try (ResultSink sink = ResultSink.to(outputCsv).build()) {
+                sink.appendAll(products);
+            }
             ExtentReportListener.getTest().log(Status.PASS, "Saved to: " + outputCsv);
 
             // Step 9: Display
@@ -160,7 +157,7 @@ public class CarAndBookTest extends BaseTest {
             ExtentReportListener.getTest().log(Status.PASS, "Navigated to HamroBazaar");
 
             // Step 2: Search + Location + Distance (using HomePage - same as SearchResultsTest)
-            HomePage homePage = new HomePage(driver);
+            HomePage homePage = new HomePage(getDriver());
 
             homePage.searchProduct(keyword);
             ExtentReportListener.getTest().log(Status.PASS, "Searched for: " + keyword);
@@ -173,16 +170,14 @@ public class CarAndBookTest extends BaseTest {
             ExtentReportListener.getTest().log(Status.PASS, "Set distance: " + distance);
 
             // Step 3: Extra Filters (using NEW FilterPage)
-            FilterPage filterPage = new FilterPage(driver);
+            FilterPage filterPage = new FilterPage(getDriver());
 
             filterPage.setCondition(condition);
             ExtentReportListener.getTest().log(Status.PASS, "Set condition: " + condition);
 
-            filterPage.setPriceRange(minPrice, maxPrice);
-            ExtentReportListener.getTest().log(Status.PASS, "Set price range: " + minPrice + " to " + maxPrice);
-
-            filterPage.setNegotiable(negotiable);
-            ExtentReportListener.getTest().log(Status.PASS, "Set negotiable: " + negotiable);
+            filterPage.fillFilters(minPrice, maxPrice, negotiable);
+            ExtentReportListener.getTest().log(Status.PASS, "Set price range: " + minPrice + " to " + maxPrice
+                + ", negotiable: " + negotiable);
 
             // Step 4: Apply Filters
             filterPage.clickApplyFilters();
@@ -193,7 +188,7 @@ public class CarAndBookTest extends BaseTest {
             ExtentReportListener.getTest().log(Status.PASS, "Sorted by: " + sort.getDisplayText());
 
             // Step 6: Verify A to Z sort
-            SearchResultsPage resultsPage = new SearchResultsPage(driver);
+            SearchResultsPage resultsPage = new SearchResultsPage(getDriver());
             boolean isSorted = filterPage.verifyTitlesSortedAtoZ();
 
             if (isSorted) {
@@ -204,13 +199,15 @@ public class CarAndBookTest extends BaseTest {
             Assert.assertTrue(isSorted, "Book titles are NOT sorted A to Z!");
 
             // Step 7: Extract 50 products
-            List<Map<String, String>> products = resultsPage.extractMultipleProducts(50);
+            ProductTable products = resultsPage.extractProductTable(50);
             Assert.assertFalse(products.isEmpty(), "No book products extracted!");
             ExtentReportListener.getTest().log(Status.PASS, "Extracted " + products.size() + " book products");
 
             // Step 8: Save CSV
-            String outputCsv = OUTPUT_DIR + "Book_Results_" + TIMESTAMP + ".csv";
-            saveToCSV(products, outputCsv);
+            String outputCsv = ArtifactNames.unique(OUTPUT_DIR, "Book_Results", ".csv");
+            try (ResultSink sink = ResultSink.to(outputCsv).build()) {
+                sink.appendAll(products);
+            }
             ExtentReportListener.getTest().log(Status.PASS, "Saved to: " + outputCsv);
 
             // Step 9: Display
@@ -229,40 +226,7 @@ public class CarAndBookTest extends BaseTest {
 
     
 
-    private void saveToCSV(List<Map<String, String>> products, String filePath) throws IOException {
-        java.io.File outputFile = new java.io.File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.append("SN,Title,Description,Price,Condition,Ad_Posted_Date,Seller_Name\n");
-
-            int sn = 1;
-            for (Map<String, String> product : products) {
-                writer.append(String.valueOf(sn++)).append(",");
-                writer.append(escape(product.getOrDefault("Title",          "N/A"))).append(",");
-                writer.append(escape(product.getOrDefault("Description",    "N/A"))).append(",");
-                writer.append(escape(product.getOrDefault("Price",          "N/A"))).append(",");
-                writer.append(escape(product.getOrDefault("Condition",      "N/A"))).append(",");
-                writer.append(escape(product.getOrDefault("Ad_Posted_Date", "N/A"))).append(",");
-                writer.append(escape(product.getOrDefault("Seller_Name",    "N/A"))).append("\n");
-            }
-            writer.flush();
-        }
-
-        log.info("CSV saved: {}", outputFile.getAbsolutePath());
-        System.out.println("\nCSV FILE SAVED: " + outputFile.getAbsolutePath());
-    }
-
-    private String escape(String value) {
-        if (value == null) return "";
-        value = value.replace("\n", " ").replace("\r", " ");
-        if (value.contains(",") || value.contains("\"")) {
-            value = "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
-    private void displayResultsTable(List<Map<String, String>> products, String keyword, String sortLabel) {
+    private void displayResultsTable(ProductTable products, String keyword, String sortLabel) {
         System.out.println("\n" + "=".repeat(160));
         System.out.println("RESULTS FOR: " + keyword.toUpperCase() + "  |  Sort: " + sortLabel + "  |  Total: " + products.size());
         System.out.println("=".repeat(160));
@@ -271,7 +235,7 @@ public class CarAndBookTest extends BaseTest {
         System.out.println("-".repeat(160));
 
         for (int i = 0; i < products.size(); i++) {
-            Map<String, String> p = products.get(i);
+            Map<String, String> p = products.row(i);
             System.out.printf("%-4d | %-40s | %-15s | %-12s | %-15s | %-25s%n",
                 i + 1,
                 truncate(p.getOrDefault("Title",          "N/A"), 40),
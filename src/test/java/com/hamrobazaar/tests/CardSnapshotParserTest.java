@@ -0,0 +1,74 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.pages.CardSnapshotParser;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CardSnapshotParser against saved results page snapshots - plain unit test, no browser needed
+ */
+public class CardSnapshotParserTest {
+
+    @Test(description = "The card XPaths read every field from a saved snapshot")
+    public void testParsesSnapshot() throws IOException {
+        List<Map<String, String>> products =
+            CardSnapshotParser.parseProducts(ProductJsonMapperTest.recorded("recorded/results-snapshot.html"));
+
+        Assert.assertEquals(products.size(), 3);
+        Map<String, String> car = products.get(1);
+        Assert.assertEquals(car.get("Title"), "Hyundai Creta 2019");
+        Assert.assertEquals(car.get("Description"), "राम्रो अवस्थामा, एक जना मालिक");
+        Assert.assertEquals(car.get("Price"), "Rs. 65,00,000");
+        Assert.assertEquals(car.get("Condition"), "Used");
+        Assert.assertEquals(car.get("Ad_Posted_Date"), "19 days ago");
+        Assert.assertEquals(car.get("Seller_Name"), "Ram, Auto \"Deals\"");
+
+        // Header text with the price classes is outside any card
+        Assert.assertEquals(products.get(0).get("Price"), "Rs. 1");
+        Assert.assertEquals(products.get(2).get("Description"), "N/A");
+    }
+
+    @Test(description = "Rows carry the data-index and skip cards already captured")
+    public void testSkipsCapturedIndexes() throws IOException {
+        List<List<Object>> rows = CardSnapshotParser.parseRows(
+            ProductJsonMapperTest.recorded("recorded/results-snapshot.html"), Arrays.asList(12, 14));
+        Assert.assertEquals(rows.size(), 1);
+        Assert.assertEquals(rows.get(0).get(0), 13);
+        Assert.assertEquals(rows.get(0).get(1), "Hyundai Creta 2019");
+    }
+
+    @Test(description = "Large snapshots are parsed in parallel and keep page order")
+    public void testLargeSnapshotKeepsOrder() {
+        List<List<Object>> rows = CardSnapshotParser.parseRows(snapshot(500), Collections.emptyList());
+        Assert.assertEquals(rows.size(), 500);
+        for (int i = 0; i < 500; i++) {
+            Assert.assertEquals(rows.get(i).get(0), i);
+            Assert.assertEquals(rows.get(i).get(1), "Item " + i);
+            Assert.assertEquals(rows.get(i).get(3), String.valueOf(1000 + i));
+            Assert.assertEquals(rows.get(i).get(6), "N/A");
+        }
+    }
+
+    @Test(description = "A page without cards gives nothing")
+    public void testNoCards() {
+        Assert.assertTrue(CardSnapshotParser.parseProducts("<html><body><p>No results</p></body></html>").isEmpty());
+        Assert.assertTrue(CardSnapshotParser.parseProducts(null).isEmpty());
+    }
+
+    private static String snapshot(int cards) {
+        StringBuilder html = new StringBuilder("<html><body><div class=\"relative\">");
+        for (int i = 0; i < cards; i++) {
+            html.append("<div data-index=\"").append(i).append("\" class=\"w-full mb-3\">")
+                .append("<a class=\"heading-h6 break-words\">Item ").append(i).append("</a>")
+                .append("<span class=\"text-sm font-semibold\">").append(1000 + i).append("</span>")
+                .append("</div>");
+        }
+        return html.append("</div></body></html>").toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.pages.Combobox;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Combobox suggestion scoring - plain unit test, no browser needed
+ */
+public class ComboboxTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test(description = "Exact, case and spacing, and contained matches score in that order")
+    public void testScoreLevels() {
+        Assert.assertEquals(Combobox.score("Kathmandu", "Kathmandu"), 1.0, DELTA);
+        Assert.assertEquals(Combobox.score("  Kathmandu ", "Kathmandu"), 1.0, DELTA);
+        Assert.assertEquals(Combobox.score("KATHMANDU  Metro", "kathmandu metro"), 0.9, DELTA);
+        Assert.assertEquals(Combobox.score("Kathmandu Metropolitan City", "metropolitan"), 0.8, DELTA);
+    }
+
+    @Test(description = "Otherwise up to 0.7 for the share of query words a suggestion word starts with")
+    public void testSharedWords() {
+        Assert.assertEquals(Combobox.score("New Baneshwor, Kathmandu", "baneshwor kathmandu"), 0.7, DELTA);
+        Assert.assertEquals(Combobox.score("Baneshwor Height, Kathmandu", "baneshwor lalitpur"), 0.35, DELTA);
+        Assert.assertEquals(Combobox.score("Lalitpur", "lal bagh"), 0.35, DELTA);
+        Assert.assertEquals(Combobox.score("Like New", "used"), 0.0, DELTA);
+        Assert.assertEquals(Combobox.score("काठमाडौं महानगरपालिका", "काठमाडौं पोखरा"), 0.35, DELTA);
+        Assert.assertEquals(Combobox.score("Anything", "  "), 0.0, DELTA);
+    }
+
+    @Test(description = "The best suggestion wins, the earlier one on a tie")
+    public void testBest() {
+        Assert.assertEquals(Combobox.best(Arrays.asList("Brand New", "Like New", "Used"), "Used"), 2);
+        Assert.assertEquals(Combobox.best(Arrays.asList("Kathmandu Metro", "kathmandu", "Kathmandu"), "Kathmandu"), 2);
+        Assert.assertEquals(Combobox.best(Arrays.asList("Pokhara Lakeside", "Pokhara Airport"), "pokhara"), 0);
+    }
+
+    @Test(description = "Nothing is chosen while no suggestion reaches MIN_SCORE, so the caller keeps waiting")
+    public void testBelowMinimum() {
+        // Rows still showing the results for "Ka" while "Kathmandu Baneshwor Height" is being typed
+        Assert.assertEquals(Combobox.best(Arrays.asList("Kalanki", "Kamalpokhari"), "Kathmandu Baneshwor Height"), -1);
+        Assert.assertEquals(Combobox.best(Arrays.asList("Like New", "Brand New"), "Used"), -1);
+        Assert.assertEquals(Combobox.best(Collections.emptyList(), "Used"), -1);
+        Assert.assertTrue(Combobox.score("Baneshwor", "Kathmandu Baneshwor Height") < Combobox.MIN_SCORE);
+    }
+}
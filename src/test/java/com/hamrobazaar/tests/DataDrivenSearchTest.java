@@ -0,0 +1,80 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.base.BaseTest;
+import com.hamrobazaar.enums.ExtractionSource;
+import com.hamrobazaar.enums.NavigationMode;
+import com.hamrobazaar.utils.CSVReaderUtil;
+import com.hamrobazaar.utils.ExtentReportListener;
+import com.hamrobazaar.utils.SearchQuery;
+import com.aventstack.extentreports.Status;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs every testdata.csv row as an independent scenario on the browser pool
+ * Rows run in parallel up to the suite's data-provider-thread-count
+ */
+public class DataDrivenSearchTest extends BaseTest {
+
+    // Override with -Dscenario.csv=path -Dscenario.extractCount=N -Dnavigation.mode=url|ui -Dextraction.source=dom|page-source|network|hydration|auto
+    private static final String CSV_PATH = System.getProperty("scenario.csv", "src/test/resources/testdata/testdata.csv");
+    private static final int EXTRACT_COUNT = Integer.getInteger("scenario.extractCount", 50);
+    private static final NavigationMode MODE = NavigationMode.fromString(System.getProperty("navigation.mode"));
+    private static final ExtractionSource SOURCE = ExtractionSource.fromString(System.getProperty("extraction.source"));
+
+    private final Queue<SearchScenarioRunner.Result> results = new ConcurrentLinkedQueue<>();
+
+
+    @DataProvider(name = "searchScenarios", parallel = true)
+    public Object[][] searchScenarios() {
+        List<Map<String, String>> rows = CSVReaderUtil.readCSV(CSV_PATH);
+        Object[][] data = new Object[rows.size()][1];
+        for (int i = 0; i < rows.size(); i++) {
+            data[i][0] = SearchQuery.fromTestData(rows.get(i));
+        }
+        log.info("Loaded {} scenarios from {}", rows.size(), CSV_PATH);
+        return data;
+    }
+
+
+    @Test(dataProvider = "searchScenarios", description = "Data-driven search scenario from testdata.csv")
+    public void testSearchScenario(SearchQuery query) {
+
+        try {
+            log.info("Starting scenario {}", query);
+            ExtentReportListener.getTest().log(Status.INFO, "Scenario: " + query.getTestName()
+                + " | keyword=" + query.getKeyword() + " | sort=" + query.getSortOrder().getDisplayText());
+
+            SearchScenarioRunner.Result result =
+                new SearchScenarioRunner(getDriver(), MODE, SOURCE, EXTRACT_COUNT).run(query);
+            results.add(result);
+
+            Assert.assertTrue(result.isSorted(), query.getTestName() + ": results are NOT sorted by "
+                + query.getSortOrder().getDisplayText());
+            Assert.assertTrue(result.getProductCount() > 0, query.getTestName() + ": no products extracted");
+
+            ExtentReportListener.getTest().log(Status.PASS, "SCENARIO COMPLETED: " + result);
+
+        } catch (Exception e) {
+            log.error("Scenario {} failed: {}", query, e.getMessage(), e);
+            ExtentReportListener.getTest().log(Status.FAIL, "Scenario failed: " + e.getMessage());
+            Assert.fail("Scenario " + query + " failed: " + e.getMessage());
+        }
+    }
+
+
+    @AfterClass(alwaysRun = true)
+    public void logSummary() {
+        log.info("Data-driven run finished: {} scenarios completed", results.size());
+        for (SearchScenarioRunner.Result result : results) {
+            log.info("  {}", result);
+        }
+    }
+}
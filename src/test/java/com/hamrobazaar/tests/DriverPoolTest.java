@@ -0,0 +1,64 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.utils.DriverPool;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DriverPool lifecycle with stub browsers - plain unit test, no browser needed
+ */
+public class DriverPoolTest {
+
+    @Test(description = "A browser still launching at shutdown is quit, not left in the drained pool")
+    public void testLaunchDuringShutdownIsQuit() throws Exception {
+        CountDownLatch launching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger quits = new AtomicInteger();
+
+        DriverPool pool = new DriverPool(() -> {
+            launching.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // shutdownNow interrupts; a real browser constructor would carry on regardless
+            }
+            return stubDriver(quits);
+        }, 1, 5);
+        pool.prewarm();
+        Assert.assertTrue(launching.await(5, TimeUnit.SECONDS));
+
+        Thread shutdown = new Thread(pool::shutdown);
+        shutdown.start();
+        Thread.sleep(200);
+        release.countDown();
+        shutdown.join(10_000);
+
+        Assert.assertFalse(shutdown.isAlive());
+        Assert.assertEquals(quits.get(), 1);
+    }
+
+    private static WebDriver stubDriver(AtomicInteger quits) {
+        return (WebDriver) Proxy.newProxyInstance(DriverPoolTest.class.getClassLoader(), new Class<?>[] { WebDriver.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "quit":
+                        quits.incrementAndGet();
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "StubDriver";
+                    default:
+                        return null;
+                }
+            });
+    }
+}
@@ -0,0 +1,67 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.utils.ExtractionDiff;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExtractionDiff over product lists from two strategies - plain unit test, no browser needed
+ */
+public class ExtractionDiffTest {
+
+    @Test(description = "Card text and API values of the same products are equivalent")
+    public void testEquivalentAcrossFormats() {
+        List<Map<String, String>> cards = Arrays.asList(
+            product("Hyundai Creta 2019", "Rs. 65,00,000", "Ram Auto", "Used"),
+            product("Atomic  Habits", "N/A", "Book Corner", "Like New"));
+        List<Map<String, String>> api = Arrays.asList(
+            product("hyundai creta 2019", "65,00,000", "Ram Auto", "Used"),
+            product("Atomic Habits", "Price on call", "book corner", "like new"));
+
+        ExtractionDiff diff = ExtractionDiff.compare("batch", cards, "network", api);
+        Assert.assertTrue(diff.isEquivalent(), diff.summary());
+        Assert.assertEquals(diff.getMatched(), 2);
+    }
+
+    @Test(description = "Missing products and differing fields are reported per side")
+    public void testReportsDifferences() {
+        List<Map<String, String>> left = Arrays.asList(
+            product("Canon EOS 200D", "58,000", "Photo Point", "Used"),
+            product("Yamaha HS3", "1", "Nepal Music Gallery", "Brand New"));
+        List<Map<String, String>> right = Arrays.asList(
+            product("Canon EOS 200D", "58,000", "Photo Point", "Like New"),
+            product("Dell 27 inch Monitor", "42,000", "Sita Electronics", "Used"));
+
+        ExtractionDiff diff = ExtractionDiff.compare("per-card", left, "page-source", right);
+        Assert.assertFalse(diff.isEquivalent());
+        Assert.assertEquals(diff.getMatched(), 1);
+        Assert.assertEquals(diff.getOnlyLeft().get(0).get("Title"), "Yamaha HS3");
+        Assert.assertEquals(diff.getOnlyRight().get(0).get("Title"), "Dell 27 inch Monitor");
+        Assert.assertEquals(diff.getMismatches(),
+            Arrays.asList("'Canon EOS 200D' Condition: per-card='Used' page-source='Like New'"));
+    }
+
+    @Test(description = "A listing repeated on one side only is a difference, not a match")
+    public void testDuplicatesAreCounted() {
+        Map<String, String> book = product("Atomic Habits", "450", "Book Corner", "Used");
+        ExtractionDiff diff = ExtractionDiff.compare("a", Arrays.asList(book, book), "b", Arrays.asList(book));
+        Assert.assertEquals(diff.getMatched(), 1);
+        Assert.assertEquals(diff.getOnlyLeft().size(), 1);
+    }
+
+    private static Map<String, String> product(String title, String price, String seller, String condition) {
+        Map<String, String> product = new HashMap<>();
+        product.put("Title", title);
+        product.put("Price", price);
+        product.put("Seller_Name", seller);
+        product.put("Condition", condition);
+        product.put("Description", "N/A");
+        product.put("Ad_Posted_Date", "2 days ago");
+        return product;
+    }
+}
@@ -0,0 +1,157 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.base.ExtractionStats;
+import com.hamrobazaar.pages.ExtractionSelector;
+import com.hamrobazaar.pages.ExtractionStrategy;
+import com.hamrobazaar.pages.SearchResultsPage;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * ExtractionSelector ranking from recorded history - plain unit test, no browser needed
+ */
+public class ExtractionSelectorTest {
+
+    // Test strategies are forgotten around every test, so none of them reaches the saved history
+    private final String prefix = "unit-";
+
+    @BeforeMethod
+    @AfterClass(alwaysRun = true)
+    public void forgetTestStrategies() {
+        ExtractionStats.forget(prefix);
+    }
+
+    @Test(description = "Untried first, then cheapest healthy, unhealthy last")
+    public void testRanking() {
+        ExtractionStrategy slow = strategy("slow");
+        ExtractionStrategy fast = strategy("fast");
+        ExtractionStrategy broken = strategy("broken");
+        ExtractionStrategy untried = strategy("untried");
+
+        ExtractionStats.record(prefix + "slow", true, 50, 5000);   // 100ms/product
+        ExtractionStats.record(prefix + "fast", true, 50, 500);    //  10ms/product
+        ExtractionStats.record(prefix + "broken", false, 5, 10);   // cheap but incomplete
+        ExtractionStats.record(prefix + "broken", false, 5, 10);
+
+        List<String> order = ExtractionSelector.of(Arrays.asList(broken, slow, fast, untried)).ranked().stream()
+            .map(ExtractionStrategy::getName).collect(Collectors.toList());
+        Assert.assertEquals(order, Arrays.asList(prefix + "untried", prefix + "fast", prefix + "slow", prefix + "broken"));
+    }
+
+    @Test(description = "A strategy that keeps failing loses its place to a slower reliable one")
+    public void testFailuresOutweighSpeed() {
+        ExtractionStrategy flaky = strategy("flaky");
+        ExtractionStrategy steady = strategy("steady");
+        ExtractionStats.record(prefix + "flaky", true, 50, 500);
+        ExtractionStats.record(prefix + "flaky", false, 10, 500);
+        ExtractionStats.record(prefix + "flaky", false, 10, 500);
+        ExtractionStats.record(prefix + "steady", true, 50, 2000);
+
+        Assert.assertEquals(ExtractionSelector.of(Arrays.asList(flaky, steady)).ranked().get(0).getName(), prefix + "steady");
+    }
+
+    @Test(description = "Success rate is smoothed and cost is per product")
+    public void testStatsEntry() {
+        ExtractionStats.record(prefix + "entry", true, 40, 2000);
+        ExtractionStats.record(prefix + "entry", false, 10, 500);
+        ExtractionStats.Entry entry = ExtractionStats.get(prefix + "entry");
+        Assert.assertEquals(entry.getRuns(), 2);
+        Assert.assertEquals(entry.successRate(), 0.5, 1e-9);
+        Assert.assertEquals(entry.millisPerProduct(), 50.0, 1e-9);
+        Assert.assertEquals(ExtractionStats.get(prefix + "never").millisPerProduct(), -1.0);
+    }
+
+    @Test(description = "A network read short of the reported total is incomplete and the next strategy tops it up")
+    public void testPartialNetworkReadFallsBack() {
+        // 30 products captured of 100 reported, 50 requested: completeness 30/50
+        ExtractionStrategy network = strategy("network", 30, 100);
+        ExtractionStrategy dom = strategy("dom", 50, -1);
+        ExtractionStats.record(prefix + "dom", true, 50, 5000); // network ranks first as untried
+
+        List<Map<String, String>> products = new ArrayList<>();
+        ExtractionSelector.Selection selection =
+            ExtractionSelector.of(Arrays.asList(network, dom)).extract(null, 50, products::add);
+
+        Assert.assertEquals(selection.getStrategy(), prefix + "network+" + prefix + "dom");
+        Assert.assertEquals(selection.getProductCount(), 50);
+        Assert.assertEquals(products.size(), 50);
+        Assert.assertEquals(products.stream().map(p -> p.get("Title")).distinct().count(), 50L, "Top-up repeated a product");
+        Assert.assertEquals(ExtractionStats.get(prefix + "network").getComplete(), 0);
+    }
+
+    @Test(description = "A network read of every reported result is complete even below maxCount")
+    public void testShortListIsComplete() {
+        ExtractionStrategy network = strategy("network", 30, 30);
+        ExtractionStrategy dom = strategy("dom", 50, -1);
+
+        ExtractionSelector.Selection selection =
+            ExtractionSelector.of(Arrays.asList(network, dom)).extract(null, 50, product -> { });
+
+        Assert.assertEquals(selection.getStrategy(), prefix + "network");
+        Assert.assertEquals(selection.getAttempts().size(), 1);
+    }
+
+    @Test(description = "Completeness is read over expected, expected being maxCount or a smaller reported total")
+    public void testCompleteness() {
+        Assert.assertEquals(SearchResultsPage.completeness(30, -1, 50), 0.6, 1e-9);
+        Assert.assertEquals(SearchResultsPage.completeness(30, 100, 50), 0.6, 1e-9);
+        Assert.assertEquals(SearchResultsPage.completeness(30, 30, 50), 1.0, 1e-9);
+        Assert.assertEquals(SearchResultsPage.completeness(0, 0, 50), 0.0, 1e-9);
+        Assert.assertEquals(SearchResultsPage.completeness(0, 100, 50), 0.0, 1e-9);
+    }
+
+    /**
+     * Delivers products "p0".."p{read-1}" and reports completeness like the network strategy does.
+     * The page is never touched, so these run with a null page
+     */
+    private ExtractionStrategy strategy(String name, int read, int reportedTotal) {
+        return new ExtractionStrategy() {
+            @Override
+            public String getName() {
+                return prefix + name;
+            }
+
+            @Override
+            public int extract(SearchResultsPage page, int maxCount, Consumer<Map<String, String>> consumer) {
+                int count = Math.min(read, maxCount);
+                for (int i = 0; i < count; i++) {
+                    Map<String, String> product = new HashMap<>();
+                    product.put("Title", "p" + i);
+                    product.put("Price", String.valueOf(1000 + i));
+                    product.put("Seller_Name", "Seller");
+                    consumer.accept(product);
+                }
+                return count;
+            }
+
+            @Override
+            public double completeness(SearchResultsPage page, int delivered, int maxCount) {
+                return SearchResultsPage.completeness(delivered, reportedTotal, maxCount);
+            }
+        };
+    }
+
+    private ExtractionStrategy strategy(String name) {
+        return new ExtractionStrategy() {
+            @Override
+            public String getName() {
+                return prefix + name;
+            }
+
+            @Override
+            public int extract(SearchResultsPage page, int maxCount, Consumer<Map<String, String>> consumer) {
+                return 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.base.BasePage;
+import com.hamrobazaar.base.ScenarioClock;
+import com.hamrobazaar.pages.FilterPage;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BasePage form helpers (fillForm, sendKeysUsingJS, insertText) and FilterPage.fillFilters' fallbacks against a
+ * stub driver standing in for a static filter panel - plain unit test, no browser needed
+ */
+public class FormFillTest {
+
+    private static final String PRICE_FROM = "input[name='priceFrom']";
+    private static final String PRICE_TO   = "input[name='priceTo']";
+    private static final String NEGOTIABLE = "button[role='radio'][aria-label=\"Fixed\"]";
+    private static final String CONDITION  = "input[name='condition']";
+
+    // The per-field fallback locator of the negotiable radio, as FilterPage.setNegotiable looks it up
+    private static final String NEGOTIABLE_BUTTON = "By.xpath: //button[@role='radio' and @aria-label='Fixed']";
+
+    // What the fill script reports for each field of the static panel; selectors not on it are "missing"
+    private final Map<String, String> panel = new HashMap<>();
+
+    private final List<String> calls = new ArrayList<>();
+    private Object fillResult;
+
+    @BeforeMethod
+    public void startClock() {
+        calls.clear();
+        fillResult = null;
+        panel.clear();
+        panel.put(PRICE_FROM, "set");
+        panel.put(PRICE_TO, "rejected");
+        panel.put(NEGOTIABLE, "clicked");
+        ScenarioClock.start(Duration.ofMinutes(1));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopClock() {
+        ScenarioClock.finish();
+    }
+
+    @Test(description = "Each field gets the status the script reported for it, in fill order")
+    public void testStatusPerField() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(PRICE_FROM, "100000");
+        fields.put(PRICE_TO, "7000000");
+        fields.put(NEGOTIABLE, "Fixed");
+        fields.put(CONDITION, "Used");
+
+        Map<String, String> statuses = new FormPage(driver(true)).fillForm(fields);
+
+        Assert.assertEquals(new ArrayList<>(statuses.keySet()), new ArrayList<>(fields.keySet()));
+        Assert.assertEquals(new ArrayList<>(statuses.values()), Arrays.asList("set", "rejected", "clicked", "missing"));
+        Assert.assertEquals(calls.size(), 1, calls.toString());
+    }
+
+    @Test(description = "Fields the script did not report on are missing")
+    public void testShortResultIsMissing() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(PRICE_FROM, "100000");
+        fields.put(PRICE_TO, "7000000");
+
+        fillResult = List.of("set");
+        Assert.assertEquals(new ArrayList<>(new FormPage(driver(true)).fillForm(fields).values()), Arrays.asList("set", "missing"));
+
+        fillResult = "not a list";
+        Assert.assertEquals(new ArrayList<>(new FormPage(driver(true)).fillForm(fields).values()), Arrays.asList("missing", "missing"));
+    }
+
+    @Test(description = "sendKeysUsingJS passes the text as a script argument, so quotes are safe")
+    public void testSendKeysUsingJS() {
+        String text = "Ram's \"Auto\" Deals";
+        new FormPage(driver(true)).sendKeysUsingJS(element(), text);
+
+        Assert.assertEquals(calls.size(), 1, calls.toString());
+        Assert.assertTrue(calls.get(0).contains("setValue(arguments[0], arguments[1]);"), calls.get(0));
+        Assert.assertTrue(calls.get(0).endsWith("| " + text), calls.get(0));
+    }
+
+    @Test(description = "insertText focuses the input, then types over CDP, or with clear + sendKeys without it")
+    public void testInsertText() {
+        new FormPage(driver(true)).insertText(element(), "65,00,000");
+        Assert.assertEquals(calls.size(), 2, calls.toString());
+        Assert.assertTrue(calls.get(0).startsWith("script arguments[0].focus();"), calls.get(0));
+        Assert.assertEquals(calls.get(1), "cdp Input.insertText {text=65,00,000}");
+
+        calls.clear();
+        new FormPage(driver(false)).insertText(element(), "65,00,000");
+        Assert.assertEquals(calls.subList(1, calls.size()), Arrays.asList("clear", "sendKeys 65,00,000"));
+    }
+
+    @Test(description = "fillFilters re-fills nothing when every field was set or clicked")
+    public void testFillFiltersWithoutFallback() {
+        panel.put(PRICE_TO, "set");
+        new FilterPage(driver(true)).fillFilters(" 100000 ", "7000000", "Fixed");
+
+        Assert.assertEquals(actions(), Arrays.asList("fill [" + PRICE_FROM + "=100000, " + PRICE_TO + "=7000000, "
+            + NEGOTIABLE + "=Fixed]"));
+    }
+
+    @Test(description = "fillFilters types a rejected price over CDP and clicks a radio the script could not click")
+    public void testFillFiltersFallbacks() {
+        panel.remove(NEGOTIABLE);
+        new FilterPage(driver(true)).fillFilters("100000", "7000000", "Fixed");
+
+        Assert.assertEquals(actions(), Arrays.asList(
+            "fill [" + PRICE_FROM + "=100000, " + PRICE_TO + "=7000000, " + NEGOTIABLE + "=Fixed]",
+            "cdp Input.insertText {text=7000000}",
+            "click " + NEGOTIABLE_BUTTON));
+    }
+
+    @Test(description = "fillFilters only sends the fields it was given, and falls back only for those")
+    public void testFillFiltersPartial() {
+        panel.put(PRICE_FROM, "missing");
+        new FilterPage(driver(true)).fillFilters("", "7000000", null);
+        Assert.assertEquals(actions(), Arrays.asList("fill [" + PRICE_TO + "=7000000]", "cdp Input.insertText {text=7000000}"));
+
+        calls.clear();
+        new FilterPage(driver(true)).fillFilters(" ", null, "");
+        Assert.assertTrue(actions().isEmpty(), calls.toString());
+    }
+
+    /**
+     * The fill call, CDP text input and element clicks, without the scroll and highlight scripts around them
+     */
+    private List<String> actions() {
+        List<String> actions = new ArrayList<>();
+        for (String call : calls) {
+            if (call.startsWith("fill") || call.startsWith("cdp ") || call.startsWith("click ")) {
+                actions.add(call);
+            }
+        }
+        return actions;
+    }
+
+    /**
+     * WebDriver + JavascriptExecutor (+ HasCdp when cdp) that answers the fill script from the panel,
+     * in the order the fields were passed, records every other script and CDP command, and finds a
+     * visible, enabled stub element for any locator
+     */
+    private WebDriver driver(boolean cdp) {
+        Class<?>[] types = cdp
+            ? new Class<?>[] { WebDriver.class, JavascriptExecutor.class, HasCdp.class }
+            : new Class<?>[] { WebDriver.class, JavascriptExecutor.class };
+        return (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(), types, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeScript": {
+                    String script = (String) args[0];
+                    Object[] params = (Object[]) args[1];
+                    if (script.contains("arguments[0].forEach")) {
+                        calls.add("fill " + describeFill((List<?>) params[0]));
+                        return fillResult != null ? fillResult : answerFill((List<?>) params[0]);
+                    }
+                    calls.add("script " + script + (params.length > 1 ? " | " + params[1] : ""));
+                    return null;
+                }
+                case "executeCdpCommand":
+                    if (!String.valueOf(args[0]).startsWith("Page.")) {
+                        calls.add("cdp " + args[0] + " " + args[1]);
+                    }
+                    return new HashMap<String, Object>();
+                case "findElement":
+                    return element(String.valueOf(args[0]));
+                case "findElements":
+                    return List.of(element(String.valueOf(args[0])));
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "StubDriver";
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private List<String> answerFill(List<?> fields) {
+        List<String> statuses = new ArrayList<>();
+        for (Object field : fields) {
+            statuses.add(panel.getOrDefault(((List<?>) field).get(0), "missing"));
+        }
+        return statuses;
+    }
+
+    private static String describeFill(List<?> fields) {
+        List<String> pairs = new ArrayList<>();
+        for (Object field : fields) {
+            pairs.add(((List<?>) field).get(0) + "=" + ((List<?>) field).get(1));
+        }
+        return pairs.toString();
+    }
+
+    private WebElement element() {
+        return element("StubElement");
+    }
+
+    /**
+     * A displayed, enabled element that records clicks and typing under the locator it was found by
+     */
+    private WebElement element(String locator) {
+        return (WebElement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { WebElement.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "clear":
+                        calls.add("clear");
+                        return null;
+                    case "sendKeys":
+                        calls.add("sendKeys " + String.join("", (CharSequence[]) args[0]));
+                        return null;
+                    case "click":
+                        calls.add("click " + locator);
+                        return null;
+                    case "isDisplayed":
+                    case "isEnabled":
+                        return true;
+                    case "isSelected":
+                        return false;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return locator;
+                    default:
+                        return null;
+                }
+            });
+    }
+
+
+    /**
+     * Opens the protected form helpers to the test
+     */
+    private static final class FormPage extends BasePage {
+
+        private FormPage(WebDriver driver) {
+            super(driver);
+        }
+
+        @Override
+        public Map<String, String> fillForm(Map<String, String> fields) {
+            return super.fillForm(fields);
+        }
+
+        @Override
+        public void sendKeysUsingJS(WebElement element, String text) {
+            super.sendKeysUsingJS(element, text);
+        }
+
+        @Override
+        public void insertText(WebElement element, String text) {
+            super.insertText(element, text);
+        }
+    }
+}
@@ -64,7 +64,7 @@ public class HomeTest extends BaseTest {
             }
             
             // Step 3: Initialize HomePage
-            HomePage homePage = new HomePage(driver);
+            HomePage homePage = new HomePage(getDriver());
             ExtentReportListener.getTest().log(Status.INFO, "HomePage initialized");
             
             // Step 4: Search for product (ENTER is pressed automatically)
@@ -0,0 +1,209 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.extraction.HttpSearchClient;
+import com.hamrobazaar.extraction.ProductJsonMapper;
+import com.hamrobazaar.utils.SearchQuery;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HttpSearchClient against an embedded stub server that serves recorded API responses - no browser, no network
+ */
+public class HttpSearchClientTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    private HttpServer server;
+    private String apiUrl;
+    private final Queue<String> requests = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+
+    @BeforeClass
+    public void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/Product/Search", this::serveRecorded);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        apiUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/Product/Search";
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStubServer() {
+        server.stop(0);
+    }
+
+    @BeforeMethod
+    public void reset() {
+        requests.clear();
+        failuresLeft.set(0);
+    }
+
+    @Test(description = "Pages are read in order until a short page, each ad once")
+    public void testPagesUntilShortPage() {
+        try (HttpSearchClient client = client()) {
+            List<Map<String, String>> products = new ArrayList<>();
+            int count = client.search(query("monitor", SortOrder.RECENT), 50, products::add);
+
+            // page 2 repeats the Creta from page 1
+            Assert.assertEquals(count, 4);
+            Assert.assertEquals(products.get(0).get("Title"), "Yamaha HS3 Monitor Speakers");
+            Assert.assertEquals(products.get(3).get("Title"), "Canon EOS 200D");
+            Assert.assertEquals(products.get(1).get("Price"), "65,00,000");
+            Assert.assertTrue(requests.stream().anyMatch(r -> r.contains("pageNumber=2&pageSize=3")), requests.toString());
+        }
+    }
+
+    @Test(description = "No page beyond maxCount is requested")
+    public void testStopsAtMaxCount() {
+        try (HttpSearchClient client = client()) {
+            List<Map<String, String>> products = new ArrayList<>();
+            Assert.assertEquals(client.search(query("monitor", SortOrder.RECENT), 2, products::add), 2);
+            Assert.assertEquals(requests.size(), 1, requests.toString());
+        }
+    }
+
+    @Test(description = "Keyword, filters and sort go out as the same parameters as the results URL")
+    public void testQueryParameters() {
+        SearchQuery query = SearchQuery.builder().keyword("hyundai creta").condition("Used")
+            .priceRange("100000", "7000000").sortOrder(SortOrder.LOW_TO_HIGH).build();
+        try (HttpSearchClient client = client()) {
+            client.search(query, 1, product -> { });
+        }
+        Assert.assertEquals(requests.peek(), "/api/Product/Search?q=hyundai+creta&condition=Used&priceFrom=100000"
+            + "&priceTo=7000000&sortBy=price-asc&pageNumber=1&pageSize=3");
+    }
+
+    @Test(description = "Many searches share one client concurrently")
+    public void testConcurrentSearches() {
+        List<SearchQuery> queries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            queries.add(query("monitor " + i, SortOrder.values()[i % SortOrder.values().length]));
+        }
+        try (HttpSearchClient client = client()) {
+            List<List<Map<String, String>>> results = client.searchAll(queries, 50);
+            Assert.assertEquals(results.size(), 20);
+            for (List<Map<String, String>> products : results) {
+                Assert.assertEquals(products.size(), 4);
+            }
+        }
+    }
+
+    @Test(description = "Pages of repeated ads do not end the search before maxCount")
+    public void testPagesPastRepeatedAds() {
+        try (HttpSearchClient client = client()) {
+            List<Map<String, String>> products = new ArrayList<>();
+            Assert.assertEquals(client.search(query("reposted", SortOrder.RECENT), 4, products::add), 4);
+            Assert.assertEquals(products.get(3).get("Title"), "Canon EOS 200D");
+            Assert.assertTrue(requests.stream().anyMatch(r -> r.contains("pageNumber=3&")), requests.toString());
+        }
+    }
+
+    @Test(description = "Paging stops after full pages that repeat the ads already delivered")
+    public void testStopsOnRepeatedPages() {
+        try (HttpSearchClient client = client()) {
+            List<Map<String, String>> products = new ArrayList<>();
+            Assert.assertEquals(client.search(query("stuck", SortOrder.RECENT), 50, products::add), PAGE_SIZE);
+            // page 1, then three stale pages; at most the pages fetched ahead beyond that
+            long fetched = requests.stream().filter(r -> r.contains("q=stuck")).count();
+            Assert.assertTrue(fetched >= 4 && fetched <= 8, requests.toString());
+        }
+    }
+
+    @Test(description = "A 404 for the first page is an error, not an empty result")
+    public void testFirstPageNotFound() {
+        try (HttpSearchClient client = client()) {
+            client.search(query("missing", SortOrder.RECENT), 5, product -> { });
+            Assert.fail("Expected the search to fail");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("HTTP 404 for page 1"), e.getMessage());
+        }
+    }
+
+    @Test(description = "A 503 is retried, a persistent 500 fails the search")
+    public void testServerErrors() {
+        try (HttpSearchClient client = client()) {
+            failuresLeft.set(1);
+            Assert.assertEquals(client.search(query("monitor", SortOrder.RECENT), 2, product -> { }), 2);
+
+            failuresLeft.set(10);
+            try {
+                client.search(query("monitor", SortOrder.RECENT), 2, product -> { });
+                Assert.fail("Expected the search to fail");
+            } catch (RuntimeException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Unable to search"), e.getMessage());
+            }
+        }
+    }
+
+    private HttpSearchClient client() {
+        return HttpSearchClient.builder()
+            .apiUrl(apiUrl)
+            .pageSize(PAGE_SIZE)
+            .mapper(new ProductJsonMapper(Clock.fixed(Instant.parse("2026-10-16T12:00:00Z"), ZoneOffset.UTC)))
+            .build();
+    }
+
+    private static SearchQuery query(String keyword, SortOrder sort) {
+        return SearchQuery.builder().keyword(keyword).sortOrder(sort).build();
+    }
+
+    /**
+     * recorded/search-products-page{N}.json for pageNumber=N, 404 past the recordings.
+     * q=reposted serves page 1 twice before page 2, q=stuck serves page 1 for every page, q=missing is 404 throughout
+     */
+    private void serveRecorded(HttpExchange exchange) throws IOException {
+        String uri = exchange.getRequestURI().toString();
+        requests.add(uri);
+
+        int status = 200;
+        byte[] body;
+        if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            status = 503;
+            body = "{\"message\":\"busy\"}".getBytes(StandardCharsets.UTF_8);
+        } else {
+            String page = Arrays.stream(exchange.getRequestURI().getQuery().split("&"))
+                .filter(p -> p.startsWith("pageNumber=")).findFirst().orElse("pageNumber=1").substring("pageNumber=".length());
+            String query = exchange.getRequestURI().getQuery();
+            if (query.contains("q=reposted")) {
+                page = "3".equals(page) ? "2" : "1";
+            } else if (query.contains("q=stuck")) {
+                page = "1";
+            }
+            String resource = "recorded/search-products-page" + page + ".json";
+            if (query.contains("q=missing") || getClass().getClassLoader().getResource(resource) == null) {
+                status = 404;
+                body = new byte[0];
+            } else {
+                body = ProductJsonMapperTest.recorded(resource).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+
+        exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
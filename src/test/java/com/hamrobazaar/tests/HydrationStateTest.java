@@ -0,0 +1,87 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.extraction.HydrationState;
+import com.hamrobazaar.extraction.ProductJsonMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HydrationState against a recorded results page source - plain unit test, no browser needed
+ */
+public class HydrationStateTest {
+
+    private final ProductJsonMapper mapper =
+        new ProductJsonMapper(Clock.fixed(Instant.parse("2026-10-16T12:00:00Z"), ZoneOffset.UTC));
+
+    @Test(description = "First page products come out of __NEXT_DATA__ in page order, each ad once")
+    public void testReadsNextData() throws IOException {
+        List<Map<String, String>> products =
+            HydrationState.fromPageSource(ProductJsonMapperTest.recorded("recorded/search-page1.html"), mapper);
+
+        Assert.assertEquals(products.size(), 2, "Featured and recommended lists should be left out");
+        Assert.assertEquals(products.get(0).get(ProductJsonMapper.AD_ID), "a-101");
+        Assert.assertEquals(products.get(0).get("Title"), "Samsung 24 inch Monitor");
+        Assert.assertEquals(products.get(0).get("Price"), "18,500");
+        Assert.assertEquals(products.get(0).get("Ad_Posted_Date"), "2 hours ago");
+        Assert.assertEquals(products.get(1).get("Seller_Name"), "Sita Electronics");
+    }
+
+    @Test(description = "The live-page path (a serialized window global) parses like the page source")
+    public void testStateBlobMatchesPageSource() throws IOException {
+        String html = ProductJsonMapperTest.recorded("recorded/search-page1.html");
+        String json = html.substring(html.indexOf('{', html.indexOf("__NEXT_DATA__")), html.lastIndexOf("</script>"));
+
+        Assert.assertEquals(HydrationState.fromState(json, mapper), HydrationState.fromPageSource(html, mapper));
+    }
+
+    @Test(description = "Only the search results list is read, side lists with other ads are skipped")
+    public void testOnlySearchResultsList() {
+        String state = "{\"home\":{\"recommended\":[" + ad("r-1", "Keyboard") + "]},"
+            + "\"sponsoredAds\":[" + ad("s-1", "Mouse") + "],"
+            + "\"searchResults\":{\"items\":[" + ad("a-1", "Monitor") + "," + ad("a-2", "Monitor Stand") + "," + ad("a-1", "Monitor") + "]}}";
+
+        List<Map<String, String>> products = HydrationState.fromState(state, mapper);
+
+        Assert.assertEquals(products.size(), 2);
+        Assert.assertEquals(products.get(0).get(ProductJsonMapper.AD_ID), "a-1");
+        Assert.assertEquals(products.get(1).get(ProductJsonMapper.AD_ID), "a-2");
+    }
+
+    @Test(description = "A state with only side lists gives nothing; a normalized cache without lists is read whole")
+    public void testSideListsAndNormalizedCache() {
+        Assert.assertTrue(HydrationState.fromState("{\"featured\":[" + ad("f-1", "Monitor") + "]}", mapper).isEmpty());
+
+        String cache = "{\"Product:a-1\":" + ad("a-1", "Monitor") + ",\"Product:a-2\":" + ad("a-2", "Printer") + "}";
+        Assert.assertEquals(HydrationState.fromState(cache, mapper).size(), 2);
+
+        Assert.assertTrue(HydrationState.fromState("not json", mapper).isEmpty());
+    }
+
+    @Test(description = "The blob is current only while the URL is the one the document was loaded from")
+    public void testStaleness() {
+        String loaded = "https://hamrobazaar.com/search/product?q=monitor";
+
+        Assert.assertTrue(HydrationState.isCurrent(loaded, loaded));
+        Assert.assertTrue(HydrationState.isCurrent(loaded, loaded + "#top"));
+        Assert.assertTrue(HydrationState.isCurrent(null, loaded), "No navigation timing counts as current");
+        Assert.assertFalse(HydrationState.isCurrent(loaded, loaded + "&sortBy=price"));
+        Assert.assertFalse(HydrationState.isCurrent("https://hamrobazaar.com/", loaded));
+    }
+
+    @Test(description = "A page without a hydration blob gives no products")
+    public void testNoState() {
+        Assert.assertTrue(HydrationState.fromPageSource("<html><body><div data-index=\"0\"></div></body></html>", mapper).isEmpty());
+        Assert.assertTrue(HydrationState.fromPageSource(null, mapper).isEmpty());
+    }
+
+    private static String ad(String id, String name) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + name + "\",\"price\":1000}";
+    }
+}
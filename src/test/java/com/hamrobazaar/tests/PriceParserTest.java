@@ -0,0 +1,62 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.utils.PriceParser;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * PriceParser against price strings captured from HamroBazaar result cards
+ * Plain unit test - no browser needed
+ */
+public class PriceParserTest {
+
+    @DataProvider(name = "prices")
+    public Object[][] prices() {
+        return new Object[][] {
+            {"1",                 100L},
+            {"999",               99_900L},
+            {"1,499",             149_900L},
+            {"Rs 65,00,000",      650_000_000L},
+            {"Rs. 15,50,000",     155_000_000L},
+            {"रू 2,875",          287_500L},
+            {"रू १,५००",          150_000L},
+            {"NPR 1,00,00,000",   1_000_000_000L},
+            {"Rs 1,499.5",        149_950L},
+            {"Rs 1,499.505",      149_950L},
+            {"Rs 15 lakh",        150_000_000L},
+            {"Rs 1.5 Crore",      1_500_000_000L},
+            {"2 Cr",              2_000_000_000L},
+            {"Rs 500 credit",     50_000L},
+            {"  Rs 650 /piece",   65_000L},
+        };
+    }
+
+    @Test(dataProvider = "prices", description = "Prices as written on the site parse to paisa")
+    public void testParsePaisa(String text, long expectedPaisa) {
+        Assert.assertEquals(PriceParser.parsePaisa(text), expectedPaisa, "Parsing: " + text);
+    }
+
+    @Test(description = "Text without a number is NO_PRICE")
+    public void testSentinels() {
+        for (String text : new String[] {"Price on call", "Negotiable", "N/A", "", "Rs", "रू", null}) {
+            Assert.assertFalse(PriceParser.hasPrice(PriceParser.parsePaisa(text)), "Should have no price: " + text);
+        }
+    }
+
+    @Test(description = "Values too large for a long are rejected instead of wrapping")
+    public void testOverflow() {
+        Assert.assertEquals(PriceParser.parsePaisa("99999999999999999999999"), PriceParser.NO_PRICE);
+        Assert.assertEquals(PriceParser.parsePaisa("999999999999999999 crore"), PriceParser.NO_PRICE);
+    }
+
+    @Test(description = "format writes lakh/crore grouping back")
+    public void testFormat() {
+        Assert.assertEquals(PriceParser.format(650_000_000L), "Rs 65,00,000");
+        Assert.assertEquals(PriceParser.format(1_000_000_000L), "Rs 1,00,00,000");
+        Assert.assertEquals(PriceParser.format(149_950L), "Rs 1,499.50");
+        Assert.assertEquals(PriceParser.format(100L), "Rs 1");
+        Assert.assertEquals(PriceParser.format(5L), "Rs 0.05");
+        Assert.assertEquals(PriceParser.format(PriceParser.NO_PRICE), "N/A");
+    }
+}
@@ -0,0 +1,80 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.extraction.ProductJsonMapper;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductJsonMapper against a recorded search API response - plain unit test, no browser needed
+ */
+public class ProductJsonMapperTest {
+
+    // Crawl time the relative dates are computed against
+    private static final Clock CRAWL_TIME = Clock.fixed(Instant.parse("2026-10-16T12:00:00Z"), ZoneOffset.UTC);
+
+    private final ProductJsonMapper mapper = new ProductJsonMapper(CRAWL_TIME);
+
+    @Test(description = "Products are found in the payload, categories are not mistaken for products")
+    public void testFindsProducts() throws IOException {
+        List<Map<String, String>> products = mapper.mapBody(recorded("recorded/search-products-page1.json"));
+        Assert.assertEquals(products.size(), 3);
+        Assert.assertEquals(products.get(0).get("Title"), "Yamaha HS3 Monitor Speakers");
+        Assert.assertEquals(products.get(1).get("Title"), "Hyundai Creta 2019");
+        Assert.assertEquals(products.get(2).get("Title"), "Atomic Habits");
+    }
+
+    @Test(description = "Card fields are written the way the DOM extraction writes them")
+    public void testCardFields() throws IOException {
+        Map<String, String> car = mapper.mapBody(recorded("recorded/search-products-page1.json")).get(1);
+        Assert.assertEquals(car.get("Price"), "65,00,000");
+        Assert.assertEquals(car.get("Description"), "राम्रो अवस्थामा, एक जना मालिक");
+        Assert.assertEquals(car.get("Condition"), "Used");
+        Assert.assertEquals(car.get("Seller_Name"), "Ram, Auto \"Deals\"");
+        Assert.assertEquals(car.get("Ad_Posted_Date"), "19 days ago");
+    }
+
+    @Test(description = "Fields the cards do not render come from the payload")
+    public void testExtraFields() throws IOException {
+        List<Map<String, String>> products = mapper.mapBody(recorded("recorded/search-products-page1.json"));
+        Map<String, String> monitor = products.get(0);
+        Assert.assertEquals(monitor.get(ProductJsonMapper.AD_ID), "5e1c2a8f-3b7d-4f0e-9a61-0d2f6c1b7a01");
+        Assert.assertEquals(monitor.get(ProductJsonMapper.POSTED_TIMESTAMP), "2026-10-15T03:45:00Z");
+        Assert.assertEquals(monitor.get(ProductJsonMapper.LATITUDE), "27.7041");
+        Assert.assertEquals(monitor.get(ProductJsonMapper.LONGITUDE), "85.3104");
+        Assert.assertEquals(monitor.get("Ad_Posted_Date"), "1 days ago");
+
+        // Local time without an offset is Nepal time
+        Assert.assertEquals(products.get(2).get(ProductJsonMapper.POSTED_TIMESTAMP), "2026-10-16T00:15:00Z");
+    }
+
+    @Test(description = "Missing values become N/A, like a card without that field")
+    public void testMissingValues() throws IOException {
+        Map<String, String> book = mapper.mapBody(recorded("recorded/search-products-page1.json")).get(2);
+        Assert.assertEquals(book.get("Price"), "N/A");
+        Assert.assertEquals(book.get("Description"), "N/A");
+        Assert.assertEquals(book.get(ProductJsonMapper.LATITUDE), "N/A");
+        Assert.assertEquals(book.get("Seller_Name"), "Book Corner");
+    }
+
+    @Test(description = "Bodies that are not JSON map to nothing")
+    public void testNotJson() {
+        Assert.assertTrue(mapper.mapBody("<html>Not found</html>").isEmpty());
+        Assert.assertTrue(mapper.mapBody("").isEmpty());
+    }
+
+    static String recorded(String resource) throws IOException {
+        try (InputStream in = ProductJsonMapperTest.class.getClassLoader().getResourceAsStream(resource)) {
+            Assert.assertNotNull(in, "Missing test resource " + resource);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.enums.ConditionType;
+import com.hamrobazaar.utils.BoundedInterner;
+import com.hamrobazaar.utils.ProductNormalizer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ProductNormalizer, ConditionType and BoundedInterner - plain unit test, no browser needed
+ */
+public class ProductNormalizerTest {
+
+    private static final long CRAWL = 1_790_499_600_000L;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Test(description = "Condition text maps onto ConditionType, most specific wording first")
+    public void testConditionType() {
+        Assert.assertEquals(ConditionType.fromText("Brand New"), ConditionType.BRAND_NEW);
+        Assert.assertEquals(ConditionType.fromText("like-new"), ConditionType.LIKE_NEW);
+        Assert.assertEquals(ConditionType.fromText(" USED "), ConditionType.USED);
+        Assert.assertEquals(ConditionType.fromText("Second hand"), ConditionType.USED);
+        Assert.assertEquals(ConditionType.fromText("Not Working"), ConditionType.NOT_WORKING);
+        Assert.assertEquals(ConditionType.fromText("N/A"), ConditionType.UNKNOWN);
+        Assert.assertEquals(ConditionType.fromText(null), ConditionType.UNKNOWN);
+    }
+
+    @Test(description = "Products get ConditionType and epoch bounds, repeated strings share one instance")
+    public void testNormalize() {
+        ProductNormalizer normalizer = ProductNormalizer.at(CRAWL);
+        List<Map<String, String>> out = new ArrayList<>();
+        normalizer.into(out::add).accept(product("Like New", new String("Ram Motors"), "3 days ago"));
+        normalizer.into(out::add).accept(product("Used", new String("Ram Motors"), "N/A"));
+
+        Map<String, String> first = out.get(0);
+        Assert.assertEquals(first.get("Condition_Type"), "LIKE_NEW");
+        Assert.assertEquals(first.get("Posted_After"), String.valueOf(CRAWL - 4 * DAY));
+        Assert.assertEquals(first.get("Posted_Before"), String.valueOf(CRAWL - 3 * DAY));
+        Assert.assertEquals(first.get("Ad_Posted_Date"), "3 days ago");
+
+        Map<String, String> second = out.get(1);
+        Assert.assertEquals(second.get("Posted_After"), "N/A");
+        Assert.assertSame(second.get("Seller_Name"), first.get("Seller_Name"));
+    }
+
+    @Test(description = "The interner keeps at most its capacity, dropping the least recently used value")
+    public void testBoundedInterner() {
+        BoundedInterner interner = new BoundedInterner(2);
+        String a = interner.intern(new String("a"));
+        interner.intern("b");
+        Assert.assertSame(interner.intern(new String("a")), a);
+        interner.intern("c");
+
+        Assert.assertEquals(interner.size(), 2);
+        Assert.assertNotSame(interner.intern(new String("b")), "b", "b was least recently used and evicted");
+        Assert.assertNull(interner.intern(null));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new BoundedInterner(0));
+    }
+
+    private Map<String, String> product(String condition, String seller, String date) {
+        Map<String, String> product = new HashMap<>();
+        product.put("Title", "Toyota Vitz 2015");
+        product.put("Condition", condition);
+        product.put("Seller_Name", seller);
+        product.put("Ad_Posted_Date", date);
+        return product;
+    }
+}
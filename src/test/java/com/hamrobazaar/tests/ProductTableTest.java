@@ -0,0 +1,155 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.utils.PriceParser;
+import com.hamrobazaar.utils.ProductTable;
+import com.hamrobazaar.utils.ResultSink;
+import com.hamrobazaar.utils.SortVerifier;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+
+/**
+ * ProductTable columns, row views and column scans - plain unit test, no browser needed
+ */
+public class ProductTableTest {
+
+    @Test(description = "Rows read back through typed getters and Map views, N/A kept as missing")
+    public void testRowsRoundTrip() {
+        ProductTable table = table();
+
+        Assert.assertEquals(table.size(), 4);
+        Assert.assertEquals(table.getTitle(0), "Toyota Vitz 2015");
+        Assert.assertEquals(table.getPricePaisa(0), 3_200_000_00L);
+        Assert.assertEquals(table.getPriceText(0), "Rs 32,00,000");
+        Assert.assertEquals(table.getPriceText(3), "Rs. 1,499");
+        Assert.assertEquals(table.getPriceText(2), "Price on call");
+        Assert.assertEquals(table.getPricePaisa(2), PriceParser.NO_PRICE);
+        Assert.assertEquals(table.getDescription(3), "N/A");
+
+        Map<String, String> row = table.row(1);
+        Assert.assertEquals(row.get("Seller_Name"), "Ram Motors");
+        Assert.assertEquals(row.get("Ad_Id"), "a2");
+        Assert.assertEquals(row.getOrDefault("Missing_Column", "N/A"), "N/A");
+        Assert.assertEquals(row.keySet(), new LinkedHashSet<>(table.getColumns()));
+
+        int rows = 0;
+        for (Map<String, String> product : table) {
+            Assert.assertEquals(product.get("Title"), table.getTitle(rows++));
+        }
+        Assert.assertEquals(rows, 4);
+    }
+
+    @Test(description = "Dictionary columns count without row maps, price stats skip unknown prices")
+    public void testColumnScans() {
+        ProductTable table = table();
+
+        Map<String, Integer> sellers = table.countBy("Seller_Name");
+        Assert.assertEquals(sellers.get("Ram Motors"), Integer.valueOf(3));
+        Assert.assertEquals(sellers.get("Sita Books"), Integer.valueOf(1));
+        Assert.assertEquals(table.countBy("Condition").get("N/A"), Integer.valueOf(1));
+
+        LongSummaryStatistics prices = table.priceStatistics();
+        Assert.assertEquals(prices.getCount(), 3);
+        Assert.assertEquals(prices.getMin(), 1_499_00L);
+        Assert.assertEquals(prices.getMax(), 4_000_000_00L);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> table.countBy("Title"));
+    }
+
+    @Test(description = "Columns grow together, extra columns included")
+    public void testGrowth() {
+        ProductTable table = new ProductTable(1);
+        for (int i = 0; i < 100; i++) {
+            table.append(product("Item " + i, "N/A", String.valueOf(i + 1), "Used", "1 day ago", "Seller " + i % 3, "id" + i));
+        }
+        Assert.assertEquals(table.size(), 100);
+        Assert.assertEquals(table.get(99, "Ad_Id"), "id99");
+        Assert.assertEquals(table.getPricePaisa(99), 100_00L);
+        Assert.assertEquals(table.countBy("Seller_Name").size(), 3);
+        Assert.assertTrue(SortVerifier.verify(SortOrder.LOW_TO_HIGH, table).isSorted());
+    }
+
+    @Test(description = "SortVerifier reads the paisa column and names the out-of-order prices")
+    public void testSortVerifierOnTable() {
+        ProductTable table = table();
+        SortVerifier verifier = SortVerifier.verify(SortOrder.HIGH_TO_LOW, table);
+
+        Assert.assertFalse(verifier.isSorted());
+        Assert.assertEquals(verifier.getChecked(), 3);
+        Assert.assertEquals(verifier.getSkipped(), 1);
+        Assert.assertEquals(verifier.getFirstViolation(), "#2 'Rs 40,00,000' after #1 'Rs 32,00,000'");
+    }
+
+    @Test(description = "CSV from the columns matches CSV from the row views")
+    public void testResultSinkWritesColumns() throws IOException {
+        ProductTable table = table();
+        Path dir = Files.createTempDirectory("product-table");
+        Path fromColumns = dir.resolve("columns.csv");
+        Path fromRows = dir.resolve("rows.csv");
+
+        try (ResultSink sink = ResultSink.to(fromColumns.toString()).byteOrderMark(false).extraColumns("Ad_Id").build()) {
+            sink.appendAll(table);
+        }
+        try (ResultSink sink = ResultSink.to(fromRows.toString()).byteOrderMark(false).extraColumns("Ad_Id").build()) {
+            for (Map<String, String> row : table) {
+                sink.append(row);
+            }
+        }
+
+        List<String> lines = Files.readAllLines(fromColumns, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines, Files.readAllLines(fromRows, StandardCharsets.UTF_8));
+        Assert.assertEquals(lines.size(), 5);
+        Assert.assertEquals(lines.get(3), "3,\"Books, lot of 20\",N/A,Price on call,Used,2 days ago,Sita Books,a3");
+    }
+
+    @Test(description = "Price text reads back as appended, also when the digits cannot be rebuilt from paisa")
+    public void testPriceTextKept() {
+        ProductTable table = new ProductTable();
+        table.appendAll(Arrays.asList(
+            product("Laptop", "N/A", "Rs. 1,20,000", "Used", "1 day ago", "Tech Hub", "b1"),
+            product("Phone", "N/A", "Rs. 120000", "Used", "1 day ago", "Tech Hub", "b2"),
+            product("Tablet", "N/A", "रू १,५००", "Used", "1 day ago", "Tech Hub", "b3"),
+            product("Watch", "N/A", "N/A", "Used", "1 day ago", "Tech Hub", "b4")));
+
+        Assert.assertEquals(table.getPriceText(0), "Rs. 1,20,000");
+        Assert.assertEquals(table.getPriceText(1), "Rs. 120000");
+        Assert.assertEquals(table.getPriceText(2), "रू १,५००");
+        Assert.assertEquals(table.getPriceText(3), "N/A");
+        Assert.assertEquals(table.getPricePaisa(1), 120_000_00L);
+        Assert.assertEquals(table.row(0).get("Price"), "Rs. 1,20,000");
+    }
+
+    private ProductTable table() {
+        ProductTable table = new ProductTable(2);
+        table.appendAll(Arrays.asList(
+            product("Toyota Vitz 2015", "Single owner", "Rs 32,00,000", "Used", "1 day ago", "Ram Motors", "a1"),
+            product("Hyundai i20", "Low mileage", "Rs 40,00,000", "Like New", "1 day ago", "Ram Motors", "a2"),
+            product("Books, lot of 20", "N/A", "Price on call", "Used", "2 days ago", "Sita Books", "a3"),
+            product("Car cover", "", "Rs. 1,499", "N/A", "1 day ago", "Ram Motors", "a4")));
+        return table;
+    }
+
+    private Map<String, String> product(String title, String description, String price, String condition,
+                                        String date, String seller, String adId) {
+        Map<String, String> product = new HashMap<>();
+        product.put("Title", title);
+        product.put("Description", description);
+        product.put("Price", price);
+        product.put("Condition", condition);
+        product.put("Ad_Posted_Date", date);
+        product.put("Seller_Name", seller);
+        product.put("Ad_Id", adId);
+        return product;
+    }
+}
@@ -0,0 +1,63 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.utils.RelativeDateParser;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * RelativeDateParser against Ad_Posted_Date strings captured from HamroBazaar result cards
+ * Plain unit test - no browser needed
+ */
+public class RelativeDateParserTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR   = 60 * MINUTE;
+    private static final long DAY    = 24 * HOUR;
+
+    @DataProvider(name = "ages")
+    public Object[][] ages() {
+        return new Object[][] {
+            {"just now",          0L,              MINUTE},
+            {"5 minutes ago",     5 * MINUTE,      6 * MINUTE},
+            {"a minute ago",      MINUTE,          2 * MINUTE},
+            {"an hour ago",       HOUR,            2 * HOUR},
+            {"2 hrs ago",         2 * HOUR,        3 * HOUR},
+            {"today",             0L,              DAY},
+            {"yesterday",         DAY,             2 * DAY},
+            {"1 days ago",        DAY,             2 * DAY},
+            {"3 weeks ago",       21 * DAY,        28 * DAY},
+            {"7 months ago",      210 * DAY,       240 * DAY},
+            {"10 Months Ago",     300 * DAY,       330 * DAY},
+            {"1 years ago",       365 * DAY,       730 * DAY},
+            {"२ days ago",        2 * DAY,         3 * DAY},
+        };
+    }
+
+    @Test(dataProvider = "ages", description = "Card wording parses to a floored age range")
+    public void testAgeRange(String text, long minAge, long maxAge) {
+        Assert.assertEquals(RelativeDateParser.minAgeMillis(text), minAge, "Min age: " + text);
+        Assert.assertEquals(RelativeDateParser.maxAgeMillis(text), maxAge, "Max age: " + text);
+    }
+
+    @Test(description = "Epoch bounds are taken back from the crawl time")
+    public void testPostedBounds() {
+        long crawl = 1_790_499_600_000L;
+        Assert.assertEquals(RelativeDateParser.postedNotBefore("3 days ago", crawl), crawl - 4 * DAY);
+        Assert.assertEquals(RelativeDateParser.postedNotAfter("3 days ago", crawl), crawl - 3 * DAY);
+    }
+
+    @Test(description = "Text without an age is NO_AGE")
+    public void testSentinels() {
+        for (String text : new String[] {"N/A", "", "Featured", "ago", "3 apples", null}) {
+            Assert.assertFalse(RelativeDateParser.hasAge(RelativeDateParser.minAgeMillis(text)), "Should have no age: " + text);
+            Assert.assertFalse(RelativeDateParser.hasAge(RelativeDateParser.postedNotBefore(text, 0L)), "Should have no bound: " + text);
+        }
+    }
+
+    @Test(description = "Units do not match inside other words")
+    public void testWholeWords() {
+        Assert.assertEquals(RelativeDateParser.minAgeMillis("2 Mondays ago"), RelativeDateParser.NO_AGE);
+        Assert.assertEquals(RelativeDateParser.minAgeMillis("4 minutes"), 4 * MINUTE);
+    }
+}
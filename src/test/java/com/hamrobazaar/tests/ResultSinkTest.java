@@ -0,0 +1,198 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.utils.ResultSink;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ResultSink escaping, gzip, rotation and shared appends - plain unit test, no browser needed
+ */
+public class ResultSinkTest {
+
+    private static final String HEADER = "SN,Title,Description,Price,Condition,Ad_Posted_Date,Seller_Name";
+
+    @Test(description = "Commas and quotes are quoted, line breaks flattened, missing columns written as N/A")
+    public void testCsvEscaping() throws IOException {
+        Path file = Files.createTempDirectory("result-sink").resolve("escaping.csv");
+
+        try (ResultSink sink = ResultSink.to(file.toString()).byteOrderMark(false).build()) {
+            sink.append(product("Books, lot of 20", "The \"classic\" set", "Rs. 1,499"));
+            sink.append(product("Chair", "Line one\nline two", "Rs. 500"));
+            Map<String, String> partial = new HashMap<>();
+            partial.put("Title", "Desk");
+            sink.append(partial);
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), 4);
+        Assert.assertEquals(lines.get(0), HEADER);
+        Assert.assertEquals(lines.get(1), "1,\"Books, lot of 20\",\"The \"\"classic\"\" set\",\"Rs. 1,499\",Used,1 day ago,Ram Stores");
+        Assert.assertEquals(lines.get(2), "2,Chair,Line one line two,Rs. 500,Used,1 day ago,Ram Stores");
+        Assert.assertEquals(lines.get(3), "3,Desk,N/A,N/A,N/A,N/A,N/A");
+    }
+
+    @Test(description = "A UTF-8 byte order mark is written by default and Devanagari text survives")
+    public void testByteOrderMark() throws IOException {
+        Path file = Files.createTempDirectory("result-sink").resolve("bom.csv");
+
+        try (ResultSink sink = ResultSink.to(file.toString()).build()) {
+            sink.append(product("मोबाइल", "N/A", "Rs. 10,000"));
+        }
+
+        byte[] bytes = Files.readAllBytes(file);
+        Assert.assertEquals(bytes[0], (byte) 0xEF);
+        Assert.assertEquals(bytes[1], (byte) 0xBB);
+        Assert.assertEquals(bytes[2], (byte) 0xBF);
+        Assert.assertTrue(new String(bytes, StandardCharsets.UTF_8).contains("1,मोबाइल,N/A"));
+    }
+
+    @Test(description = "Gzipped output decompresses to the same CSV as plain output")
+    public void testGzipOutput() throws IOException {
+        Path dir = Files.createTempDirectory("result-sink");
+        Path plain = dir.resolve("plain.csv");
+        Path compressed = dir.resolve("compressed.csv");
+
+        try (ResultSink plainSink = ResultSink.to(plain.toString()).byteOrderMark(false).build();
+             ResultSink gzipSink = ResultSink.to(compressed.toString()).byteOrderMark(false).gzip(true).build()) {
+            for (int i = 0; i < 500; i++) {
+                Map<String, String> product = product("Item " + i, "Description, " + i, "Rs. " + i);
+                plainSink.append(product);
+                gzipSink.append(product);
+            }
+            Assert.assertEquals(gzipSink.getFiles().get(0).getFileName().toString(), "compressed.csv.gz");
+        }
+
+        Path gz = dir.resolve("compressed.csv.gz");
+        Assert.assertTrue(Files.exists(gz));
+        Assert.assertFalse(Files.exists(compressed));
+        Assert.assertTrue(Files.size(gz) < Files.size(plain));
+        Assert.assertEquals(readGzip(gz), Files.readAllLines(plain, StandardCharsets.UTF_8));
+    }
+
+    @Test(description = "Rotation starts part files below the size limit, each with a header, SN counting on")
+    public void testRotation() throws IOException {
+        Path file = Files.createTempDirectory("result-sink").resolve("rotated.csv");
+        long limit = 1024;
+        int rows = 100;
+
+        List<Path> files;
+        try (ResultSink sink = ResultSink.to(file.toString()).byteOrderMark(false).rotateAtBytes(limit).build()) {
+            for (int i = 0; i < rows; i++) {
+                sink.append(product("Item " + i, "N/A", "Rs. " + i));
+            }
+            Assert.assertEquals(sink.getCount(), rows);
+            files = sink.getFiles();
+        }
+
+        Assert.assertTrue(files.size() > 1, "expected several parts, got " + files);
+        Assert.assertEquals(files.get(0).getFileName().toString(), "rotated.csv");
+        Assert.assertEquals(files.get(1).getFileName().toString(), "rotated.part2.csv");
+
+        int expectedSn = 1;
+        for (Path part : files) {
+            Assert.assertTrue(Files.size(part) <= limit, part + " is " + Files.size(part) + " bytes");
+            List<String> lines = Files.readAllLines(part, StandardCharsets.UTF_8);
+            Assert.assertEquals(lines.get(0), HEADER);
+            for (String line : lines.subList(1, lines.size())) {
+                Assert.assertTrue(line.startsWith(expectedSn + ",Item " + (expectedSn - 1) + ","), line);
+                expectedSn++;
+            }
+        }
+        Assert.assertEquals(expectedSn - 1, rows);
+    }
+
+    @Test(description = "Appends from many threads give whole lines and one SN per product")
+    public void testConcurrentAppends() throws Exception {
+        Path file = Files.createTempDirectory("result-sink").resolve("shared.csv");
+        int threads = 8;
+        int perThread = 250;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try (ResultSink sink = ResultSink.to(file.toString()).byteOrderMark(false).build()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        sink.append(product("T" + thread + "-" + i, "Shared, sink", "Rs. " + i));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            Assert.assertEquals(sink.getCount(), threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        Assert.assertEquals(lines.size(), threads * perThread + 1);
+        Set<String> serials = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] cells = line.split(",", 3);
+            Assert.assertTrue(cells[2].startsWith("\"Shared, sink\",Rs. "), line);
+            serials.add(cells[0]);
+            titles.add(cells[1]);
+        }
+        Assert.assertEquals(serials.size(), threads * perThread);
+        Assert.assertEquals(titles.size(), threads * perThread);
+    }
+
+    @Test(description = "An empty sink still writes the header, and appending after close fails")
+    public void testEmptyAndClosed() throws IOException {
+        Path file = Files.createTempDirectory("result-sink").resolve("empty.csv");
+
+        ResultSink sink = ResultSink.to(file.toString()).byteOrderMark(false).build();
+        sink.close();
+
+        Assert.assertEquals(Files.readAllLines(file, StandardCharsets.UTF_8), List.of(HEADER));
+        Assert.assertThrows(IllegalStateException.class, () -> sink.append(product("Late", "N/A", "Rs. 1")));
+    }
+
+    private static List<String> readGzip(Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static Map<String, String> product(String title, String description, String price) {
+        Map<String, String> product = new HashMap<>();
+        product.put("Title", title);
+        product.put("Description", description);
+        product.put("Price", price);
+        product.put("Condition", "Used");
+        product.put("Ad_Posted_Date", "1 day ago");
+        product.put("Seller_Name", "Ram Stores");
+        return product;
+    }
+}
@@ -0,0 +1,91 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.utils.CSVReaderUtil;
+import com.hamrobazaar.utils.SearchQuery;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SearchQuery from testdata.csv rows to results URLs - plain unit test, no browser needed
+ */
+public class SearchQueryTest {
+
+    private static final String CSV_PATH = "src/test/resources/testdata/testdata.csv";
+
+    @Test(description = "testdata.csv rows (BOM and padded headers, sort text with or without spaces) become canonical URLs")
+    public void testFromTestData() {
+        List<Map<String, String>> rows = CSVReaderUtil.readCSV(CSV_PATH);
+        Assert.assertEquals(rows.size(), 3);
+
+        SearchQuery monitor = SearchQuery.fromTestData(rows.get(0));
+        Assert.assertEquals(monitor.getTestName(), "HamroBazaarMonitorSearch");
+        Assert.assertEquals(monitor.getSortOrder(), SortOrder.LOW_TO_HIGH);   // "Low to High(Price)"
+        Assert.assertEquals(monitor.toUrl(),
+            "https://hamrobazaar.com/search/product?q=monitor&lat=27.7041&lng=85.3104&radius=10&sortBy=price-asc");
+
+        SearchQuery car = SearchQuery.fromTestData(rows.get(1));
+        Assert.assertEquals(car.getSortOrder(), SortOrder.HIGH_TO_LOW);       // "High to Low (Price)"
+        Assert.assertEquals(car.toUrl(), "https://hamrobazaar.com/search/product?q=Car&lat=27.6776&lng=85.3168&radius=1"
+            + "&condition=Used&priceFrom=100000&priceTo=10000000&sortBy=price-desc");
+
+        SearchQuery book = SearchQuery.fromTestData(rows.get(2));
+        Assert.assertEquals(book.toUrl("http://localhost:8080"), "http://localhost:8080/search/product?q=book&lat=27.6776"
+            + "&lng=85.3168&radius=1&condition=Brand+New&priceFrom=100&priceTo=1500&sortBy=title-asc");
+    }
+
+    @Test(description = "Distances become kilometres; anything that is not a distance is rejected")
+    public void testRadius() {
+        Assert.assertEquals(radius("10km"), "10");
+        Assert.assertEquals(radius(" 10 KM "), "10");
+        Assert.assertEquals(radius("500m"), "0.5");
+        Assert.assertEquals(radius("2.5"), "2.5");
+        Assert.assertNull(radius("  "));
+
+        for (String bad : new String[] { "far", "tenkm", "5 miles", "m" }) {
+            try {
+                radius(bad);
+                Assert.fail("Expected '" + bad + "' to be rejected");
+            } catch (IllegalArgumentException e) {
+                Assert.assertTrue(e.getMessage().contains(bad), e.getMessage());
+            }
+        }
+    }
+
+    @Test(description = "A location is only navigable by URL with both coordinates")
+    public void testIsUrlNavigable() {
+        Assert.assertTrue(SearchQuery.builder().keyword("monitor").build().isUrlNavigable());
+        Assert.assertTrue(SearchQuery.builder().keyword("monitor").location("New Road")
+            .coordinates("27.7041", "85.3104").build().isUrlNavigable());
+        Assert.assertFalse(SearchQuery.builder().keyword("monitor").location("New Road").build().isUrlNavigable());
+        Assert.assertFalse(SearchQuery.builder().keyword("monitor").location("New Road")
+            .coordinates("27.7041", " ").build().isUrlNavigable());
+    }
+
+    @Test(description = "Empty filters, negotiable Any and the Recent sort are left out; values are trimmed and encoded")
+    public void testEmptyFiltersLeftOut() {
+        SearchQuery query = SearchQuery.builder().keyword("  पुरानो किताब ").condition(" ").priceRange("", null)
+            .negotiable("any").sortOrder(null).build();
+        Assert.assertEquals(query.getSortOrder(), SortOrder.RECENT);
+        Assert.assertEquals(query.toParams().keySet().toString(), "[q]");
+        Assert.assertEquals(query.toUrl(),
+            "https://hamrobazaar.com/search/product?q=%E0%A4%AA%E0%A5%81%E0%A4%B0%E0%A4%BE%E0%A4%A8%E0%A5%8B+"
+            + "%E0%A4%95%E0%A4%BF%E0%A4%A4%E0%A4%BE%E0%A4%AC");
+
+        SearchQuery fixed = SearchQuery.builder().keyword("bike").negotiable("Fixed").priceRange(null, "50000").build();
+        Assert.assertEquals(fixed.toUrl(), "https://hamrobazaar.com/search/product?q=bike&priceTo=50000&negotiable=fixed");
+    }
+
+    @Test(description = "A query without a keyword cannot be built", expectedExceptions = IllegalStateException.class)
+    public void testKeywordRequired() {
+        SearchQuery.builder().keyword("  ").location("New Road").build();
+    }
+
+    private static String radius(String distance) {
+        return SearchQuery.builder().keyword("monitor").location("New Road").coordinates("27.7", "85.3")
+            .distance(distance).build().toParams().get("radius");
+    }
+}
@@ -3,15 +3,15 @@ package com.hamrobazaar.tests;
 import com.hamrobazaar.base.BaseTest;
 import com.hamrobazaar.pages.HomePage;
 import com.hamrobazaar.pages.SearchResultsPage;
+import com.hamrobazaar.utils.ArtifactNames;
 import com.hamrobazaar.utils.CSVReaderUtil;
 import com.hamrobazaar.utils.ExtentReportListener;
+import com.hamrobazaar.utils.ProductTable;
+import com.hamrobazaar.utils.ResultSink;
 import com.aventstack.extentreports.Status;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.List;
 import java.util.Map;
 
 public class SearchResultsTest extends BaseTest {
@@ -19,11 +19,6 @@ public class SearchResultsTest extends BaseTest {
     private static final String CSV_PATH   = "src/test/resources/testdata/testdata.csv";
     private static final String OUTPUT_DIR = "test-output/";
 
-    private static final String TIMESTAMP  =
-        new java.text.SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new java.util.Date());
-
-    private static final String OUTPUT_CSV = OUTPUT_DIR + "Search_Result_" + TIMESTAMP + ".csv";
-
     @Test(priority = 1, description = "Complete Search, Filter, Sort, Extract, and Save - All in One Session")
     public void testCompleteSearchFlowInOneSession() {
 
@@ -49,7 +44,7 @@ public class SearchResultsTest extends BaseTest {
 
             // STEP 3: Search, Location, Distance, Apply
             ExtentReportListener.getTest().log(Status.INFO, "Step 3: Searching with filters");
-            HomePage homePage = new HomePage(driver);
+            HomePage homePage = new HomePage(getDriver());
 
             homePage.searchProduct(searchKeyword);
             ExtentReportListener.getTest().log(Status.PASS, "Searched for: " + searchKeyword);
@@ -66,7 +61,7 @@ public class SearchResultsTest extends BaseTest {
 
             // STEP 4: Initialize Search Results Page
             ExtentReportListener.getTest().log(Status.INFO, "Step 4: Initializing Search Results Page");
-            SearchResultsPage resultsPage = new SearchResultsPage(driver);
+            SearchResultsPage resultsPage = new SearchResultsPage(getDriver());
 
             // STEP 5: Sort by Low to High
             ExtentReportListener.getTest().log(Status.INFO, "Step 5: Sorting by Low to High Price");
@@ -89,7 +84,7 @@ public class SearchResultsTest extends BaseTest {
 
             // STEP 7: Extract 50 Products
             ExtentReportListener.getTest().log(Status.INFO, "Step 7: Extracting top 50 products");
-            List<Map<String, String>> products = resultsPage.extractMultipleProducts(50);
+            ProductTable products = resultsPage.extractProductTable(50);
 
             if (products.isEmpty()) {
                 Assert.fail("No products extracted");
@@ -100,12 +95,15 @@ public class SearchResultsTest extends BaseTest {
 
             // STEP 8: Save to CSV
             ExtentReportListener.getTest().log(Status.INFO, "Step 8: Saving results to CSV");
-            saveToCSV(products, OUTPUT_CSV);
-            ExtentReportListener.getTest().log(Status.PASS, "Saved to: " + OUTPUT_CSV);
+            String outputCsv = ArtifactNames.unique(OUTPUT_DIR, "Search_Result", ".csv");
+            try (ResultSink sink = ResultSink.to(outputCsv).build()) {
+                sink.appendAll(products);
+            }
+            ExtentReportListener.getTest().log(Status.PASS, "Saved to: " + outputCsv);
 
             // STEP 9: Display Results
             ExtentReportListener.getTest().log(Status.INFO, "Step 9: Displaying results");
-            displayResultsTable(products);
+            displayResultsTable(products, outputCsv);
             ExtentReportListener.getTest().log(Status.PASS, "Results displayed in console");
 
             log.info("Complete End-to-End Test PASSED");
@@ -118,43 +116,7 @@ public class SearchResultsTest extends BaseTest {
         }
     }
 
-    private void saveToCSV(List<Map<String, String>> products, String filePath) throws IOException {
-        log.info("Writing {} products to CSV: {}", products.size(), filePath);
-
-        java.io.File outputFile = new java.io.File(filePath);
-        outputFile.getParentFile().mkdirs();
-
-        try (FileWriter writer = new FileWriter(filePath)) {
-            writer.append("SN,Title,Description,Price,Condition,Ad_Posted_Date,Seller_Name\n");
-
-            int sn = 1;
-            for (Map<String, String> product : products) {
-                writer.append(String.valueOf(sn++)).append(",");
-                writer.append(escapeCsvValue(product.getOrDefault("Title",        "N/A"))).append(",");
-                writer.append(escapeCsvValue(product.getOrDefault("Description",  "N/A"))).append(",");
-                writer.append(escapeCsvValue(product.getOrDefault("Price",        "N/A"))).append(",");
-                writer.append(escapeCsvValue(product.getOrDefault("Condition",    "N/A"))).append(",");
-                writer.append(escapeCsvValue(product.getOrDefault("Ad_Posted_Date","N/A"))).append(",");
-                writer.append(escapeCsvValue(product.getOrDefault("Seller_Name",  "N/A"))).append("\n");
-            }
-
-            writer.flush();
-        }
-
-        log.info("CSV saved: {}", outputFile.getAbsolutePath());
-        System.out.println("\nCSV FILE SAVED: " + outputFile.getAbsolutePath());
-    }
-
-    private String escapeCsvValue(String value) {
-        if (value == null) return "";
-        value = value.replace("\n", " ").replace("\r", " ");
-        if (value.contains(",") || value.contains("\"")) {
-            value = "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
-    }
-
-    private void displayResultsTable(List<Map<String, String>> products) {
+    private void displayResultsTable(ProductTable products, String outputCsv) {
         System.out.println("\n" + "=".repeat(160));
         System.out.println("SEARCH RESULTS - TOP " + products.size() + " PRODUCTS (Sorted Low to High Price)");
         System.out.println("=".repeat(160));
@@ -163,7 +125,7 @@ public class SearchResultsTest extends BaseTest {
         System.out.println("-".repeat(160));
 
         for (int i = 0; i < products.size(); i++) {
-            Map<String, String> p = products.get(i);
+            Map<String, String> p = products.row(i);
             System.out.printf("%-4d | %-4d | %-40s | %-15s | %-12s | %-15s | %-25s%n",
                 i + 1, i + 1,
                 truncate(p.getOrDefault("Title",          "N/A"), 40),
@@ -175,7 +137,7 @@ public class SearchResultsTest extends BaseTest {
 
         System.out.println("=".repeat(160));
         System.out.println("Total Products : " + products.size());
-        System.out.println("CSV File       : " + OUTPUT_CSV);
+        System.out.println("CSV File       : " + outputCsv);
         System.out.println("=".repeat(160) + "\n");
     }
 
@@ -0,0 +1,174 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.enums.ExtractionSource;
+import com.hamrobazaar.enums.NavigationMode;
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.extraction.NetworkCapture;
+import com.hamrobazaar.extraction.ProductJsonMapper;
+import com.hamrobazaar.pages.ExtractionSelector;
+import com.hamrobazaar.pages.ExtractionStrategies;
+import com.hamrobazaar.pages.HomePage;
+import com.hamrobazaar.pages.SearchResultsPage;
+import com.hamrobazaar.utils.ArtifactNames;
+import com.hamrobazaar.utils.ExtentReportListener;
+import com.hamrobazaar.utils.ProductNormalizer;
+import com.hamrobazaar.utils.ResultSink;
+import com.hamrobazaar.utils.SearchQuery;
+import com.hamrobazaar.utils.SortVerifier;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * SearchScenarioRunner - The search, filter, sort, extract, save and verify flow for one testdata.csv row
+ * Shared by data-driven tests so a new scenario is a new CSV row, not a new test method
+ */
+public class SearchScenarioRunner {
+
+    private static final Logger log = LogManager.getLogger(SearchScenarioRunner.class);
+
+    private static final String OUTPUT_DIR = "test-output/";
+
+    // Large crawls: -Dresults.gzip=true -Dresults.rotateMb=50
+    private static final boolean GZIP_OUTPUT = Boolean.getBoolean("results.gzip");
+    private static final long ROTATE_AT_BYTES = Long.getLong("results.rotateMb", 0L) * 1024 * 1024;
+
+    private final WebDriver driver;
+    private final NavigationMode mode;
+    private final ExtractionSource source;
+    private final int extractCount;
+
+    public SearchScenarioRunner(WebDriver driver, NavigationMode mode, ExtractionSource source, int extractCount) {
+        this.driver = driver;
+        this.mode = mode;
+        this.source = source;
+        this.extractCount = extractCount;
+    }
+
+    public Result run(SearchQuery query) throws IOException {
+        long start = System.currentTimeMillis();
+        ExtentTest report = ExtentReportListener.getTest();
+        SortOrder sort = query.getSortOrder();
+
+        String outputCsv = ArtifactNames.unique(OUTPUT_DIR, query.getTestName() + "_Results", ".csv");
+        SortVerifier verifier = SortVerifier.forOrder(sort);
+        int productCount;
+
+        log.info("Running scenario {}: keyword={}, location={}, distance={}, condition={}, price={}-{}, negotiable={}, sort={}",
+            query, query.getKeyword(), query.getLocation(), query.getDistance(), query.getCondition(),
+            query.getPriceFrom(), query.getPriceTo(), query.getNegotiable(), sort.getDisplayText());
+
+        // Network capture has to be listening before navigation to see the first results page
+        try (NetworkCapture capture = startCapture()) {
+
+            // Step 1: Reach the results page (URL or UI path)
+            ExtentTest navigation = report.createNode("Open search (" + mode + ")");
+            SearchResultsPage resultsPage = new HomePage(driver).openSearch(query, mode);
+            resultsPage.setPageSourceExtraction(source == ExtractionSource.PAGE_SOURCE);
+            navigation.log(Status.PASS, "Results page opened for: " + query.getKeyword());
+
+            // Step 2: Extract products, streaming each one to the per-row CSV and the sort verifier as it is read
+            boolean hydration = source == ExtractionSource.HYDRATION;
+            // NETWORK without a capture (no DevTools) runs on the DOM
+            ExtractionSource used = source == ExtractionSource.NETWORK && capture == null ? ExtractionSource.DOM : source;
+            ExtentTest extraction = report.createNode("Extract products (" + used + ")");
+            ResultSink.Builder sinkBuilder = ResultSink.to(outputCsv).gzip(GZIP_OUTPUT).rotateAtBytes(ROTATE_AT_BYTES);
+            if (capture != null || hydration) {
+                sinkBuilder.extraColumns(concat(ProductJsonMapper.EXTRA_COLUMNS, ProductNormalizer.EXTRA_COLUMNS));
+            } else {
+                sinkBuilder.extraColumns(ProductNormalizer.EXTRA_COLUMNS);
+            }
+            // Normalized before anything keeps the product, so the CSV gets the added columns and interned strings
+            ProductNormalizer normalizer = ProductNormalizer.forCrawl();
+            try (ResultSink sink = sinkBuilder.build()) {
+                Consumer<Map<String, String>> consumer = normalizer.into(sink::append);
+                if (source == ExtractionSource.AUTO) {
+                    ExtractionSelector.Selection selection = ExtractionSelector.of(ExtractionStrategies.all(capture))
+                        .onFallback(verifier::startSegment)
+                        .extract(resultsPage, extractCount, consumer.andThen(verifier));
+                    extraction.log(Status.INFO, "Strategy: " + selection);
+                    productCount = selection.getProductCount();
+                } else if (capture != null) {
+                    productCount = resultsPage.extractFromNetwork(capture, extractCount, consumer.andThen(verifier));
+                } else if (hydration) {
+                    productCount = resultsPage.extractFromHydrationState(extractCount, consumer.andThen(verifier));
+                } else {
+                    productCount = resultsPage.extractMultipleProducts(extractCount, consumer.andThen(verifier));
+                }
+                outputCsv = sink.getFiles().isEmpty() ? outputCsv : sink.getFiles().get(0).toString();
+            }
+            normalizer.logSummary();
+            extraction.log(productCount == 0 ? Status.FAIL : Status.PASS, String.format("Extracted %d products (completeness %.1f%%)",
+                productCount, resultsPage.getLastCompleteness() * 100));
+            report.createNode("Save results").log(Status.PASS, "Saved to: " + outputCsv);
+        }
+
+        // Step 3: Sort order over every extracted product, not just the first screen
+        ExtentTest verification = report.createNode("Verify sort: " + sort.getDisplayText());
+        boolean sorted = verifier.isSorted();
+        verification.log(sorted ? Status.PASS : Status.WARNING, verifier.summary());
+
+        Result result = new Result(query, sorted, productCount, outputCsv, System.currentTimeMillis() - start);
+        log.info("Scenario finished: {}", result);
+        return result;
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    /**
+     * Null (nothing to close) unless the source can use the network, or when the browser has no DevTools
+     */
+    private NetworkCapture startCapture() {
+        if (source != ExtractionSource.NETWORK && source != ExtractionSource.AUTO) {
+            return null;
+        }
+        if (!NetworkCapture.isSupported(driver)) {
+            log.warn("Browser has no DevTools, extracting from the DOM instead");
+            return null;
+        }
+        return NetworkCapture.start(driver);
+    }
+
+    /**
+     * Outcome of one scenario row
+     */
+    public static final class Result {
+
+        private final SearchQuery query;
+        private final boolean sorted;
+        private final int productCount;
+        private final String outputCsv;
+        private final long durationMillis;
+
+        Result(SearchQuery query, boolean sorted, int productCount, String outputCsv, long durationMillis) {
+            this.query = query;
+            this.sorted = sorted;
+            this.productCount = productCount;
+            this.outputCsv = outputCsv;
+            this.durationMillis = durationMillis;
+        }
+
+        public SearchQuery getQuery()   { return query; }
+        public boolean isSorted()       { return sorted; }
+        public int getProductCount()    { return productCount; }
+        public String getOutputCsv()    { return outputCsv; }
+        public long getDurationMillis() { return durationMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("%s sorted=%s products=%d csv=%s time=%dms",
+                query, sorted, productCount, outputCsv, durationMillis);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.utils.SortVerifier;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SortVerifier over product streams - plain unit test, no browser needed
+ */
+public class SortVerifierTest {
+
+    @Test(description = "Lakh-grouped prices ascending pass, equal neighbours are allowed")
+    public void testLowToHighPasses() {
+        SortVerifier verifier = SortVerifier.verify(SortOrder.LOW_TO_HIGH,
+            products("Price", "1", "999", "999", "1,499", "Rs 15,50,000", "Rs 65,00,000"));
+        Assert.assertTrue(verifier.isSorted(), verifier.summary());
+        Assert.assertEquals(verifier.getChecked(), 6);
+        Assert.assertEquals(verifier.getViolations(), 0);
+    }
+
+    @Test(description = "The first violation and the total count are reported")
+    public void testHighToLowReportsFirstViolation() {
+        SortVerifier verifier = SortVerifier.verify(SortOrder.HIGH_TO_LOW,
+            products("Price", "65,00,000", "15,50,000", "Price on call", "20,00,000", "1,000", "2,000"));
+        Assert.assertFalse(verifier.isSorted());
+        Assert.assertEquals(verifier.getViolations(), 2);
+        Assert.assertEquals(verifier.getSkipped(), 1);
+        Assert.assertEquals(verifier.getFirstViolation(), "#4 '20,00,000' after #2 '15,50,000'");
+    }
+
+    @Test(description = "A to Z ignores case and orders Devanagari titles")
+    public void testAtoZWithDevanagari() {
+        SortVerifier sorted = SortVerifier.verify(SortOrder.A_TO_Z,
+            products("Title", "atomic habits", "Brand new book", "zebra", "अंग्रेजी किताब", "कलम", "किताब"));
+        Assert.assertTrue(sorted.isSorted(), sorted.summary());
+
+        SortVerifier unsorted = SortVerifier.verify(SortOrder.A_TO_Z,
+            products("Title", "Atomic Habits", "किताब", "कलम"));
+        Assert.assertFalse(unsorted.isSorted());
+        Assert.assertEquals(unsorted.getViolations(), 1);
+    }
+
+    @Test(description = "Nothing to check is not a pass")
+    public void testEmpty() {
+        Assert.assertFalse(SortVerifier.verify(SortOrder.LOW_TO_HIGH, products("Price", "N/A")).isSorted());
+        Assert.assertFalse(SortVerifier.verify(SortOrder.RECENT, products("Price", "2", "1")).isSorted());
+    }
+
+    @Test(description = "Recent is checked on the posted date, newest first across units")
+    public void testRecent() {
+        SortVerifier sorted = SortVerifier.verify(SortOrder.RECENT, products("Ad_Posted_Date",
+            "just now", "5 minutes ago", "an hour ago", "23 hours ago", "1 days ago", "N/A", "29 days ago",
+            "1 months ago", "11 months ago", "1 years ago", "2 years ago"));
+        Assert.assertTrue(sorted.isApplicable());
+        Assert.assertTrue(sorted.isSorted(), sorted.summary());
+        Assert.assertEquals(sorted.getSkipped(), 1);
+
+        SortVerifier unsorted = SortVerifier.verify(SortOrder.RECENT,
+            products("Ad_Posted_Date", "2 days ago", "7 months ago", "10 months ago", "3 days ago"));
+        Assert.assertFalse(unsorted.isSorted());
+        Assert.assertEquals(unsorted.getFirstViolation(), "#4 '3 days ago' after #3 '10 months ago'");
+    }
+
+    @Test(description = "Order is checked within segments, not across a segment boundary")
+    public void testSegments() {
+        SortVerifier verifier = SortVerifier.forOrder(SortOrder.LOW_TO_HIGH);
+        for (Map<String, String> product : products("Price", "100", "500", "900")) {
+            verifier.accept(product);
+        }
+        verifier.startSegment();
+        for (Map<String, String> product : products("Price", "300", "700")) {
+            verifier.accept(product);
+        }
+        Assert.assertTrue(verifier.isSorted(), verifier.summary());
+        Assert.assertEquals(verifier.getChecked(), 5);
+    }
+
+    private List<Map<String, String>> products(String field, String... values) {
+        List<Map<String, String>> products = new ArrayList<>();
+        for (String value : values) {
+            Map<String, String> product = new HashMap<>();
+            product.put(field, value);
+            products.add(product);
+        }
+        return products;
+    }
+}
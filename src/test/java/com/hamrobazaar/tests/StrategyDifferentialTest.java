@@ -0,0 +1,70 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.base.BaseTest;
+import com.hamrobazaar.enums.NavigationMode;
+import com.hamrobazaar.enums.SortOrder;
+import com.hamrobazaar.extraction.NetworkCapture;
+import com.hamrobazaar.pages.ExtractionStrategies;
+import com.hamrobazaar.pages.ExtractionStrategy;
+import com.hamrobazaar.pages.HomePage;
+import com.hamrobazaar.pages.SearchResultsPage;
+import com.hamrobazaar.utils.ExtentReportListener;
+import com.hamrobazaar.utils.ExtractionDiff;
+import com.hamrobazaar.utils.SearchQuery;
+import com.aventstack.extentreports.Status;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Differential harness: runs two extraction strategies on the same results page and diffs their products
+ * Run before moving jobs to a faster backend, e.g.
+ * mvn test -Dtest=StrategyDifferentialTest -Ddiff.left=agent -Ddiff.right=page-source -Ddiff.keyword=monitor
+ */
+public class StrategyDifferentialTest extends BaseTest {
+
+    private static final String LEFT = System.getProperty("diff.left", ExtractionStrategies.AGENT);
+    private static final String RIGHT = System.getProperty("diff.right", ExtractionStrategies.PAGE_SOURCE);
+    private static final String KEYWORD = System.getProperty("diff.keyword", "monitor");
+    private static final int COUNT = Integer.getInteger("diff.count", 40);
+
+
+    @Test(description = "Two extraction strategies return the same products from one results page")
+    public void testStrategiesAgree() {
+
+        SearchQuery query = SearchQuery.builder().keyword(KEYWORD).sortOrder(SortOrder.LOW_TO_HIGH).build();
+        boolean needsNetwork = ExtractionStrategies.NETWORK.equalsIgnoreCase(LEFT)
+            || ExtractionStrategies.NETWORK.equalsIgnoreCase(RIGHT);
+
+        // A network strategy needs the capture running before navigation
+        try (NetworkCapture capture = needsNetwork ? NetworkCapture.start(getDriver()) : null) {
+            SearchResultsPage resultsPage = new HomePage(getDriver()).openSearch(query, NavigationMode.URL);
+
+            List<Map<String, String>> left = run(resultsPage, ExtractionStrategies.byName(LEFT, capture));
+            List<Map<String, String>> right = run(resultsPage, ExtractionStrategies.byName(RIGHT, capture));
+
+            ExtractionDiff diff = ExtractionDiff.compare(LEFT, left, RIGHT, right);
+            ExtentReportListener.getTest().log(diff.isEquivalent() ? Status.PASS : Status.FAIL, diff.summary());
+            for (String mismatch : diff.getMismatches()) {
+                ExtentReportListener.getTest().log(Status.INFO, mismatch);
+            }
+
+            Assert.assertFalse(left.isEmpty(), LEFT + " extracted nothing");
+            Assert.assertTrue(diff.isEquivalent(), diff.summary());
+        }
+    }
+
+    private List<Map<String, String>> run(SearchResultsPage page, ExtractionStrategy strategy) {
+        List<Map<String, String>> products = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        strategy.extract(page, COUNT, products::add);
+        String timing = String.format("%s: %d products in %dms (completeness %.1f%%)", strategy.getName(),
+            products.size(), System.currentTimeMillis() - start, page.getLastCompleteness() * 100);
+        log.info(timing);
+        ExtentReportListener.getTest().log(Status.INFO, timing);
+        return products;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hamrobazaar.tests;
+
+import com.hamrobazaar.base.WaitTimings;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * WaitTimings budgets from recorded latencies - plain unit test, no browser needed
+ */
+public class WaitTimingsTest {
+
+    // Test waits are forgotten around every test, so none of them reaches the saved timings
+    private final String prefix = "unit-";
+
+    private static final Duration DEFAULT = Duration.ofSeconds(20);
+
+    @BeforeMethod
+    @AfterClass(alwaysRun = true)
+    public void forgetTestWaits() {
+        WaitTimings.forget(prefix);
+    }
+
+    @Test(description = "Without enough samples the default budget is kept")
+    public void testDefaultUntilEnoughHistory() {
+        String name = prefix + "young";
+        for (int i = 0; i < WaitTimings.MIN_SAMPLES - 1; i++) {
+            WaitTimings.record(name, 40);
+        }
+        Assert.assertEquals(WaitTimings.timeout(name, DEFAULT), DEFAULT);
+        Assert.assertEquals(WaitTimings.percentile(name, 0.99), -1);
+        Assert.assertEquals(WaitTimings.timeout(prefix + "never", DEFAULT), DEFAULT);
+    }
+
+    @Test(description = "A healthy wait gets p99 (rounded up to its bucket) plus the margin")
+    public void testP99PlusMargin() {
+        String name = prefix + "healthy";
+        for (int i = 0; i < 60; i++) {
+            WaitTimings.record(name, 100);       // 128ms bucket
+        }
+        for (int i = 0; i < 39; i++) {
+            WaitTimings.record(name, 200);       // 256ms bucket
+        }
+        WaitTimings.record(name, 900);           // one slow sample, the top 1%
+
+        Assert.assertEquals(WaitTimings.percentile(name, 0.5), 128);
+        Assert.assertEquals(WaitTimings.percentile(name, 0.99), 256);
+        Assert.assertEquals(WaitTimings.timeout(name, DEFAULT), Duration.ofMillis(256).plus(WaitTimings.MARGIN));
+        Assert.assertEquals(WaitTimings.getSamples(name), 100);
+    }
+
+    @Test(description = "Budgets never exceed the default, and frequent timeouts restore it")
+    public void testCappedAndSelfHealing() {
+        String slow = prefix + "slow";
+        for (int i = 0; i < 50; i++) {
+            WaitTimings.record(slow, 25_000);
+        }
+        Assert.assertEquals(WaitTimings.timeout(slow, DEFAULT), DEFAULT);
+
+        String flaky = prefix + "flaky";
+        for (int i = 0; i < 48; i++) {
+            WaitTimings.record(flaky, 50);
+        }
+        Assert.assertTrue(WaitTimings.timeout(flaky, DEFAULT).compareTo(Duration.ofSeconds(2)) < 0);
+        WaitTimings.recordTimeout(flaky);
+        WaitTimings.recordTimeout(flaky);
+        Assert.assertEquals(WaitTimings.timeout(flaky, DEFAULT), DEFAULT);
+    }
+}